@@ -5,7 +5,7 @@ import { Card, CardContent } from './ui/card';
 import { Badge } from './ui/badge';
 import { Button } from './ui/button';
 import { Calendar, MapPin, Users, Ticket, Star } from 'lucide-react';
-import { apiService } from '../services/api';
+import { apiService, assetUrl } from '../services/api';
 import { useAuth } from '../App';
 
 // Track which events have been viewed in this browser session
@@ -74,7 +74,7 @@ const EventCard = ({ event }) => {
       <div className="relative">
         {event.image ? (
           <img
-            src={event.image}
+            src={assetUrl(event.image)}
             alt={event.name}
             className="w-full h-48 object-cover"
           />
@@ -1,54 +1,108 @@
 import { useState, useEffect, useCallback } from 'react';
-import { apiService } from '../services/api';
+import { apiService, assetUrl } from '../services/api';
 
-export const useEvents = () => {
+// Upcoming and past events are paged separately, each a catalog page at a time
+const STATUSES = ['AVAILABLE', 'ENDED'];
+const PAGE_SIZE = 100;
+// Search runs over the whole catalog on the server and returns its best matches in one go
+const SEARCH_LIMIT = 100;
+const SEARCH_DELAY_MS = 300;
+
+const normalise = (event) => ({
+  ...event,
+  registered: event.registered ?? 0,
+  rating: event.rating ?? null,
+  image: assetUrl(event.image) ?? '',
+});
+
+// Waits until typing pauses so every keystroke does not become a request
+const useDebounced = (value, delay) => {
+  const [debounced, setDebounced] = useState(value);
+  useEffect(() => {
+    const timer = setTimeout(() => setDebounced(value), delay);
+    return () => clearTimeout(timer);
+  }, [value, delay]);
+  return debounced;
+};
+
+/**
+ * Events matching a search term and category, filtered by the server rather than in the page.
+ * Without a search term the catalog is paged per status; with one, the search index's hits are shown.
+ */
+export const useEvents = (searchTerm = '', category = 'all') => {
   const [events, setEvents] = useState([]);
+  const [cursors, setCursors] = useState({});
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
+  const query = useDebounced(searchTerm.trim(), SEARCH_DELAY_MS);
+  const categoryFilter = category === 'all' ? undefined : category;
+
+  const fetchPages = useCallback(async (statuses, after = {}) => {
+    const pages = await Promise.all(statuses.map((status) =>
+      apiService.getEventSummaries({ status, category: categoryFilter, cursor: after[status], limit: PAGE_SIZE })
+    ));
+    const next = {};
+    statuses.forEach((status, i) => {
+      next[status] = pages[i].nextCursor;
+    });
+    return { events: pages.flatMap((page) => page.events.map(normalise)), next };
+  }, [categoryFilter]);
+
+  const fetchMatches = useCallback(async () => {
+    const hits = await apiService.searchEvents(query, SEARCH_LIMIT);
+    const ids = hits
+      .filter((hit) => STATUSES.includes(hit.status) && (!categoryFilter || hit.category === categoryFilter))
+      .map((hit) => hit.eventID);
+    const summaries = await apiService.getEventSummariesById(ids);
+    return { events: summaries.map(normalise), next: {} };
+  }, [query, categoryFilter]);
 
   useEffect(() => {
+    // A slower response for an older filter must not replace a newer one
+    let current = true;
     const fetchEvents = async () => {
       try {
-        setLoading(true);
-        const data = await apiService.getEvents();
-        const normalised = data.map((event) => ({
-          ...event,
-          registered: event.registered ?? 0,
-          rating: event.rating ?? null,
-          image: event.image ?? '',
-        }));
-        setEvents(normalised);
+        const first = query ? await fetchMatches() : await fetchPages(STATUSES);
+        if (current) {
+          setEvents(first.events);
+          setCursors(first.next);
+          setError(null);
+        }
       } catch (err) {
-        setError(err.message);
+        if (current) {
+          setError(err.message);
+        }
       } finally {
-        setLoading(false);
+        if (current) {
+          setLoading(false);
+        }
       }
     };
 
     fetchEvents();
-  }, []);
+    return () => {
+      current = false;
+    };
+  }, [query, fetchMatches, fetchPages]);
 
-  const filterEvents = useCallback((searchTerm, category, includeCancelled = false) => {
-    return events.filter(event => {
-      // Filter out cancelled events by default
-      if (!includeCancelled && event.status === 'CANCELLED') {
-        return false;
-      }
-      const matchesSearch = event.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-                           event.description.toLowerCase().includes(searchTerm.toLowerCase());
-      const matchesCategory = category === 'all' || event.category === category;
-      return matchesSearch && matchesCategory && event.status === 'AVAILABLE';
-    });
-  }, [events]);
-
-  const getPastEvents = useCallback((searchTerm, category) => {
-    return events.filter(event => {
-      const matchesSearch = event.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-                           event.description.toLowerCase().includes(searchTerm.toLowerCase());
-      const matchesCategory = category === 'all' || event.category === category;
-      return matchesSearch && matchesCategory && event.status === 'ENDED';
-    });
-  }, [events]);
+  const hasMore = Object.values(cursors).some(Boolean);
+
+  const loadMore = useCallback(async () => {
+    const pending = STATUSES.filter((status) => cursors[status]);
+    if (pending.length === 0) {
+      return;
+    }
+    try {
+      const more = await fetchPages(pending, cursors);
+      setEvents((current) => [...current, ...more.events]);
+      setCursors((current) => ({ ...current, ...more.next }));
+    } catch (err) {
+      setError(err.message);
+    }
+  }, [cursors, fetchPages]);
+
+  const upcomingEvents = events.filter((event) => event.status === 'AVAILABLE');
+  const pastEvents = events.filter((event) => event.status === 'ENDED');
 
-  return { events, loading, error, filterEvents, getPastEvents };
+  return { events, upcomingEvents, pastEvents, loading, error, hasMore, loadMore };
 };
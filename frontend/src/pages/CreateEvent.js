@@ -23,7 +23,7 @@ import {
 } from 'lucide-react';
 import { toast } from 'sonner';
 import { useAuth } from '../App';
-import { apiService } from '../services/api';
+import { apiService, assetUrl } from '../services/api';
 
 let uniqueIdCounter = 0;
 
@@ -46,6 +46,7 @@ const createTicketType = (overrides = {}) => ({
   name: typeof overrides.name === 'string' ? overrides.name : 'Regular',
   price: typeof overrides.price === 'number' ? overrides.price : 100,
   description: typeof overrides.description === 'string' ? overrides.description : '',
+  quota: typeof overrides.quota === 'number' && overrides.quota > 0 ? overrides.quota : '',
   features: Array.isArray(overrides.features) ? overrides.features : [],
 });
 
@@ -200,6 +201,7 @@ const CreateEvent = () => {
           name: typeof item?.name === 'string' ? item.name : 'Regular',
           price: typeof item?.price === 'number' ? item.price : 0,
           description: typeof item?.description === 'string' ? item.description : '',
+          quota: typeof item?.quota === 'number' ? item.quota : undefined,
           features: Array.isArray(item?.features) ? item.features : [],
         }))
         .filter((item) => item.name)
@@ -236,6 +238,7 @@ const CreateEvent = () => {
           name: typeof source.name === 'string' ? source.name.trim() : 'Regular',
           price: typeof source.price === 'number' ? source.price : 0,
           description: typeof source.description === 'string' ? source.description.trim() : '',
+          quota: Number(source.quota) > 0 ? Math.floor(Number(source.quota)) : null,
           features: Array.isArray(source.features) 
             ? source.features.filter(f => typeof f === 'string' && f.trim()).map(f => f.trim())
             : [],
@@ -347,7 +350,7 @@ const CreateEvent = () => {
           category: data.category || prev.category,
           price: data.ticketPrice !== null && data.ticketPrice !== undefined ? String(data.ticketPrice) : prev.price,
           capacity: data.capacity !== null && data.capacity !== undefined ? String(data.capacity) : prev.capacity,
-          image: data.image || '',
+          image: assetUrl(data.image) || '',
           features: parsedFeatures,
           agenda: parsedAgenda.length > 0 ? parsedAgenda : [createAgendaItem()],
           ticketTypes: parseResponseTicketTypes(data.ticketTypes).length > 0 
@@ -897,7 +900,7 @@ const CreateEvent = () => {
                         </Button>
                       )}
                     </div>
-                    <div className="grid md:grid-cols-3 gap-4">
+                    <div className="grid md:grid-cols-4 gap-4">
                       <div className="space-y-1">
                         <Label htmlFor={`ticket-name-${ticketType.id}`}>Name *</Label>
                         <Input
@@ -919,6 +922,18 @@ const CreateEvent = () => {
                           placeholder="0.00"
                         />
                       </div>
+                      <div className="space-y-1">
+                        <Label htmlFor={`ticket-quota-${ticketType.id}`}>Quantity Available</Label>
+                        <Input
+                          id={`ticket-quota-${ticketType.id}`}
+                          type="number"
+                          min="1"
+                          step="1"
+                          value={ticketType.quota}
+                          onChange={(e) => handleTicketTypeChange(ticketType.id, 'quota', e.target.value)}
+                          placeholder="Shares event capacity"
+                        />
+                      </div>
                       <div className="space-y-1">
                         <Label htmlFor={`ticket-desc-${ticketType.id}`}>Short Description</Label>
                         <Input
@@ -1,5 +1,5 @@
 /* global globalThis */
-import React, { useCallback, useState, useEffect } from 'react';
+import React, { useCallback, useState, useEffect, useRef } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
 import { useAuth } from '../App';
 import { Button } from '../components/ui/button';
@@ -23,7 +23,7 @@ import {
   Building2
 } from 'lucide-react';
 import { toast } from 'sonner';
-import { apiService } from '../services/api';
+import { apiService, assetUrl } from '../services/api';
 
 const formatDate = (dateString) => {
   if (!dateString) {
@@ -236,7 +236,7 @@ const mapEventResponse = (data, storedProfile, user) => {
     organizerName: data.organizerDisplayName || data.organizer || 'Organizer details pending',
     organizerEmail: data.organizerEmail || '',
     organizerPhone: data.organizerPhone || '',
-    image: data.image || null,
+    image: assetUrl(data.image) || null,
     rating: data.rating ?? null,
     reviews: data.reviews ?? null,
     features: parsedFeatures,
@@ -297,6 +297,29 @@ const PAYMENT_METHODS = [
   { id: 'BANK_TRANSFER', name: 'Bank Transfer', icon: Building2, description: 'Direct bank transfer' },
 ];
 
+const sleep = (ms) => new Promise((resolve) => setTimeout(resolve, ms));
+
+// Waits in the event's waiting room until it is this buyer's turn, reusing the checkout's token
+const waitForAdmission = async (eventId, queue, toastInstance) => {
+  let status = queue.current;
+  if (!status) {
+    status = await apiService.joinWaitingRoom(eventId);
+    queue.current = status;
+  }
+  const toastId = 'waiting-room';
+  while (!status.admitted) {
+    toastInstance.loading(
+      `You're in the queue: ${status.position} ahead of you (about ${status.estimatedWaitSeconds}s)`,
+      { id: toastId }
+    );
+    await sleep(Math.min(Math.max(status.estimatedWaitSeconds, 2), 10) * 1000);
+    status = await apiService.getQueueStatus(status.token);
+    queue.current = status;
+  }
+  toastInstance.dismiss(toastId);
+  return status.token;
+};
+
 const processTicketPurchase = ({
   isAuthenticated,
   user,
@@ -304,6 +327,9 @@ const processTicketPurchase = ({
   ticketQuantity,
   ticketType,
   paymentMethod,
+  idempotencyKey,
+  queue,
+  onBooked,
   toastInstance,
   navigate,
 }) => {
@@ -333,22 +359,32 @@ const processTicketPurchase = ({
     return;
   }
 
-  toastInstance.promise(
-    apiService.bookTickets({
+  const booking = waitForAdmission(event.eventID, queue, toastInstance)
+    .then((queueToken) => apiService.bookTickets({
       userId: user.id,
       eventId: event.eventID,
       quantity: ticketQuantity,
       ticketType: ticketType.name,
-      ticketPrice: ticketType.price,
       paymentMethod: paymentMethod,
-    }),
+      queueToken,
+    }, idempotencyKey));
+
+  toastInstance.promise(
+    booking,
     {
       loading: 'Processing your payment...',
       success: () => {
+        onBooked?.();
         navigate('/dashboard');
         return `Successfully booked ${ticketQuantity} ${ticketType.name} ticket${ticketQuantity > 1 ? 's' : ''}!`;
       },
-      error: 'Unable to complete the booking. Please try again.',
+      error: (err) => {
+        // A refused or expired queue token is dropped so the next attempt rejoins the queue
+        if (String(err?.message).includes('"waitingRoom"')) {
+          queue.current = null;
+        }
+        return 'Unable to complete the booking. Please try again.';
+      },
     }
   );
 };
@@ -409,6 +445,17 @@ const EventDetails = () => {
   const [showPaymentDialog, setShowPaymentDialog] = useState(false);
   const [selectedPaymentMethod, setSelectedPaymentMethod] = useState(null);
   const [selectedTicketType, setSelectedTicketType] = useState(null);
+  // One idempotency key per checkout attempt, so retrying the same purchase never books twice
+  const checkoutRef = useRef(null);
+  const queueRef = useRef(null);
+
+  const checkoutKeyFor = (purchase) => {
+    const signature = JSON.stringify(purchase);
+    if (checkoutRef.current?.signature !== signature) {
+      checkoutRef.current = { signature, key: globalThis.crypto?.randomUUID?.() };
+    }
+    return checkoutRef.current.key;
+  };
 
   const getStoredOrganizerProfile = useCallback(() => {
     try {
@@ -484,6 +531,18 @@ const EventDetails = () => {
       ticketQuantity,
       ticketType: selectedTicketType,
       paymentMethod: selectedPaymentMethod,
+      idempotencyKey: checkoutKeyFor({
+        userId: user?.id,
+        eventId: event?.eventID,
+        quantity: ticketQuantity,
+        ticketType: selectedTicketType.name,
+        paymentMethod: selectedPaymentMethod,
+      }),
+      queue: queueRef,
+      onBooked: () => {
+        checkoutRef.current = null;
+        queueRef.current = null;
+      },
       toastInstance: toast,
       navigate,
     });
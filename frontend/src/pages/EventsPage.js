@@ -1,4 +1,4 @@
-import React, { useState, useMemo } from 'react';
+import React, { useState } from 'react';
 import { Button } from '../components/ui/button';
 import { Input } from '../components/ui/input';
 import EventCard from '../components/EventCard';
@@ -32,16 +32,14 @@ const CATEGORIES = [
 const EventsPage = () => {
   const [searchTerm, setSearchTerm] = useState('');
   const [selectedCategory, setSelectedCategory] = useState('all');
-  const { loading, error, filterEvents, getPastEvents } = useEvents();
-
-  const filteredEvents = useMemo(() => 
-    filterEvents(searchTerm, selectedCategory),
-    [filterEvents, searchTerm, selectedCategory]
-  );
-  const pastEvents = useMemo(() => 
-    getPastEvents(searchTerm, selectedCategory),
-    [getPastEvents, searchTerm, selectedCategory]
-  );
+  const {
+    loading,
+    error,
+    upcomingEvents: filteredEvents,
+    pastEvents,
+    hasMore,
+    loadMore,
+  } = useEvents(searchTerm, selectedCategory);
 
   if (loading) {
     return (
@@ -152,6 +150,19 @@ const EventsPage = () => {
             Showing {filteredEvents.length} event{filteredEvents.length === 1 ? '' : 's'}
           </div>
         )}
+
+        {/* Next catalog page */}
+        {hasMore && (
+          <div className="text-center mt-4">
+            <Button
+              onClick={loadMore}
+              variant="outline"
+              className="border-orange-600/30 text-orange-500 hover:bg-orange-600/10"
+            >
+              Load more events
+            </Button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -260,7 +260,7 @@ const OrganizerDashboard = () => {
       
       if (response.success) {
         toast.success(
-          `"${eventToCancel.title}" has been cancelled. ${response.ticketsRefunded} tickets refunded (₱${response.totalRefundAmount.toLocaleString()}).`
+          `"${eventToCancel.title}": ${response.message}`
         );
       } else {
         toast.error(response.message || 'Failed to cancel event.');
@@ -74,14 +74,20 @@ const StaffDashboard = () => {
     const initialise = async () => {
       try {
         setLoading(true);
-        const fetchedEvents = await apiService.getEvents();
-        // Only include available events (not cancelled, not ended)
+        // Only available events can be staffed; the catalog endpoint filters and pages them server-side
+        const fetchedEvents = [];
+        let cursor;
+        do {
+          const page = await apiService.getEventSummaries({ status: 'AVAILABLE', cursor, limit: 100 });
+          fetchedEvents.push(...page.events);
+          cursor = page.nextCursor;
+        } while (cursor);
         const now = new Date();
         const availableEvents = fetchedEvents.filter(event => {
           // Exclude cancelled events
           if ((event.status || '').toLowerCase() === 'cancelled') return false;
-          // Exclude ended events (eventEnd in the past)
-          if (event.eventEnd && new Date(event.eventEnd) < now) return false;
+          // Exclude ended events (end date in the past)
+          if (event.endDate && new Date(event.endDate) < now) return false;
           return true;
         });
         setEvents(availableEvents);
@@ -116,29 +122,38 @@ const StaffDashboard = () => {
     }
   }, [selectedEventId, fetchDashboard]);
 
-  // Auto-refresh dashboard every 10 seconds to show latest scans
+  // Live updates: the server sends a snapshot on connect, then each batch of committed scans
   useEffect(() => {
     if (!selectedEventId) {
       return;
     }
-    
-    const interval = setInterval(() => {
-      fetchDashboard(selectedEventId, { showSpinner: false });
-    }, 10000); // Refresh every 10 seconds
-    
-    // Also refresh when tab becomes visible
-    const handleVisibility = () => {
-      if (document.visibilityState === 'visible') {
-        fetchDashboard(selectedEventId, { showSpinner: false });
-      }
-    };
-    document.addEventListener('visibilitychange', handleVisibility);
-    
+
+    const source = apiService.openStaffDashboardStream(selectedEventId);
+    source.addEventListener('snapshot', (message) => {
+      setDashboard(JSON.parse(message.data));
+      setError(null);
+    });
+    source.addEventListener('scans', (message) => {
+      const update = JSON.parse(message.data);
+      setDashboard((current) => {
+        if (!current || current.currentEvent?.eventId !== update.eventId) {
+          return current;
+        }
+        const checkedIn = (current.checkedIn ?? 0) + update.checkedInDelta;
+        return {
+          ...current,
+          checkedIn,
+          pending: Math.max((current.ticketsSold ?? 0) - checkedIn, 0),
+          recentScans: [...[...update.scans].reverse(), ...(current.recentScans ?? [])].slice(0, 25)
+        };
+      });
+    });
+    // EventSource reconnects by itself and the server answers a reconnect with a fresh snapshot
+
     return () => {
-      clearInterval(interval);
-      document.removeEventListener('visibilitychange', handleVisibility);
+      source.close();
     };
-  }, [selectedEventId, fetchDashboard]);
+  }, [selectedEventId]);
 
   useEffect(() => {
     setManualResult(null);
@@ -109,6 +109,39 @@ const TicketView = () => {
     fetchTicket();
   }, [ticketId, user]);
 
+  // Rotating QR codes expire after a few seconds, so keep fetching the current one while the ticket is open
+  useEffect(() => {
+    if (!ticketId) {
+      return undefined;
+    }
+    let timer = null;
+    let cancelled = false;
+
+    const refreshQrCode = async () => {
+      try {
+        const response = await apiService.getTicketQrCode(ticketId);
+        if (cancelled || !response?.code) {
+          return;
+        }
+        setTicket((current) => current && {
+          ...current,
+          qrCode: `https://api.qrserver.com/v1/create-qr-code/?size=300x300&data=${encodeURIComponent(response.code)}`,
+        });
+        if (response.rotating && response.refreshSeconds > 0) {
+          timer = setTimeout(refreshQrCode, Math.max(1, response.refreshSeconds - 1) * 1000);
+        }
+      } catch (err) {
+        console.error('Failed to refresh QR code', err);
+      }
+    };
+
+    refreshQrCode();
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [ticketId]);
+
   const formatDate = (value) => {
     if (!value) {
       return 'Date to be announced';
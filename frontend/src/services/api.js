@@ -92,6 +92,45 @@ class ApiService {
     return this.request('/events');
   }
 
+  /**
+   * Get one page of the event catalog
+   * @param {object} params - Optional status, category, from, to, cursor and limit
+   * @returns {Promise} - { events, nextCursor }
+   */
+  async getEventSummaries(params = {}) {
+    const query = new URLSearchParams(
+      Object.entries(params).filter(([, value]) => value !== undefined && value !== null && value !== '')
+    ).toString();
+    return this.request(`/events/summaries${query ? `?${query}` : ''}`);
+  }
+
+  /**
+   * Get the summaries of several events, in the order given
+   * @param {Array<number>} eventIds - Event IDs, at most 100
+   * @returns {Promise} - Array of event summaries
+   */
+  async getEventSummariesById(eventIds) {
+    if (eventIds.length === 0) {
+      return [];
+    }
+    const query = new URLSearchParams(eventIds.map((id) => ['id', id])).toString();
+    return this.request(`/events/summaries/by-id?${query}`);
+  }
+
+  /**
+   * Full-text search over the whole catalog, best match first
+   * @param {string} query - Search text
+   * @param {number} limit - Maximum number of hits
+   * @returns {Promise} - Array of { eventID, name, category, location, startDate, status, score }
+   */
+  async searchEvents(query, limit) {
+    const params = new URLSearchParams({ q: query });
+    if (limit) {
+      params.set('limit', limit);
+    }
+    return this.request(`/events/search?${params.toString()}`);
+  }
+
   async createEvent(eventData) {
     return this.request('/events', {
       method: 'POST',
@@ -140,13 +179,45 @@ class ApiService {
     });
   }
 
+  /**
+   * Progress of the refunds running after a cancellation.
+   */
+  async getCancellationProgress(eventId) {
+    return this.request(`/events/${eventId}/cancellation`);
+  }
+
   async canDeleteEvent(eventId) {
     return this.request(`/events/${eventId}/can-delete`);
   }
 
-  async bookTickets(payload) {
+  /**
+   * Join an event's waiting room. When no room is open the response is already admitted
+   * and carries no token.
+   */
+  async joinWaitingRoom(eventId) {
+    return this.request(`/waiting-room/events/${eventId}/join`, {
+      method: 'POST',
+    });
+  }
+
+  /**
+   * Current queue position for a waiting room token.
+   */
+  async getQueueStatus(token) {
+    return this.request(`/waiting-room/status?token=${encodeURIComponent(token)}`);
+  }
+
+  /**
+   * Book tickets. Retries must reuse the same idempotency key so the server
+   * returns the original tickets instead of booking again.
+   */
+  async bookTickets(payload, idempotencyKey) {
     return this.request('/tickets/book', {
       method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+        ...(idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : {}),
+      },
       body: JSON.stringify(payload),
     });
   }
@@ -155,6 +226,10 @@ class ApiService {
     return this.request(`/tickets/${ticketId}`);
   }
 
+  async getTicketQrCode(ticketId) {
+    return this.request(`/tickets/${ticketId}/qr`);
+  }
+
   async scanTicket(payload) {
     return this.request('/tickets/scan', {
       method: 'POST',
@@ -188,6 +263,15 @@ class ApiService {
     return this.request(`/dashboard/staff?eventId=${eventId}`);
   }
 
+  /**
+   * Live staff dashboard updates as server-sent events
+   * @param {number} eventId - Event ID
+   * @returns {EventSource} - Emits a "snapshot" event, then "scans" events as check-ins commit
+   */
+  openStaffDashboardStream(eventId) {
+    return new EventSource(`${API_BASE_URL}/dashboard/staff/stream?eventId=${eventId}`);
+  }
+
   // ==================== NOTIFICATION API METHODS ====================
 
   /**
@@ -512,5 +596,18 @@ class ApiService {
   // For events, tickets, etc.
 }
 
+/**
+ * Resolves a server-relative asset path (e.g. an event image in the blob store) against the API host.
+ * Absolute and data URLs are returned unchanged.
+ * @param {string} url - Asset URL as returned by the API
+ * @returns {string} - URL the browser can load
+ */
+export const assetUrl = (url) => {
+  if (!url || !url.startsWith('/')) {
+    return url;
+  }
+  return `${API_BASE_URL.replace(/\/api\/?$/, '')}${url}`;
+};
+
 // Create and export a singleton instance of the API service
 export const apiService = new ApiService();
\ No newline at end of file
@@ -0,0 +1,75 @@
+package org.qrush.ticketing_system.config;
+
+import org.qrush.ticketing_system.service.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves images stored inline in the legacy {@code events.image_data} column into the blob store,
+ * leaving a reference in {@code image_ref} and clearing the inline copy. Rows are read a few at a
+ * time by ID, so a large catalog never sits in memory at once, and a restarted migration resumes
+ * where it left off. A row whose image cannot be stored keeps its inline copy and is retried on the
+ * next start.
+ */
+@Component
+@RequiresSchema
+public class EventImageMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EventImageMigration.class);
+    private static final int BATCH_SIZE = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+
+    public EventImageMigration(JdbcTemplate jdbcTemplate, BlobStore blobStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Integer legacyColumn = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE table_schema = DATABASE() AND table_name = 'events' AND column_name = 'image_data'", Integer.class);
+        if (legacyColumn == null || legacyColumn == 0) {
+            return;
+        }
+        long lastId = 0;
+        int migrated = 0;
+        int failed = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT eventid, image_data FROM events "
+                    + "WHERE eventid > ? AND image_data IS NOT NULL ORDER BY eventid LIMIT " + BATCH_SIZE, lastId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("eventid")).longValue();
+                String reference;
+                try {
+                    reference = blobStore.toReference((String) row.get("image_data"));
+                } catch (IllegalArgumentException | UncheckedIOException e) {
+                    failed++;
+                    log.warn("Could not move the inline image of event {}, leaving it in place: {}", lastId, e.getMessage());
+                    continue;
+                }
+                // An image set through the new column since then wins over the legacy one
+                jdbcTemplate.update("UPDATE events SET image_ref = COALESCE(image_ref, ?), image_data = NULL "
+                        + "WHERE eventid = ?", reference, lastId);
+                migrated++;
+            }
+        }
+        if (migrated > 0) {
+            log.info("Moved {} inline event images into the blob store", migrated);
+        }
+        if (failed > 0) {
+            log.warn("{} inline event images could not be moved and were left in events.image_data", failed);
+        }
+    }
+}
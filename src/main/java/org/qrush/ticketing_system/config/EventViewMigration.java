@@ -0,0 +1,70 @@
+package org.qrush.ticketing_system.config;
+
+import org.qrush.ticketing_system.service.EventUniqueViewers;
+import org.qrush.ticketing_system.service.UniqueViewerSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Folds the legacy one-row-per-view {@code event_views} table into {@code event_unique_viewers}
+ * snapshots. Each event is merged into its snapshot and its rows deleted in one transaction, so a
+ * restarted migration resumes with the events not yet moved. The emptied table is left in place.
+ */
+@Component
+@RequiresSchema
+public class EventViewMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EventViewMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventUniqueViewers eventUniqueViewers;
+
+    public EventViewMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            EventUniqueViewers eventUniqueViewers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventUniqueViewers = eventUniqueViewers;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Integer legacyTable = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+                + "WHERE table_schema = DATABASE() AND table_name = 'event_views'", Integer.class);
+        if (legacyTable == null || legacyTable == 0) {
+            return;
+        }
+        long lastId = 0;
+        int migrated = 0;
+        while (true) {
+            List<Long> eventIds = jdbcTemplate.queryForList("SELECT DISTINCT event_id FROM event_views "
+                    + "WHERE event_id > ? ORDER BY event_id LIMIT 100", Long.class, lastId);
+            if (eventIds.isEmpty()) {
+                break;
+            }
+            for (Long eventId : eventIds) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    UniqueViewerSet viewers = new UniqueViewerSet();
+                    jdbcTemplate.query("SELECT user_id FROM event_views WHERE event_id = ?",
+                            rs -> {
+                                viewers.add(rs.getLong(1));
+                            }, eventId);
+                    eventUniqueViewers.storeMerged(eventId, viewers);
+                    jdbcTemplate.update("DELETE FROM event_views WHERE event_id = ?", eventId);
+                });
+                lastId = eventId;
+                migrated++;
+            }
+        }
+        if (migrated > 0) {
+            log.info("Moved the viewers of {} events into unique-viewer snapshots", migrated);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.qrush.ticketing_system.config;
+
+import org.qrush.ticketing_system.service.IdAllocator;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Seeds the {@code id_generator} rows above the highest existing key of each table, so
+ * pooled/block ID allocation never collides with rows created under IDENTITY keys.
+ */
+@Component
+@RequiresSchema
+public class IdGeneratorInitializer implements InitializingBean {
+
+    // Headroom above MAX(id); covers both block allocation and Hibernate's pooled optimizer
+    private static final int SEED_GAP = 100;
+
+    // sequence name -> table and primary key column
+    private static final Map<String, String[]> SEQUENCES = Map.of(
+            IdAllocator.TICKET_SEQUENCE, new String[] { "ticket", "ticketID" },
+            "payment", new String[] { "payment", "paymentID" },
+            "notification", new String[] { "notifications", "id" },
+            "outbox_event", new String[] { "outbox_events", "id" });
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + IdAllocator.ID_GENERATOR_TABLE
+                + " (sequence_name VARCHAR(255) NOT NULL PRIMARY KEY, next_val BIGINT)");
+        SEQUENCES.forEach((sequence, target) -> jdbcTemplate.update(
+                "INSERT INTO " + IdAllocator.ID_GENERATOR_TABLE + " (sequence_name, next_val) "
+                        + "SELECT ?, COALESCE(MAX(" + target[1] + "), 0) + ? FROM " + target[0] + " "
+                        + "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))",
+                sequence, SEED_GAP));
+    }
+}
@@ -0,0 +1,20 @@
+package org.qrush.ticketing_system.config;
+
+import org.springframework.context.annotation.DependsOn;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a bean that reads or migrates tables at startup, so it is created only after the
+ * EntityManagerFactory, and with it Hibernate's schema update, has finished.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DependsOn("entityManagerFactory")
+public @interface RequiresSchema {
+}
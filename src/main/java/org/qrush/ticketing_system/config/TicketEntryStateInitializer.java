@@ -0,0 +1,45 @@
+package org.qrush.ticketing_system.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the per-ticket entry state columns from {@code attendance_log} for tickets scanned
+ * before those columns existed. Scans since then write the columns themselves, so the backfill
+ * runs once and records that in {@code startup_migrations}; later starts only read the marker.
+ */
+@Component
+@RequiresSchema
+public class TicketEntryStateInitializer implements InitializingBean {
+
+    private static final String MIGRATIONS_TABLE = "startup_migrations";
+    private static final String MIGRATION = "ticket_entry_state";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TicketEntryStateInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + MIGRATIONS_TABLE
+                + " (name VARCHAR(100) NOT NULL PRIMARY KEY, completed_at DATETIME NOT NULL)");
+        Integer done = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + MIGRATIONS_TABLE + " WHERE name = ?",
+                Integer.class, MIGRATION);
+        if (done != null && done > 0) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE ticket t JOIN ("
+                + "SELECT ticketid, MIN(start_time) AS first_at, MAX(start_time) AS last_at, MAX(re_entry) AS re_entries "
+                + "FROM attendance_log GROUP BY ticketid) a ON a.ticketid = t.ticketid "
+                + "SET t.first_entry_at = a.first_at, t.last_entry_at = a.last_at, "
+                + "t.re_entry_count = COALESCE(a.re_entries, 0), "
+                + "t.last_gate = (SELECT l.gate FROM attendance_log l WHERE l.ticketid = t.ticketid "
+                + "ORDER BY l.start_time DESC LIMIT 1) "
+                + "WHERE t.last_entry_at IS NULL");
+        jdbcTemplate.update("INSERT IGNORE INTO " + MIGRATIONS_TABLE + " (name, completed_at) VALUES (?, NOW())",
+                MIGRATION);
+    }
+}
@@ -4,20 +4,25 @@ import org.qrush.ticketing_system.dto.dashboard.AttendeeDashboardResponse;
 import org.qrush.ticketing_system.dto.dashboard.OrganizerDashboardResponse;
 import org.qrush.ticketing_system.dto.dashboard.StaffDashboardResponse;
 import org.qrush.ticketing_system.service.DashboardService;
+import org.qrush.ticketing_system.service.StaffDashboardStream;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/dashboard")
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final StaffDashboardStream staffDashboardStream;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, StaffDashboardStream staffDashboardStream) {
         this.dashboardService = dashboardService;
+        this.staffDashboardStream = staffDashboardStream;
     }
 
     @GetMapping("/attendee/{userId}")
@@ -34,4 +39,9 @@ public class DashboardController {
     public StaffDashboardResponse getStaffDashboard(@RequestParam Long eventId) {
         return dashboardService.getStaffDashboard(eventId);
     }
+
+    @GetMapping(value = "/staff/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStaffDashboard(@RequestParam Long eventId) {
+        return staffDashboardStream.subscribe(eventId);
+    }
 }
@@ -2,11 +2,25 @@ package org.qrush.ticketing_system.controller;
 
 import org.qrush.ticketing_system.dto.CancelEventRequest;
 import org.qrush.ticketing_system.dto.CancelEventResponse;
+import org.qrush.ticketing_system.dto.EventFacetResponse;
+import org.qrush.ticketing_system.dto.EventSearchResult;
+import org.qrush.ticketing_system.dto.EventSummaryResponse;
 import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.service.EventCancellationJob;
+import org.qrush.ticketing_system.service.EventCatalogService;
+import org.qrush.ticketing_system.service.EventDetailCache;
+import org.qrush.ticketing_system.service.EventFacetIndex;
+import org.qrush.ticketing_system.service.EventSearchIndex;
 import org.qrush.ticketing_system.service.EventService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -15,9 +29,21 @@ import java.util.Map;
 public class EventController {
 
     private final EventService eventService;
+    private final EventCatalogService eventCatalogService;
+    private final EventDetailCache eventDetailCache;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventFacetIndex eventFacetIndex;
+    private final EventCancellationJob eventCancellationJob;
 
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, EventCatalogService eventCatalogService,
+            EventDetailCache eventDetailCache, EventSearchIndex eventSearchIndex, EventFacetIndex eventFacetIndex,
+            EventCancellationJob eventCancellationJob) {
         this.eventService = eventService;
+        this.eventCatalogService = eventCatalogService;
+        this.eventDetailCache = eventDetailCache;
+        this.eventSearchIndex = eventSearchIndex;
+        this.eventFacetIndex = eventFacetIndex;
+        this.eventCancellationJob = eventCancellationJob;
     }
 
     @GetMapping
@@ -25,11 +51,81 @@ public class EventController {
         return eventService.getAllEvents();
     }
 
+    /**
+     * Paged catalog listing; pass {@code nextCursor} from the previous page as {@code cursor}.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<?> getEventSummaries(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(eventCatalogService.listSummaries(status, category, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Summaries of the given events in the order asked for, e.g. {@code id=3&id=1} for search hits.
+     */
+    @GetMapping("/summaries/by-id")
+    public List<EventSummaryResponse> getEventSummariesById(@RequestParam(name = "id") List<Long> ids) {
+        return eventCatalogService.findSummaries(ids);
+    }
+
+    /**
+     * Full-text search over name, description, location, category and organizer, best match first.
+     */
+    @GetMapping("/search")
+    public List<EventSearchResult> searchEvents(@RequestParam(name = "q", defaultValue = "") String query,
+            @RequestParam(required = false) Integer limit) {
+        return eventSearchIndex.search(query, limit);
+    }
+
+    /**
+     * Faceted browsing: repeat a parameter to match any of several values, e.g. {@code category=a&category=b}.
+     */
+    @GetMapping("/facets")
+    public EventFacetResponse browseEvents(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) List<String> availability,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit) {
+        return eventFacetIndex.query(new EventFacetIndex.Query(category, status, price, availability, from, to,
+                offset, limit));
+    }
+
     @GetMapping("/{id}")
-    public EventEntity getEventById(@PathVariable Long id) {
-        // Just return the event without tracking views
-        return eventService.getEventById(id)
+    public ResponseEntity<byte[]> getEventById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Just return the event without tracking views; served pre-serialized from the detail cache
+        EventDetailCache.Detail detail = eventDetailCache.get(id)
                 .orElseThrow(() -> new RuntimeException("Event not found with ID: " + id));
+        if (ifNoneMatch != null && ifNoneMatch.contains(detail.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(detail.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(detail.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(detail.body());
+    }
+
+    @GetMapping("/{id}/ticket-types")
+    public ResponseEntity<?> getTicketTypes(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(eventService.getTicketTypes(id));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
 
     @PostMapping("/{id}/track-view")
@@ -93,4 +189,16 @@ public class EventController {
                     false, e.getMessage(), 0, 0));
         }
     }
+
+    /**
+     * Progress of the background refunds started by {@code POST /{id}/cancel}.
+     */
+    @GetMapping("/{id}/cancellation")
+    public ResponseEntity<?> getCancellationProgress(@PathVariable Long id) {
+        return eventCancellationJob.progress(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                        "success", false,
+                        "message", "Event " + id + " has not been cancelled")));
+    }
 }
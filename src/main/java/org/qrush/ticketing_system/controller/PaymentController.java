@@ -1,20 +1,25 @@
 package org.qrush.ticketing_system.controller;
 
 import org.qrush.ticketing_system.entity.PaymentEntity;
+import org.qrush.ticketing_system.service.IdempotencyService;
 import org.qrush.ticketing_system.service.PaymentService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/payments")
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, IdempotencyService idempotencyService) {
         this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
@@ -48,8 +53,25 @@ public class PaymentController {
     }
 
     @PostMapping
-    public ResponseEntity<PaymentEntity> createPayment(@RequestBody PaymentEntity payment) {
-        return ResponseEntity.ok(paymentService.createPayment(payment));
+    public ResponseEntity<?> createPayment(@RequestBody PaymentEntity payment,
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        try {
+            IdempotencyService.Outcome<PaymentEntity> outcome = idempotencyService.execute(
+                    IdempotencyService.CREATE_PAYMENT, idempotencyKey, payment,
+                    () -> paymentService.createPayment(payment),
+                    created -> List.of(created.getPaymentID()),
+                    paymentService::getCreatedPayment);
+            return ResponseEntity.ok()
+                    .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                    .body(outcome.value());
+        } catch (IdempotencyService.KeyInUseException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success", false, "message", e.getMessage()));
+        } catch (IdempotencyService.KeyReusedException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
 
     @PutMapping("/{id}")
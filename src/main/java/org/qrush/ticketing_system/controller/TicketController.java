@@ -1,25 +1,57 @@
 package org.qrush.ticketing_system.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.qrush.ticketing_system.dto.BookTicketRequest;
 import org.qrush.ticketing_system.dto.BulkCheckInRequest;
 import org.qrush.ticketing_system.dto.BulkCheckInResponse;
+import org.qrush.ticketing_system.dto.ConfirmHoldRequest;
 import org.qrush.ticketing_system.dto.ManualTicketVerificationRequest;
+import org.qrush.ticketing_system.dto.OfflineScanUploadRequest;
 import org.qrush.ticketing_system.dto.TicketScanRequest;
+import org.qrush.ticketing_system.dto.TicketHoldRequest;
+import org.qrush.ticketing_system.dto.TicketHoldResponse;
 import org.qrush.ticketing_system.dto.TicketScanResponse;
 import org.qrush.ticketing_system.entity.TicketEntity;
+import org.qrush.ticketing_system.service.IdempotencyService;
+import org.qrush.ticketing_system.service.OfflineScanService;
+import org.qrush.ticketing_system.service.TicketHoldService;
 import org.qrush.ticketing_system.service.TicketService;
+import org.qrush.ticketing_system.service.WaitingRoomService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/tickets")
 public class TicketController {
 
     private final TicketService ticketService;
+    private final WaitingRoomService waitingRoomService;
+    private final TicketHoldService ticketHoldService;
+    private final IdempotencyService idempotencyService;
+    private final OfflineScanService offlineScanService;
+    private final ObjectMapper objectMapper;
 
-    public TicketController(TicketService ticketService) {
+    public TicketController(TicketService ticketService, WaitingRoomService waitingRoomService,
+            TicketHoldService ticketHoldService, IdempotencyService idempotencyService,
+            OfflineScanService offlineScanService, ObjectMapper objectMapper) {
         this.ticketService = ticketService;
+        this.waitingRoomService = waitingRoomService;
+        this.ticketHoldService = ticketHoldService;
+        this.idempotencyService = idempotencyService;
+        this.offlineScanService = offlineScanService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -33,14 +65,126 @@ public class TicketController {
                 .orElseThrow(() -> new RuntimeException("Ticket not found with ID: " + id));
     }
 
+    @GetMapping("/{id}/qr")
+    public ResponseEntity<?> getCurrentQrCode(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(ticketService.getCurrentQrCode(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
     @PostMapping
     public TicketEntity createTicket(@RequestBody TicketEntity ticket) {
         return ticketService.createTicket(ticket);
     }
 
     @PostMapping("/book")
-    public List<TicketEntity> bookTickets(@RequestBody BookTicketRequest request) {
-        return ticketService.bookTickets(request);
+    public ResponseEntity<?> bookTickets(@RequestBody BookTicketRequest request,
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        try {
+            // Retries are answered before the waiting room, whose admission the first attempt already used
+            Optional<List<TicketEntity>> replayed = idempotencyService.replay(IdempotencyService.BOOK_TICKETS,
+                    idempotencyKey, request, ticketService::getTicketsByIds);
+            if (replayed.isPresent()) {
+                return ResponseEntity.ok().header(IdempotencyService.REPLAYED_HEADER, "true").body(replayed.get());
+            }
+        } catch (IdempotencyService.KeyInUseException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success", false, "message", e.getMessage()));
+        } catch (IdempotencyService.KeyReusedException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+
+        // Admission is checked before the booking transaction so queued buyers never reach the database;
+        // the booking spends it only when it commits
+        try {
+            waitingRoomService.checkAdmission(request.getEventId(), request.getQueueToken());
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage(),
+                    "waitingRoom", true));
+        }
+
+        try {
+            IdempotencyService.Outcome<List<TicketEntity>> outcome = idempotencyService.execute(
+                    IdempotencyService.BOOK_TICKETS, idempotencyKey, request,
+                    () -> ticketService.bookTickets(request),
+                    tickets -> tickets.stream().map(TicketEntity::getTicketID).toList(),
+                    ticketService::getTicketsByIds);
+            return ResponseEntity.ok()
+                    .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                    .body(outcome.value());
+        } catch (WaitingRoomService.NotAdmittedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage(),
+                    "waitingRoom", true));
+        } catch (IdempotencyService.KeyInUseException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success", false, "message", e.getMessage()));
+        } catch (IdempotencyService.KeyReusedException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/holds")
+    public ResponseEntity<?> createHold(@RequestBody TicketHoldRequest request) {
+        try {
+            waitingRoomService.checkAdmission(request.eventId(), request.queueToken());
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage(),
+                    "waitingRoom", true));
+        }
+        TicketHoldResponse hold;
+        try {
+            hold = ticketHoldService.createHold(request);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        }
+        // A hold is the booking here, so its admission is spent only once the seats are held
+        try {
+            waitingRoomService.consumeAdmission(request.eventId(), request.queueToken());
+        } catch (IllegalStateException e) {
+            ticketHoldService.release(hold.holdId());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage(),
+                    "waitingRoom", true));
+        }
+        return ResponseEntity.ok(hold);
+    }
+
+    @GetMapping("/holds/{holdId}")
+    public ResponseEntity<TicketHoldResponse> getHold(@PathVariable String holdId) {
+        return ticketHoldService.getHold(holdId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable String holdId,
+            @RequestBody(required = false) ConfirmHoldRequest request) {
+        try {
+            return ResponseEntity.ok(ticketService.confirmHold(holdId, request));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId) {
+        ticketHoldService.release(holdId);
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/scan")
@@ -58,6 +202,54 @@ public class TicketController {
         return ticketService.bulkCheckIn(request);
     }
 
+    /**
+     * Streams a group check-in: one ticket number per request line in, one NDJSON result per line
+     * out as each chunk completes, then a final line with the totals.
+     */
+    @PostMapping(value = "/bulk-check-in/stream", produces = "application/x-ndjson")
+    public void bulkCheckInStream(@RequestParam(required = false) Long eventId,
+            @RequestParam(required = false) String gate,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer out = response.getWriter();
+        BulkCheckInResponse totals = ticketService.bulkCheckIn(request.getReader(), eventId, gate, result -> {
+            try {
+                out.write(objectMapper.writeValueAsString(result));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.write(objectMapper.writeValueAsString(totals));
+        out.write('\n');
+        out.flush();
+    }
+
+    @GetMapping("/offline-manifest/{eventId}")
+    public ResponseEntity<?> getOfflineManifest(@PathVariable Long eventId,
+            @RequestParam(defaultValue = "0") long since) {
+        try {
+            OfflineScanService.Manifest manifest = offlineScanService.buildManifest(eventId, since);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header("X-Manifest-Version", String.valueOf(manifest.version()))
+                    .body(manifest.content());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/offline-scans")
+    public ResponseEntity<?> uploadOfflineScans(@RequestBody OfflineScanUploadRequest request) {
+        try {
+            return ResponseEntity.ok(offlineScanService.upload(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public TicketEntity updateTicket(@PathVariable Long id, @RequestBody TicketEntity updatedTicket) {
         return ticketService.updateTicket(id, updatedTicket);
@@ -0,0 +1,54 @@
+package org.qrush.ticketing_system.controller;
+
+import org.qrush.ticketing_system.dto.QueueStatusResponse;
+import org.qrush.ticketing_system.service.WaitingRoomService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/waiting-room")
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    public WaitingRoomController(WaitingRoomService waitingRoomService) {
+        this.waitingRoomService = waitingRoomService;
+    }
+
+    @PostMapping("/events/{eventId}/join")
+    public ResponseEntity<?> join(@PathVariable Long eventId) {
+        try {
+            return ResponseEntity.ok(waitingRoomService.join(eventId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<QueueStatusResponse> status(@RequestParam String token) {
+        try {
+            return ResponseEntity.ok(waitingRoomService.status(token));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/events/{eventId}/open")
+    public ResponseEntity<Map<String, Object>> open(@PathVariable Long eventId,
+            @RequestParam(name = "ratePerSecond", required = false) Double ratePerSecond,
+            @RequestParam(name = "burst", required = false) Integer burst) {
+        waitingRoomService.open(eventId, ratePerSecond, burst);
+        return ResponseEntity.ok(Map.of("success", true, "message", "Waiting room opened"));
+    }
+
+    @DeleteMapping("/events/{eventId}")
+    public ResponseEntity<Map<String, Object>> close(@PathVariable Long eventId) {
+        waitingRoomService.close(eventId);
+        return ResponseEntity.ok(Map.of("success", true, "message", "Waiting room closed"));
+    }
+}
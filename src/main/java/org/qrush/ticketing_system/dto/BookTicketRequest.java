@@ -1,5 +1,7 @@
 package org.qrush.ticketing_system.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class BookTicketRequest {
     private Long userId;
     private Long eventId;
@@ -7,6 +9,10 @@ public class BookTicketRequest {
     private String ticketType = "REGULAR";
     private Double ticketPrice; // Price per ticket for this type
     private String paymentMethod = "GCASH"; // Default payment method
+    // Waiting room token, required while the event's room is open; read but never written, so a
+    // retry that rejoined the queue still matches its idempotency key
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String queueToken;
 
     public Long getUserId() {
         return userId;
@@ -55,4 +61,12 @@ public class BookTicketRequest {
     public void setPaymentMethod(String paymentMethod) {
         this.paymentMethod = paymentMethod;
     }
+
+    public String getQueueToken() {
+        return queueToken;
+    }
+
+    public void setQueueToken(String queueToken) {
+        this.queueToken = queueToken;
+    }
 }
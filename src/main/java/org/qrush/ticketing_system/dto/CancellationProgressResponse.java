@@ -0,0 +1,19 @@
+package org.qrush.ticketing_system.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the background refunds of a cancelled event.
+ */
+public record CancellationProgressResponse(
+        Long eventId,
+        String status,
+        long ticketsToRefund,
+        long ticketsRefunded,
+        double totalRefundAmount,
+        LocalDateTime startedAt,
+        LocalDateTime updatedAt,
+        LocalDateTime completedAt,
+        String lastError
+) {
+}
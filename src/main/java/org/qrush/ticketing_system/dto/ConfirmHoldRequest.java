@@ -0,0 +1,9 @@
+package org.qrush.ticketing_system.dto;
+
+/**
+ * Request payload for turning a ticket hold into a purchase.
+ */
+public record ConfirmHoldRequest(
+        String paymentMethod
+) {
+}
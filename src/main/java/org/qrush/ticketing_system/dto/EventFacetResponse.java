@@ -0,0 +1,14 @@
+package org.qrush.ticketing_system.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Events matching a facet filter, with per-value counts for every facet under the other filters.
+ */
+public record EventFacetResponse(
+        int total,
+        List<Long> eventIds,
+        Map<String, Map<String, Integer>> counts
+) {
+}
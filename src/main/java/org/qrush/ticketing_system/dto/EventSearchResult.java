@@ -0,0 +1,17 @@
+package org.qrush.ticketing_system.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One ranked match from the event search index.
+ */
+public record EventSearchResult(
+        Long eventID,
+        String name,
+        String category,
+        String location,
+        LocalDateTime startDate,
+        String status,
+        double score
+) {
+}
@@ -0,0 +1,12 @@
+package org.qrush.ticketing_system.dto;
+
+import java.util.List;
+
+/**
+ * One page of the event catalog; {@code nextCursor} is null on the last page.
+ */
+public record EventSummaryPage(
+        List<EventSummaryResponse> events,
+        String nextCursor
+) {
+}
@@ -0,0 +1,24 @@
+package org.qrush.ticketing_system.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Catalog listing entry for an event, without the large text columns.
+ */
+public record EventSummaryResponse(
+        Long eventID,
+        String name,
+        String category,
+        String location,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        Double ticketPrice,
+        Integer capacity,
+        Integer ticketsSold,
+        Long views,
+        String organizer,
+        String status,
+        String image,
+        String description
+) {
+}
@@ -0,0 +1,29 @@
+package org.qrush.ticketing_system.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Request payload for uploading scans a gate device recorded while offline.
+ */
+public record OfflineScanUploadRequest(
+        Long eventId,
+        String deviceId,
+        Long staffUserId,
+        List<Scan> scans
+) {
+    public OfflineScanUploadRequest {
+        scans = scans == null ? List.of() : scans;
+    }
+
+    /**
+     * One offline scan. {@code scanId} is unique per device so re-uploading a batch is harmless.
+     */
+    public record Scan(
+            String scanId,
+            String code,
+            String gate,
+            LocalDateTime scannedAt
+    ) {
+    }
+}
@@ -0,0 +1,28 @@
+package org.qrush.ticketing_system.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of reconciling an offline scan upload, with one result per uploaded scan.
+ */
+public record OfflineScanUploadResponse(
+        int received,
+        int admitted,
+        int duplicates,
+        int rejected,
+        int alreadySynced,
+        List<Result> results
+) {
+
+    /**
+     * Server verdict on one uploaded scan.
+     */
+    public record Result(
+            String scanId,
+            Long ticketId,
+            String status,
+            String message,
+            int reEntryCount
+    ) {
+    }
+}
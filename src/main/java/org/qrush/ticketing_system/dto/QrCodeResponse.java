@@ -0,0 +1,12 @@
+package org.qrush.ticketing_system.dto;
+
+/**
+ * QR code to display for a ticket and how often the client should fetch a fresh one.
+ */
+public record QrCodeResponse(
+        Long ticketId,
+        String code,
+        boolean rotating,
+        long refreshSeconds
+) {
+}
@@ -0,0 +1,13 @@
+package org.qrush.ticketing_system.dto;
+
+/**
+ * Position of a client in an event's waiting room.
+ */
+public record QueueStatusResponse(
+        Long eventId,
+        String token,
+        boolean admitted,
+        long position,
+        long estimatedWaitSeconds
+) {
+}
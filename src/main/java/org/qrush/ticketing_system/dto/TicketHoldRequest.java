@@ -0,0 +1,13 @@
+package org.qrush.ticketing_system.dto;
+
+/**
+ * Request payload for temporarily holding tickets while the buyer completes payment.
+ */
+public record TicketHoldRequest(
+        Long userId,
+        Long eventId,
+        Integer quantity,
+        String ticketType,
+        String queueToken
+) {
+}
@@ -0,0 +1,16 @@
+package org.qrush.ticketing_system.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Details of an active ticket hold.
+ */
+public record TicketHoldResponse(
+        String holdId,
+        Long userId,
+        Long eventId,
+        String ticketType,
+        int quantity,
+        LocalDateTime expiresAt
+) {
+}
@@ -0,0 +1,17 @@
+package org.qrush.ticketing_system.dto;
+
+import java.util.List;
+
+/**
+ * A bookable ticket type of an event with its current availability.
+ */
+public record TicketTypeResponse(
+        Long id,
+        String name,
+        double price,
+        Integer quota,
+        int available,
+        String description,
+        List<String> features
+) {
+}
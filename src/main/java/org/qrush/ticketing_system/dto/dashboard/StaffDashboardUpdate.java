@@ -0,0 +1,13 @@
+package org.qrush.ticketing_system.dto.dashboard;
+
+import java.util.List;
+
+/**
+ * Scans committed since the last push to a staff dashboard stream, and the resulting change in check-ins.
+ */
+public record StaffDashboardUpdate(
+        Long eventId,
+        long checkedInDelta,
+        List<StaffDashboardResponse.ScanRecord> scans
+) {
+}
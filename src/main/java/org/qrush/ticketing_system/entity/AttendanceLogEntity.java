@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attendance_log")
+@Table(name = "attendance_log", indexes = {
+        @Index(name = "idx_attendance_event_time", columnList = "eventID, start_time")
+})
 public class AttendanceLogEntity {
 
     @Id
@@ -35,6 +37,10 @@ public class AttendanceLogEntity {
     @Column(name = "gate")
     private String gate;
 
+    // Unique per scan so that replaying the write-behind journal never inserts a row twice
+    @Column(name = "scan_ref", unique = true, length = 36)
+    private String scanRef;
+
     // Getters and Setters
     public Long getLogID() {
         return logID;
@@ -99,4 +105,12 @@ public class AttendanceLogEntity {
     public void setGate(String gate) {
         this.gate = gate;
     }
+
+    public String getScanRef() {
+        return scanRef;
+    }
+
+    public void setScanRef(String scanRef) {
+        this.scanRef = scanRef;
+    }
 }
@@ -0,0 +1,7 @@
+package org.qrush.ticketing_system.entity;
+
+public enum CancellationJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
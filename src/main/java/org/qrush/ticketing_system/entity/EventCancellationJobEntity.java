@@ -0,0 +1,198 @@
+package org.qrush.ticketing_system.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of refunding the tickets of a cancelled event, committed with each chunk.
+ */
+@Entity
+@Table(name = "event_cancellation_jobs", indexes = {
+        @Index(name = "idx_cancellation_jobs_status", columnList = "status, event_id")
+})
+public class EventCancellationJobEntity implements Persistable<Long> {
+
+    // One job per event, since an event is cancelled once
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CancellationJobStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String reason;
+
+    // Keyset cursor: tickets up to this ID have been handled
+    @Column(name = "last_ticket_id", nullable = false)
+    private Long lastTicketId = 0L;
+
+    // Set once every ticket is refunded: holders up to this user ID have been sent their refund notice
+    @Column(name = "last_notified_user_id")
+    private Long lastNotifiedUserId;
+
+    // Refundable tickets when the job started
+    @Column(name = "tickets_to_refund", nullable = false)
+    private Long ticketsToRefund = 0L;
+
+    @Column(name = "tickets_refunded", nullable = false)
+    private Long ticketsRefunded = 0L;
+
+    @Column(name = "total_refund_amount", nullable = false)
+    private Double totalRefundAmount = 0.0;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Transient
+    private boolean newEntity = true;
+
+    @Override
+    @JsonIgnore
+    public Long getId() {
+        return eventId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (updatedAt == null) {
+            updatedAt = createdAt;
+        }
+    }
+
+    // Getters and Setters
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public CancellationJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CancellationJobStatus status) {
+        this.status = status;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public Long getLastTicketId() {
+        return lastTicketId;
+    }
+
+    public void setLastTicketId(Long lastTicketId) {
+        this.lastTicketId = lastTicketId;
+    }
+
+    public Long getLastNotifiedUserId() {
+        return lastNotifiedUserId;
+    }
+
+    public void setLastNotifiedUserId(Long lastNotifiedUserId) {
+        this.lastNotifiedUserId = lastNotifiedUserId;
+    }
+
+    public Long getTicketsToRefund() {
+        return ticketsToRefund;
+    }
+
+    public void setTicketsToRefund(Long ticketsToRefund) {
+        this.ticketsToRefund = ticketsToRefund;
+    }
+
+    public Long getTicketsRefunded() {
+        return ticketsRefunded;
+    }
+
+    public void setTicketsRefunded(Long ticketsRefunded) {
+        this.ticketsRefunded = ticketsRefunded;
+    }
+
+    public Double getTotalRefundAmount() {
+        return totalRefundAmount;
+    }
+
+    public void setTotalRefundAmount(Double totalRefundAmount) {
+        this.totalRefundAmount = totalRefundAmount;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
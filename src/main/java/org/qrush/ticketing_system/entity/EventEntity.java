@@ -1,10 +1,17 @@
 package org.qrush.ticketing_system.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_status_end", columnList = "status, end_date"),
+        @Index(name = "idx_events_start", columnList = "start_date, eventID"),
+        @Index(name = "idx_events_status_start", columnList = "status, start_date, eventID"),
+        @Index(name = "idx_events_category_start", columnList = "category, start_date, eventID")
+})
 public class EventEntity {
 
     @Id
@@ -47,9 +54,13 @@ public class EventEntity {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @Lob
-    @Column(name = "image_data", columnDefinition = "LONGTEXT")
-    private String image;
+    // "sha256:<hash>" for an image in the blob store, otherwise an external image URL
+    @Column(name = "image_ref", length = 2048)
+    private String imageRef;
+
+    // Image as submitted by a client (data URL or link) until EventService turns it into a reference
+    @Transient
+    private String submittedImage;
 
     @Column(name = "features", columnDefinition = "LONGTEXT")
     private String features;
@@ -60,10 +71,13 @@ public class EventEntity {
     @Column(name = "ticket_types", columnDefinition = "LONGTEXT")
     private String ticketTypes; // JSON array of ticket types with name and price
 
-    @Column(name = "view_count", nullable = false)
+    // Counters only move through their own UPDATE queries, so saving an edited event never overwrites them
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "view_count", nullable = false, updatable = false)
     private Long views = 0L;
 
-    @Column(name = "tickets_sold", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "tickets_sold", nullable = false, updatable = false)
     private Integer ticketsSold = 0;
 
     // ...existing code...
@@ -179,12 +193,36 @@ public class EventEntity {
         this.description = description;
     }
 
+    /**
+     * URL clients load the image from: the blob endpoint for stored images, else the external link.
+     */
     public String getImage() {
-        return image;
+        return imageUrl(imageRef);
+    }
+
+    public static String imageUrl(String imageRef) {
+        if (imageRef != null && imageRef.startsWith("sha256:")) {
+            return "/api/blobs/" + imageRef.substring("sha256:".length());
+        }
+        return imageRef;
     }
 
     public void setImage(String image) {
-        this.image = image;
+        this.submittedImage = image;
+    }
+
+    @JsonIgnore
+    public String getSubmittedImage() {
+        return submittedImage;
+    }
+
+    @JsonIgnore
+    public String getImageRef() {
+        return imageRef;
+    }
+
+    public void setImageRef(String imageRef) {
+        this.imageRef = imageRef;
     }
 
     public String getFeatures() {
@@ -0,0 +1,70 @@
+package org.qrush.ticketing_system.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of an event's unique viewers, serialized by UniqueViewerSet.
+ * Written by EventUniqueViewers through JDBC; mapped so the table is created with the schema.
+ */
+@Entity
+@Table(name = "event_unique_viewers")
+public class EventUniqueViewersEntity {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] viewers;
+
+    @Column(name = "viewer_count", nullable = false)
+    private long viewerCount;
+
+    // True once the set became a HyperLogLog sketch and viewer_count is an estimate
+    @Column(nullable = false)
+    private boolean approximate;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public byte[] getViewers() {
+        return viewers;
+    }
+
+    public void setViewers(byte[] viewers) {
+        this.viewers = viewers;
+    }
+
+    public long getViewerCount() {
+        return viewerCount;
+    }
+
+    public void setViewerCount(long viewerCount) {
+        this.viewerCount = viewerCount;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,65 +0,0 @@
-package org.qrush.ticketing_system.entity;
-
-import jakarta.persistence.*;
-import java.time.LocalDateTime;
-
-@Entity
-@Table(name = "event_views", uniqueConstraints = {
-        @UniqueConstraint(columnNames = { "event_id", "user_id" })
-})
-public class EventViewEntity {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @Column(name = "event_id", nullable = false)
-    private Long eventId;
-
-    @Column(name = "user_id", nullable = false)
-    private Long userId;
-
-    @Column(name = "viewed_at", nullable = false)
-    private LocalDateTime viewedAt;
-
-    public EventViewEntity() {
-    }
-
-    public EventViewEntity(Long eventId, Long userId) {
-        this.eventId = eventId;
-        this.userId = userId;
-        this.viewedAt = LocalDateTime.now();
-    }
-
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
-    }
-
-    public Long getEventId() {
-        return eventId;
-    }
-
-    public void setEventId(Long eventId) {
-        this.eventId = eventId;
-    }
-
-    public Long getUserId() {
-        return userId;
-    }
-
-    public void setUserId(Long userId) {
-        this.userId = userId;
-    }
-
-    public LocalDateTime getViewedAt() {
-        return viewedAt;
-    }
-
-    public void setViewedAt(LocalDateTime viewedAt) {
-        this.viewedAt = viewedAt;
-    }
-}
@@ -7,8 +7,11 @@ import java.time.LocalDateTime;
 @Table(name = "notifications")
 public class NotificationEntity {
 
+    // Table-generated so the outbox dispatcher can insert notifications in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_id")
+    @TableGenerator(name = "notification_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "notification", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,7 @@
+package org.qrush.ticketing_system.entity;
+
+public enum OutboxEventType {
+    TICKET_BOOKED,
+    TICKET_CHECKED_IN,
+    EVENT_CANCELLED
+}
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 public class PaymentEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payment_id")
+    @TableGenerator(name = "payment_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "payment", allocationSize = 50)
     private Long paymentID;
 
     @Column(nullable = false)
@@ -1,14 +1,17 @@
 package org.qrush.ticketing_system.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "ticket")
-public class TicketEntity {
+public class TicketEntity implements Persistable<Long> {
 
+    // Assigned from IdAllocator before persist so group orders insert in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long ticketID;
 
     @ManyToOne
@@ -34,6 +37,40 @@ public class TicketEntity {
     @Column(nullable = false)
     private String status;
 
+    // Entry state, written only by the scan path's UPDATE statements so a ticket save never overwrites it
+    @Column(name = "first_entry_at", insertable = false, updatable = false)
+    private LocalDateTime firstEntryAt;
+
+    @Column(name = "last_entry_at", insertable = false, updatable = false)
+    private LocalDateTime lastEntryAt;
+
+    @Column(name = "re_entry_count", insertable = false, updatable = false)
+    private Integer reEntryCount;
+
+    @Column(name = "last_gate", insertable = false, updatable = false)
+    private String lastGate;
+
+    @Transient
+    private boolean newEntity = true;
+
+    @Override
+    @JsonIgnore
+    public Long getId() {
+        return ticketID;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void markNotNew() {
+        this.newEntity = false;
+    }
+
     // Getters and Setters
     public Long getTicketID() {
         return ticketID;
@@ -98,4 +135,20 @@ public class TicketEntity {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public LocalDateTime getFirstEntryAt() {
+        return firstEntryAt;
+    }
+
+    public LocalDateTime getLastEntryAt() {
+        return lastEntryAt;
+    }
+
+    public Integer getReEntryCount() {
+        return reEntryCount;
+    }
+
+    public String getLastGate() {
+        return lastGate;
+    }
 }
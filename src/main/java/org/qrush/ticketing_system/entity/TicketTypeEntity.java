@@ -0,0 +1,125 @@
+package org.qrush.ticketing_system.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "ticket_types", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "event_id", "name" })
+})
+public class TicketTypeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private Double price;
+
+    // null = no per-type limit, only the event capacity applies
+    @Column(name = "quota")
+    private Integer quota;
+
+    // Only changed by the relative update in TicketTypeRepository, never by dirty checking
+    @Column(name = "sold", nullable = false, updatable = false)
+    private Integer sold = 0;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(columnDefinition = "TEXT")
+    private String features; // JSON array of included items
+
+    @Column(name = "sort_order", nullable = false)
+    private Integer sortOrder = 0;
+
+    // Types removed by the organizer stay for existing tickets but can no longer be booked
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Integer getQuota() {
+        return quota;
+    }
+
+    public void setQuota(Integer quota) {
+        this.quota = quota;
+    }
+
+    public Integer getSold() {
+        return sold;
+    }
+
+    public void setSold(Integer sold) {
+        this.sold = sold;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getFeatures() {
+        return features;
+    }
+
+    public void setFeatures(String features) {
+        this.features = features;
+    }
+
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(Integer sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
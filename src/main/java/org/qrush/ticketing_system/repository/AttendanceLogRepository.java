@@ -8,7 +8,6 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface AttendanceLogRepository extends JpaRepository<AttendanceLogEntity, Long> {
@@ -22,7 +21,8 @@ public interface AttendanceLogRepository extends JpaRepository<AttendanceLogEnti
 
 	long countByEvent_EventIDAndStatusIgnoreCase(Long eventId, String status);
 
-	Optional<AttendanceLogEntity> findTopByTicket_TicketIDOrderByStartTimeDesc(Long ticketId);
+	@Query("SELECT a.scanRef FROM AttendanceLogEntity a WHERE a.scanRef IN :scanRefs")
+	List<String> findExistingScanRefs(@Param("scanRefs") List<String> scanRefs);
 
 	@Modifying
 	@Query("DELETE FROM AttendanceLogEntity a WHERE a.event.eventID = :eventId")
@@ -0,0 +1,28 @@
+package org.qrush.ticketing_system.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.qrush.ticketing_system.entity.CancellationJobStatus;
+import org.qrush.ticketing_system.entity.EventCancellationJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventCancellationJobRepository extends JpaRepository<EventCancellationJobEntity, Long> {
+	@Query("SELECT j.eventId FROM EventCancellationJobEntity j WHERE j.status = :status ORDER BY j.eventId")
+	List<Long> findEventIdsByStatus(@Param("status") CancellationJobStatus status);
+
+	// SKIP LOCKED (timeout -2) so a job is worked on by one node at a time
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("SELECT j FROM EventCancellationJobEntity j WHERE j.eventId = :eventId AND j.status = :status")
+	Optional<EventCancellationJobEntity> findForUpdate(@Param("eventId") Long eventId,
+			@Param("status") CancellationJobStatus status);
+}
@@ -2,14 +2,44 @@ package org.qrush.ticketing_system.repository;
 
 import org.qrush.ticketing_system.entity.EventEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.qrush.ticketing_system.entity.EventStatus;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface EventRepository extends JpaRepository<EventEntity, Long> {
 	@Query("SELECT e FROM EventEntity e WHERE LOWER(e.organizer) = LOWER(:identifier)")
 	List<EventEntity> findByOrganizerIdentifier(@Param("identifier") String identifier);
+
+	// Capacity-guarded relative increment; returns 0 when the event would be oversold
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE EventEntity e SET e.ticketsSold = e.ticketsSold + :quantity "
+			+ "WHERE e.eventID = :eventId AND e.ticketsSold + :quantity <= e.capacity")
+	int incrementTicketsSold(@Param("eventId") Long eventId, @Param("quantity") int quantity);
+
+	// Locking read for bookings: sees a cancellation committed after the event was loaded, and makes one
+	// still in flight wait until the booking commits, so the refund job finds its tickets
+	@Query(value = "SELECT status FROM events WHERE eventid = :eventId FOR UPDATE", nativeQuery = true)
+	String findStatusForUpdate(@Param("eventId") Long eventId);
+
+	// Events whose doors-open window overlaps [since, until]
+	@Query("SELECT e FROM EventEntity e WHERE e.startDate <= :until AND COALESCE(e.endDate, e.startDate) >= :since")
+	List<EventEntity> findRunningBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+
+	@Query("SELECT e.capacity - e.ticketsSold FROM EventEntity e WHERE e.eventID = :eventId")
+	Integer findRemainingCapacity(@Param("eventId") Long eventId);
+
+	// End dates only, for the lifecycle scheduler's queue; never loads the large text columns
+	@Query("SELECT e.endDate FROM EventEntity e WHERE e.status = :status AND e.endDate <= :until")
+	List<LocalDateTime> findEndDatesByStatus(@Param("status") EventStatus status, @Param("until") LocalDateTime until);
+
+	@Modifying
+	@Query("UPDATE EventEntity e SET e.status = :to WHERE e.status = :from AND e.endDate <= :cutoff")
+	int transitionStatus(@Param("from") EventStatus from, @Param("to") EventStatus to,
+			@Param("cutoff") LocalDateTime cutoff);
 }
@@ -0,0 +1,17 @@
+package org.qrush.ticketing_system.repository;
+
+import org.qrush.ticketing_system.entity.IdempotencyRecordEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecordEntity, String> {
+	@Modifying
+	@Query("DELETE FROM IdempotencyRecordEntity r WHERE r.createdAt < :cutoff")
+	int deleteByCreatedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
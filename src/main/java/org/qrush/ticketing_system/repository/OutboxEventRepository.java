@@ -0,0 +1,44 @@
+package org.qrush.ticketing_system.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.qrush.ticketing_system.entity.OutboxEventEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+	// SKIP LOCKED (timeout -2) lets several nodes dispatch without picking the same rows
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("SELECT o FROM OutboxEventEntity o WHERE o.processedAt IS NULL "
+			+ "AND (o.nextAttemptAt IS NULL OR o.nextAttemptAt <= :now) ORDER BY o.id")
+	List<OutboxEventEntity> findPendingForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+	@Query("SELECT o.id FROM OutboxEventEntity o WHERE o.processedAt IS NULL "
+			+ "AND (o.nextAttemptAt IS NULL OR o.nextAttemptAt <= :now) ORDER BY o.id")
+	List<Long> findPendingIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("SELECT o FROM OutboxEventEntity o WHERE o.id = :id AND o.processedAt IS NULL")
+	Optional<OutboxEventEntity> findPendingByIdForUpdate(@Param("id") Long id);
+
+	@Modifying
+	@Query("UPDATE OutboxEventEntity o SET o.processedAt = :processedAt WHERE o.id IN :ids")
+	int markProcessed(@Param("ids") List<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+
+	@Modifying
+	@Query("DELETE FROM OutboxEventEntity o WHERE o.processedAt < :cutoff")
+	int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,12 +1,16 @@
 package org.qrush.ticketing_system.repository;
 
 import org.qrush.ticketing_system.entity.TicketEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +24,10 @@ public interface TicketRepository extends JpaRepository<TicketEntity, Long> {
 
 	long countByUser_UserID(Long userId);
 
+	@Query("SELECT COUNT(t) FROM TicketEntity t WHERE t.event.eventID = :eventId "
+			+ "AND UPPER(t.status) IN ('CHECKED_IN', 'USED')")
+	long countCheckedInByEvent(@Param("eventId") Long eventId);
+
 	@Query("SELECT COALESCE(SUM(t.price), 0) FROM TicketEntity t WHERE t.user.userID = :userId")
 	Double sumPriceByUser(@Param("userId") Long userId);
 
@@ -28,6 +36,63 @@ public interface TicketRepository extends JpaRepository<TicketEntity, Long> {
 
 	Optional<TicketEntity> findByQrCode(String qrCode);
 
+	// [ticketID, qrCode, status, ticketType, userID, name, email, reEntryCount, lastEntryAt] of every ticket of the event
+	@Query("SELECT t.ticketID, t.qrCode, t.status, t.ticketType, u.userID, u.name, u.email, t.reEntryCount, t.lastEntryAt "
+			+ "FROM TicketEntity t JOIN t.user u WHERE t.event.eventID = :eventId")
+	List<Object[]> findAdmissionRows(@Param("eventId") Long eventId);
+
+	// [ticketID, qrCode, status] of the event's tickets bought since the given time, by ticketID
+	@Query("SELECT t.ticketID, t.qrCode, t.status FROM TicketEntity t "
+			+ "WHERE t.event.eventID = :eventId AND t.purchaseDate >= :since ORDER BY t.ticketID")
+	List<Object[]> findManifestRows(@Param("eventId") Long eventId, @Param("since") LocalDateTime since);
+
+	// [ticketID, status] of the event's tickets whose status is one of the given (lower-case) values
+	@Query("SELECT t.ticketID, t.status FROM TicketEntity t "
+			+ "WHERE t.event.eventID = :eventId AND LOWER(t.status) IN :statuses ORDER BY t.ticketID")
+	List<Object[]> findIdsByStatus(@Param("eventId") Long eventId, @Param("statuses") List<String> statuses);
+
+	List<TicketEntity> findByQrCodeIn(List<String> qrCodes);
+
+	// Locks rows in ID order so concurrent group check-ins cannot deadlock each other
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT t FROM TicketEntity t LEFT JOIN FETCH t.event LEFT JOIN FETCH t.user "
+			+ "WHERE t.ticketID IN :ids ORDER BY t.ticketID")
+	List<TicketEntity> findAllForCheckIn(@Param("ids") List<Long> ids);
+
+	// Atomic check-in: returns 1 for the one caller that admits the ticket, 0 if it was already in
+	@Modifying
+	@Query(value = "UPDATE ticket SET status = 'CHECKED_IN', first_entry_at = :at, last_entry_at = :at, "
+			+ "re_entry_count = 0, last_gate = :gate WHERE ticketid = :id "
+			+ "AND (status IS NULL OR UPPER(status) NOT IN ('CHECKED_IN', 'USED'))", nativeQuery = true)
+	int markCheckedIn(@Param("id") Long id, @Param("at") LocalDateTime at, @Param("gate") String gate);
+
+	@Modifying
+	@Query(value = "UPDATE ticket SET re_entry_count = COALESCE(re_entry_count, 0) + 1, last_gate = :gate, "
+			+ "last_entry_at = :at WHERE ticketid = :id", nativeQuery = true)
+	int recordReEntry(@Param("id") Long id, @Param("at") LocalDateTime at, @Param("gate") String gate);
+
+	@Modifying
+	@Query("UPDATE TicketEntity t SET t.status = :status WHERE t.ticketID IN :ids")
+	int updateStatusByIds(@Param("ids") List<Long> ids, @Param("status") String status);
+
+	// [ticketID, userID, price] of the event's tickets after the given ID not yet refunded or cancelled, by ticketID
+	@Query("SELECT t.ticketID, t.user.userID, t.price FROM TicketEntity t WHERE t.event.eventID = :eventId "
+			+ "AND t.ticketID > :afterId AND (t.status IS NULL OR LOWER(t.status) NOT IN ('refunded', 'cancelled')) "
+			+ "ORDER BY t.ticketID")
+	List<Object[]> findRefundableAfter(@Param("eventId") Long eventId, @Param("afterId") Long afterId,
+			Pageable pageable);
+
+	@Query("SELECT COUNT(t) FROM TicketEntity t WHERE t.event.eventID = :eventId "
+			+ "AND (t.status IS NULL OR LOWER(t.status) NOT IN ('refunded', 'cancelled'))")
+	long countRefundable(@Param("eventId") Long eventId);
+
+	// [userID, total refunded] per holder of the event's refunded tickets after the given user ID, by userID
+	@Query("SELECT t.user.userID, COALESCE(SUM(t.price), 0) FROM TicketEntity t WHERE t.event.eventID = :eventId "
+			+ "AND t.user.userID > :afterUserId AND LOWER(t.status) = 'refunded' "
+			+ "GROUP BY t.user.userID ORDER BY t.user.userID")
+	List<Object[]> sumRefundedByHolderAfter(@Param("eventId") Long eventId, @Param("afterUserId") Long afterUserId,
+			Pageable pageable);
+
 	@Modifying
 	@Query("DELETE FROM TicketEntity t WHERE t.event.eventID = :eventId")
 	void deleteByEventId(@Param("eventId") Long eventId);
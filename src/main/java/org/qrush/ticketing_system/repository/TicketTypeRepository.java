@@ -0,0 +1,25 @@
+package org.qrush.ticketing_system.repository;
+
+import org.qrush.ticketing_system.entity.TicketTypeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TicketTypeRepository extends JpaRepository<TicketTypeEntity, Long> {
+	List<TicketTypeEntity> findByEventIdOrderBySortOrderAsc(Long eventId);
+
+	// Quota-guarded relative increment; returns 0 when the type would be oversold
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE TicketTypeEntity t SET t.sold = t.sold + :quantity "
+			+ "WHERE t.id = :id AND (t.quota IS NULL OR t.sold + :quantity <= t.quota)")
+	int incrementSold(@Param("id") Long id, @Param("quantity") int quantity);
+
+	@Modifying
+	@Query("DELETE FROM TicketTypeEntity t WHERE t.eventId = :eventId")
+	void deleteByEventId(@Param("eventId") Long eventId);
+}
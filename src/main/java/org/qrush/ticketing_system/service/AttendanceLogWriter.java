@@ -0,0 +1,568 @@
+package org.qrush.ticketing_system.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.qrush.ticketing_system.config.RequiresSchema;
+import org.qrush.ticketing_system.entity.OutboxEventType;
+import org.qrush.ticketing_system.entity.TicketEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind pipeline for attendance logs and the per-ticket entry state.
+ * Scans are appended to a local journal segment, queued, and written by a single flusher thread
+ * as one JDBC batch per {@code batch-size} entries or {@code max-delay-millis}, whichever comes
+ * first. Each entry carries a unique {@code scan_ref} and is written with INSERT IGNORE, so
+ * replaying a journal after a crash never duplicates rows; entries whose row is already there are
+ * skipped on replay, so attendees are not notified twice. The journal holds IDs and scan facts
+ * only, never attendee details. A segment is deleted once every entry in it has been committed.
+ * When the queue is full the scanning thread waits briefly and then writes its own entry, which
+ * slows producers down instead of dropping scans. {@link #flush()}, {@link #awaitEvent} and
+ * {@link #awaitTickets} wait for the matching entries submitted before them to commit, including
+ * batches already taken off the queue, without holding up new scans; they give up with an
+ * {@link IllegalStateException} after {@code flush-timeout-millis}, e.g. while the database is down.
+ */
+@Service
+@RequiresSchema
+public class AttendanceLogWriter implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceLogWriter.class);
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String INSERT_LOG = "INSERT IGNORE INTO attendance_log "
+            + "(scan_ref, ticketid, eventid, userid, start_time, status, re_entry, gate) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // Callers claim a first entry before submitting it (the conditional markCheckedIn, or a locking read on
+    // the database path), so setting the status here never decides one. MySQL applies SET clauses left to
+    // right, so last_gate must be compared before last_entry_at moves
+    private static final String UPDATE_ENTRY_STATE = "UPDATE ticket SET status = 'CHECKED_IN', "
+            + "first_entry_at = LEAST(COALESCE(first_entry_at, ?), ?), "
+            + "last_gate = CASE WHEN last_entry_at IS NULL OR last_entry_at <= ? THEN ? ELSE last_gate END, "
+            + "last_entry_at = GREATEST(COALESCE(last_entry_at, ?), ?), "
+            + "re_entry_count = GREATEST(COALESCE(re_entry_count, 0), ?) WHERE ticketid = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final StaffDashboardStream staffDashboardStream;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final long maxDelayMillis;
+    private final long offerTimeoutMillis;
+    private final long flushTimeoutMillis;
+    private final boolean journalEnabled;
+    private final boolean syncWrites;
+    private final Path journalDir;
+    private final int segmentMaxEntries;
+    private final Object journalLock = new Object();
+    // Submitted entries from before they are queued until they are committed or fail
+    private final Set<Pending> unwritten = ConcurrentHashMap.newKeySet();
+    private Segment current;
+    private long segmentSequence;
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    public AttendanceLogWriter(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            OutboxService outboxService,
+            StaffDashboardStream staffDashboardStream,
+            ObjectMapper objectMapper,
+            @Value("${attendance-log.queue-capacity:50000}") int queueCapacity,
+            @Value("${attendance-log.batch-size:500}") int batchSize,
+            @Value("${attendance-log.max-delay-millis:100}") long maxDelayMillis,
+            @Value("${attendance-log.offer-timeout-millis:50}") long offerTimeoutMillis,
+            @Value("${attendance-log.flush-timeout-millis:10000}") long flushTimeoutMillis,
+            @Value("${attendance-log.journal.enabled:true}") boolean journalEnabled,
+            @Value("${attendance-log.journal.sync-writes:false}") boolean syncWrites,
+            @Value("${attendance-log.journal.dir:data/attendance-journal}") String journalDir,
+            @Value("${attendance-log.journal.segment-max-entries:10000}") int segmentMaxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxService = outboxService;
+        this.staffDashboardStream = staffDashboardStream;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxDelayMillis = Math.max(1, maxDelayMillis);
+        this.offerTimeoutMillis = Math.max(0, offerTimeoutMillis);
+        this.flushTimeoutMillis = Math.max(1, flushTimeoutMillis);
+        this.journalEnabled = journalEnabled;
+        this.syncWrites = syncWrites;
+        this.journalDir = Paths.get(journalDir);
+        this.segmentMaxEntries = Math.max(1, segmentMaxEntries);
+    }
+
+    /**
+     * Replays journal segments left by a previous run, then starts the flusher.
+     */
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (journalEnabled) {
+            Files.createDirectories(journalDir);
+            recover();
+        }
+        flusher = new Thread(this::runFlusher, "attendance-log-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Queues one scan. Every entry advances the ticket's entry state; {@code checkIn} also notifies
+     * the attendee, so pass false when the caller already did that.
+     */
+    public void submit(Entry entry) {
+        Objects.requireNonNull(entry, "Attendance log entry must not be null");
+        Pending pending = new Pending(entry, journal(entry), new CompletableFuture<>());
+        unwritten.add(pending);
+        try {
+            if (queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Backpressure: the producer pays for its own write instead of losing the scan
+        try {
+            write(List.of(pending));
+        } catch (RuntimeException e) {
+            // The scan stays in the journal and is replayed on the next start
+            unwritten.remove(pending);
+            pending.written().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until every entry submitted so far is committed.
+     */
+    public void flush() {
+        await(pending -> true);
+    }
+
+    /**
+     * Waits until the entries submitted so far for the event are committed.
+     */
+    public void awaitEvent(long eventId) {
+        await(pending -> pending.entry().eventId() == eventId);
+    }
+
+    /**
+     * Waits until the entries submitted so far for these tickets are committed.
+     */
+    public void awaitTickets(Collection<Long> ticketIds) {
+        Set<Long> ids = Set.copyOf(ticketIds);
+        await(pending -> ids.contains(pending.entry().ticketId()));
+    }
+
+    private void await(Predicate<Pending> filter) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushTimeoutMillis);
+        for (Pending pending : unwritten.stream().filter(filter).toList()) {
+            try {
+                pending.written().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                // Its submitter already saw the failure; the scan is replayed from the journal
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("Queued attendance logs were not written within "
+                        + flushTimeoutMillis + " ms", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for attendance logs to be written", e);
+            }
+        }
+    }
+
+    /**
+     * Writes entries immediately, joining the caller's transaction if there is one. Nothing is journaled.
+     */
+    public void writeNow(List<Entry> entries) {
+        if (!entries.isEmpty()) {
+            writeEntries(entries);
+        }
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Not interrupted: the flusher notices within max-delay-millis and finishes its batch
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        // Whatever the flusher left is written here; what cannot be stays in the journal for the next start
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} attendance logs on shutdown, leaving them in the journal", batch.size(), e);
+            }
+            batch.clear();
+        }
+        synchronized (journalLock) {
+            if (current != null) {
+                seal(current);
+                current = null;
+            }
+        }
+    }
+
+    private void runFlusher() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(maxDelayMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    rotateIfDue(true);
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                writeWithRetry(batch);
+                batch.clear();
+                rotateIfDue(false);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // The database may be briefly unavailable; keep the batch and back off rather than drop it
+    private void writeWithRetry(List<Pending> batch) throws InterruptedException {
+        long backoff = 100;
+        while (true) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} attendance logs, retrying in {} ms", batch.size(), backoff, e);
+                if (!running) {
+                    return;
+                }
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, 5_000);
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Entry> entries = batch.stream().map(Pending::entry).toList();
+        writeEntries(entries);
+        for (Pending pending : batch) {
+            if (pending.segment() != null) {
+                release(pending.segment());
+            }
+            unwritten.remove(pending);
+            pending.written().complete(null);
+        }
+    }
+
+    private void writeEntries(List<Entry> entries) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_LOG, entries, entries.size(), (ps, entry) -> {
+                ps.setString(1, entry.scanRef());
+                ps.setLong(2, entry.ticketId());
+                ps.setLong(3, entry.eventId());
+                ps.setLong(4, entry.userId());
+                ps.setTimestamp(5, Timestamp.valueOf(entry.scannedAt()));
+                ps.setString(6, entry.status());
+                ps.setInt(7, entry.reEntryCount());
+                ps.setString(8, entry.gate());
+            });
+            // Keeps the ticket's entry state current; idempotent, so replays and late offline scans are safe
+            // Row order by ticket ID, as in the locking reads, so concurrent batches cannot deadlock
+            List<Entry> byTicket = entries.stream().sorted(Comparator.comparingLong(Entry::ticketId)).toList();
+            jdbcTemplate.batchUpdate(UPDATE_ENTRY_STATE, byTicket, byTicket.size(), (ps, entry) -> {
+                Timestamp at = Timestamp.valueOf(entry.scannedAt());
+                ps.setTimestamp(1, at);
+                ps.setTimestamp(2, at);
+                ps.setTimestamp(3, at);
+                ps.setString(4, entry.gate());
+                ps.setTimestamp(5, at);
+                ps.setTimestamp(6, at);
+                ps.setInt(7, entry.reEntryCount());
+                ps.setLong(8, entry.ticketId());
+            });
+            // Live dashboards only hear about scans once they are durable; the batch is registered
+            // before the commit so a snapshot read in between knows not to count it twice
+            StaffDashboardStream.Batch batch = staffDashboardStream.prepare(entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    staffDashboardStream.complete(batch, status == STATUS_COMMITTED);
+                }
+            });
+            for (Entry entry : entries) {
+                if (entry.checkIn()) {
+                    outboxService.publish(OutboxEventType.TICKET_CHECKED_IN, entry.eventId(), Map.of(
+                            "userId", entry.userId(),
+                            "ticketId", entry.ticketId(),
+                            "eventName", Objects.toString(entry.eventName(), ""),
+                            "gate", entry.gate()));
+                }
+            }
+        });
+    }
+
+    private Segment journal(Entry entry) {
+        if (!journalEnabled) {
+            return null;
+        }
+        byte[] line;
+        try {
+            line = (objectMapper.writeValueAsString(JournalRecord.of(entry)) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (journalLock) {
+            if (current == null) {
+                current = openSegment();
+            }
+            Segment segment = current;
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    segment.channel().write(buffer);
+                }
+                if (syncWrites) {
+                    segment.channel().force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to journal attendance log", e);
+            }
+            segment.outstanding().incrementAndGet();
+            segment.written++;
+            return segment;
+        }
+    }
+
+    // Seals the current segment when it is full, or (when idle) once it has been fully written
+    private void rotateIfDue(boolean idle) {
+        synchronized (journalLock) {
+            if (current != null && (current.written >= segmentMaxEntries || (idle && current.written > 0))) {
+                seal(current);
+                current = null;
+            }
+        }
+    }
+
+    private Segment openSegment() {
+        Path path = journalDir.resolve("%d-%06d%s".formatted(System.currentTimeMillis(), segmentSequence++, SEGMENT_SUFFIX));
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            return new Segment(path, channel, new AtomicInteger());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open attendance journal segment " + path, e);
+        }
+    }
+
+    private void seal(Segment segment) {
+        try {
+            segment.channel().close();
+        } catch (IOException e) {
+            log.warn("Failed to close attendance journal segment {}", segment.path(), e);
+        }
+        segment.sealed = true;
+        deleteIfDone(segment);
+    }
+
+    private void release(Segment segment) {
+        if (segment.outstanding().decrementAndGet() == 0) {
+            synchronized (journalLock) {
+                deleteIfDone(segment);
+            }
+        }
+    }
+
+    private void deleteIfDone(Segment segment) {
+        if (segment.sealed && segment.outstanding().get() == 0) {
+            try {
+                Files.deleteIfExists(segment.path());
+            } catch (IOException e) {
+                log.warn("Failed to delete attendance journal segment {}", segment.path(), e);
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDir, "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+        Map<Long, String> eventNames = new HashMap<>();
+        for (Path segment : segments) {
+            List<Entry> entries = new ArrayList<>();
+            for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JournalRecord record = objectMapper.readValue(line, JournalRecord.class);
+                    entries.add(record.toEntry(eventNames.computeIfAbsent(record.eventId(), this::eventName)));
+                } catch (IOException e) {
+                    // A torn last line from a crash mid-write; everything before it is intact
+                    log.warn("Skipping unreadable line in attendance journal {}", segment);
+                }
+            }
+            int replayed = 0;
+            for (int from = 0; from < entries.size(); from += batchSize) {
+                List<Entry> missing = notYetWritten(entries.subList(from, Math.min(entries.size(), from + batchSize)));
+                if (!missing.isEmpty()) {
+                    writeEntries(missing);
+                    replayed += missing.size();
+                }
+            }
+            Files.delete(segment);
+            log.info("Replayed {} of {} attendance logs from {}", replayed, entries.size(), segment.getFileName());
+        }
+    }
+
+    // Rows are committed together with their entry state and notification, so a row that exists needs nothing more.
+    // INSERT IGNORE cannot say which rows it inserted once the driver rewrites the batch, hence the read first.
+    private List<Entry> notYetWritten(List<Entry> entries) {
+        String placeholders = String.join(", ", Collections.nCopies(entries.size(), "?"));
+        Set<String> written = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT scan_ref FROM attendance_log WHERE scan_ref IN (" + placeholders + ")", String.class,
+                entries.stream().map(Entry::scanRef).toArray()));
+        return entries.stream().filter(entry -> !written.contains(entry.scanRef())).toList();
+    }
+
+    private String eventName(Long eventId) {
+        return jdbcTemplate.queryForList("SELECT name FROM events WHERE eventid = ?", String.class, eventId)
+                .stream().findFirst().orElse("");
+    }
+
+    /**
+     * One scan to be written. {@code scanRef} makes the insert idempotent; the attendee fields are
+     * only carried along for live listeners and are not stored in the log row.
+     */
+    public record Entry(String scanRef, long ticketId, long eventId, long userId, LocalDateTime scannedAt,
+            String status, int reEntryCount, String gate, boolean checkIn, String eventName,
+            String ticketType, String attendeeName, String attendeeEmail) {
+
+        public static Entry of(TicketEntity ticket, LocalDateTime scannedAt, String status, int reEntryCount,
+                String gate, boolean checkIn) {
+            if (ticket.getEvent() == null) {
+                throw new IllegalArgumentException("Ticket " + ticket.getTicketID() + " is not linked to an event");
+            }
+            if (ticket.getUser() == null) {
+                throw new IllegalArgumentException("Ticket " + ticket.getTicketID() + " has no holder");
+            }
+            return new Entry(UUID.randomUUID().toString(), ticket.getTicketID(), ticket.getEvent().getEventID(),
+                    ticket.getUser().getUserID(), scannedAt, status, reEntryCount, gate, checkIn,
+                    ticket.getEvent().getName(), ticket.getTicketType(), ticket.getUser().getName(),
+                    ticket.getUser().getEmail());
+        }
+
+        public Entry withScanRef(String ref) {
+            return new Entry(ref, ticketId, eventId, userId, scannedAt, status, reEntryCount, gate, checkIn,
+                    eventName, ticketType, attendeeName, attendeeEmail);
+        }
+    }
+
+    /**
+     * Journaled form of an entry: what is needed to write it again, without attendee details.
+     * Unknown fields are ignored so journals written before this form still replay.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record JournalRecord(String scanRef, long ticketId, long eventId, long userId, LocalDateTime scannedAt,
+            String status, int reEntryCount, String gate, boolean checkIn) {
+
+        static JournalRecord of(Entry entry) {
+            return new JournalRecord(entry.scanRef(), entry.ticketId(), entry.eventId(), entry.userId(),
+                    entry.scannedAt(), entry.status(), entry.reEntryCount(), entry.gate(), entry.checkIn());
+        }
+
+        Entry toEntry(String eventName) {
+            return new Entry(scanRef, ticketId, eventId, userId, scannedAt, status, reEntryCount, gate, checkIn,
+                    eventName, null, null, null);
+        }
+    }
+
+    private record Pending(Entry entry, Segment segment, CompletableFuture<Void> written) {
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicInteger outstanding;
+        private int written;
+        private volatile boolean sealed;
+
+        private Segment(Path path, FileChannel channel, AtomicInteger outstanding) {
+            this.path = path;
+            this.channel = channel;
+            this.outstanding = outstanding;
+        }
+
+        private Path path() {
+            return path;
+        }
+
+        private FileChannel channel() {
+            return channel;
+        }
+
+        private AtomicInteger outstanding() {
+            return outstanding;
+        }
+    }
+}
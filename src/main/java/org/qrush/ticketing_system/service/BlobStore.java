@@ -0,0 +1,141 @@
+package org.qrush.ticketing_system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for event images on the local filesystem.
+ * A blob is stored once under its SHA-256 hash ({@code ab/cd/abcd...}) with its content type in
+ * a {@code .type} file next to it. Blobs never change once written, so they can be cached forever.
+ * Events refer to blobs as {@code sha256:<hash>}; other image references are external URLs.
+ */
+@Service
+public class BlobStore {
+
+    public static final String REFERENCE_PREFIX = "sha256:";
+    public static final String URL_PREFIX = "/api/blobs/";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern DATA_URL = Pattern.compile("data:([\\w.+-]+/[\\w.+-]+)?(;[^,]*)?;base64,(.*)", Pattern.DOTALL);
+    // Our own blob URLs come back from clients that edit an event, possibly prefixed with the API origin
+    private static final Pattern BLOB_URL = Pattern.compile(".*" + URL_PREFIX + "([0-9a-f]{64})");
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final int MAX_EXTERNAL_URL_LENGTH = 2048;
+
+    public record Blob(String hash, Path path, long size, String contentType) {
+    }
+
+    private final Path root;
+
+    public BlobStore(@Value("${blob-store.dir:data/blobs}") String root) {
+        this.root = Paths.get(root);
+    }
+
+    /**
+     * Stores {@code content} and returns its hash. Storing the same bytes again is a no-op.
+     */
+    public String put(byte[] content, String contentType) {
+        String hash = sha256(content);
+        Path path = pathOf(hash);
+        if (Files.exists(path)) {
+            return hash;
+        }
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(typePath(path), Optional.ofNullable(contentType).orElse(DEFAULT_CONTENT_TYPE));
+            // Written aside and moved into place, so a reader never sees a partial blob
+            Path temp = Files.createTempFile(path.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, content);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Stored concurrently with the same content
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store blob " + hash, e);
+        }
+        return hash;
+    }
+
+    public Optional<Blob> find(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(hash);
+        try {
+            if (!Files.isRegularFile(path)) {
+                return Optional.empty();
+            }
+            Path type = typePath(path);
+            String contentType = Files.exists(type) ? Files.readString(type).trim() : DEFAULT_CONTENT_TYPE;
+            return Optional.of(new Blob(hash, path, Files.size(path), contentType));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read blob " + hash, e);
+        }
+    }
+
+    /**
+     * Turns an image as submitted by a client into what an event stores: base64 data URLs are moved
+     * into the store, links to stored blobs are recognised, and anything else is kept as an external URL.
+     */
+    public String toReference(String image) {
+        if (image == null || image.isBlank()) {
+            return null;
+        }
+        String trimmed = image.trim();
+        Matcher data = DATA_URL.matcher(trimmed);
+        if (data.matches()) {
+            if (data.group(1) == null || !data.group(1).startsWith("image/")) {
+                throw new IllegalArgumentException("Image data must have an image content type");
+            }
+            byte[] content;
+            try {
+                content = Base64.getMimeDecoder().decode(data.group(3));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Image data is not valid base64");
+            }
+            return REFERENCE_PREFIX + put(content, data.group(1));
+        }
+        Matcher blob = BLOB_URL.matcher(trimmed);
+        if (blob.matches()) {
+            return REFERENCE_PREFIX + blob.group(1);
+        }
+        if (trimmed.length() > MAX_EXTERNAL_URL_LENGTH) {
+            throw new IllegalArgumentException("Image URL must be at most " + MAX_EXTERNAL_URL_LENGTH + " characters");
+        }
+        return trimmed;
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static Path typePath(Path blob) {
+        return blob.resolveSibling(blob.getFileName() + ".type");
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
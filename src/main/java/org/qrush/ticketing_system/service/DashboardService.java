@@ -156,22 +156,12 @@ public class DashboardService {
                 EventEntity event = eventRepository.findById(validatedEventId)
                                 .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
 
-                List<TicketEntity> tickets = ticketRepository.findByEvent_EventID(validatedEventId);
-                List<AttendanceLogEntity> allLogs = attendanceLogRepository.findByEvent_EventID(validatedEventId);
+                // Counts come from the database; nothing here loads the event's tickets or logs
                 List<AttendanceLogEntity> recentLogs = attendanceLogRepository
                                 .findTop25ByEvent_EventIDOrderByStartTimeDesc(validatedEventId);
 
-                long ticketsSold = tickets.size();
-                long checkedIn = allLogs.stream()
-                                .filter(log -> {
-                                        String status = log.getStatus();
-                                        if (status == null) {
-                                                return false;
-                                        }
-                                        String normalized = status.toLowerCase();
-                                        return normalized.contains("valid") || normalized.contains("checked");
-                                })
-                                .count();
+                long ticketsSold = ticketRepository.countByEvent_EventID(validatedEventId);
+                long checkedIn = ticketRepository.countCheckedInByEvent(validatedEventId);
 
                 long pending = Math.max(ticketsSold - checkedIn, 0);
 
@@ -231,8 +221,12 @@ public class DashboardService {
                 if (ticket == null || ticket.getTicketID() == null) {
                         return "";
                 }
-                String prefix = Objects.toString(ticket.getTicketType(), "TICKET");
-                return "%s-%06d".formatted(prefix.replaceAll("\\s+", "").toUpperCase(), ticket.getTicketID());
+                return formatTicketNumber(ticket.getTicketType(), ticket.getTicketID());
+        }
+
+        static String formatTicketNumber(String ticketType, long ticketId) {
+                String prefix = Objects.toString(ticketType, "TICKET");
+                return "%s-%06d".formatted(prefix.replaceAll("\\s+", "").toUpperCase(), ticketId);
         }
 
         public String formatEventTimeRange(EventEntity event) {
@@ -0,0 +1,265 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.dto.CancellationProgressResponse;
+import org.qrush.ticketing_system.entity.CancellationJobStatus;
+import org.qrush.ticketing_system.entity.EventCancellationJobEntity;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.entity.NotificationEntity;
+import org.qrush.ticketing_system.entity.OutboxEventType;
+import org.qrush.ticketing_system.entity.PaymentEntity;
+import org.qrush.ticketing_system.repository.EventCancellationJobRepository;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.NotificationRepository;
+import org.qrush.ticketing_system.repository.PaymentRepository;
+import org.qrush.ticketing_system.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Refunds the tickets of a cancelled event in the background.
+ * Tickets are read in chunks by ticket ID; each chunk marks its tickets refunded with one UPDATE,
+ * writes a refund payment per paid ticket in a JDBC batch, and advances the job's cursor, all in one
+ * transaction. A crash loses at most the chunk in flight, and the next run resumes from the last
+ * committed cursor. The job row is locked with SKIP LOCKED, so only one node works on an event at a
+ * time. When the cursor runs out, the event is swept once more for tickets booked before the
+ * cancellation committed; bookings re-read the event status under a row lock, so none can follow.
+ * Holders are then notified in chunks by user ID, one notice each for the total of all their
+ * tickets, before the job completes and the organizer is told.
+ * Each poll processes one chunk per job, so a large event never holds the scheduler thread. A job
+ * whose chunks keep failing is marked FAILED after {@code event-cancellation.max-attempts} tries in a
+ * row and left for an operator; setting it back to RUNNING resumes it from its cursor.
+ */
+@Service
+public class EventCancellationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCancellationJob.class);
+    private static final String REFUNDED_STATUS = "refunded";
+    private static final String DEFAULT_CANCEL_REASON = "Unforeseen circumstances";
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private record Refund(long ticketId, long userId, double amount) {
+    }
+
+    private final EventCancellationJobRepository jobRepository;
+    private final EventRepository eventRepository;
+    private final TicketRepository ticketRepository;
+    private final PaymentRepository paymentRepository;
+    private final NotificationRepository notificationRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxAttempts;
+
+    public EventCancellationJob(EventCancellationJobRepository jobRepository,
+            EventRepository eventRepository,
+            TicketRepository ticketRepository,
+            PaymentRepository paymentRepository,
+            NotificationRepository notificationRepository,
+            OutboxService outboxService,
+            PlatformTransactionManager transactionManager,
+            @Value("${event-cancellation.chunk-size:500}") int chunkSize,
+            @Value("${event-cancellation.max-attempts:10}") int maxAttempts) {
+        this.jobRepository = jobRepository;
+        this.eventRepository = eventRepository;
+        this.ticketRepository = ticketRepository;
+        this.paymentRepository = paymentRepository;
+        this.notificationRepository = notificationRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Queues the refunds of an event cancelled in the current transaction and returns how many
+     * tickets will be refunded.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long start(Long eventId, String reason) {
+        Objects.requireNonNull(eventId, "Event ID must not be null");
+        if (jobRepository.existsById(eventId)) {
+            throw new IllegalStateException("Event is already being cancelled");
+        }
+        EventCancellationJobEntity job = new EventCancellationJobEntity();
+        job.setEventId(eventId);
+        job.setStatus(CancellationJobStatus.RUNNING);
+        job.setReason(reason);
+        job.setTicketsToRefund(ticketRepository.countRefundable(eventId));
+        jobRepository.save(job);
+        return job.getTicketsToRefund();
+    }
+
+    public Optional<CancellationProgressResponse> progress(Long eventId) {
+        return jobRepository.findById(Objects.requireNonNull(eventId, "Event ID must not be null"))
+                .map(job -> new CancellationProgressResponse(job.getEventId(), job.getStatus().name(),
+                        job.getTicketsToRefund(), job.getTicketsRefunded(), job.getTotalRefundAmount(),
+                        job.getCreatedAt(), job.getUpdatedAt(), job.getCompletedAt(), job.getLastError()));
+    }
+
+    // Also picks up jobs left running by a node that stopped
+    @Scheduled(fixedDelayString = "${event-cancellation.poll-millis:1000}")
+    public void run() {
+        for (Long eventId : jobRepository.findEventIdsByStatus(CancellationJobStatus.RUNNING)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> processChunk(eventId));
+            } catch (RuntimeException e) {
+                recordFailure(eventId, e);
+            }
+        }
+    }
+
+    private void recordFailure(Long eventId, RuntimeException e) {
+        transactionTemplate.executeWithoutResult(status -> jobRepository.findById(eventId).ifPresent(job -> {
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLastError(truncate(e.getMessage()));
+            job.setUpdatedAt(LocalDateTime.now());
+            if (job.getAttempts() >= maxAttempts) {
+                job.setStatus(CancellationJobStatus.FAILED);
+                log.error("Refunding tickets of cancelled event {} failed {} times in a row, giving up",
+                        eventId, job.getAttempts(), e);
+            } else {
+                log.warn("Refunding tickets of cancelled event {} failed, resuming on the next run", eventId, e);
+            }
+        }));
+    }
+
+    // One chunk of refunds or of holder notices, or the completion check once both have run out
+    private void processChunk(Long eventId) {
+        Optional<EventCancellationJobEntity> locked = jobRepository.findForUpdate(eventId, CancellationJobStatus.RUNNING);
+        if (locked.isEmpty()) {
+            // Finished, or another node holds it
+            return;
+        }
+        EventCancellationJobEntity job = locked.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (job.getLastNotifiedUserId() != null) {
+            notifyHolders(job, now);
+            return;
+        }
+        List<Refund> refunds = new ArrayList<>(chunkSize);
+        for (Object[] row : ticketRepository.findRefundableAfter(eventId, job.getLastTicketId(),
+                PageRequest.of(0, chunkSize))) {
+            refunds.add(new Refund((Long) row[0], (Long) row[1], row[2] != null ? (Double) row[2] : 0));
+        }
+        if (refunds.isEmpty()) {
+            if (job.getLastTicketId() > 0 && ticketRepository.countRefundable(eventId) > 0) {
+                // Tickets booked before the cancellation committed can sit behind the cursor
+                job.setLastTicketId(0L);
+                job.setUpdatedAt(now);
+                return;
+            }
+            // Every ticket is refunded; the next polls notify the holders
+            job.setLastNotifiedUserId(0L);
+            job.setUpdatedAt(now);
+            return;
+        }
+
+        List<Long> ticketIds = new ArrayList<>(refunds.size());
+        List<PaymentEntity> payments = new ArrayList<>(refunds.size());
+        double chunkAmount = 0;
+        for (Refund refund : refunds) {
+            ticketIds.add(refund.ticketId());
+            chunkAmount += refund.amount();
+            if (refund.amount() > 0) {
+                // The reference is derived from the ticket, so a ticket can never be refunded twice
+                payments.add(new PaymentEntity(refund.userId(), eventId, (float) refund.amount(), now, "REFUND",
+                        "REFUNDED", "REFUND-" + refund.ticketId()));
+            }
+        }
+
+        ticketRepository.updateStatusByIds(ticketIds, REFUNDED_STATUS);
+        paymentRepository.saveAll(payments);
+
+        job.setLastTicketId(refunds.get(refunds.size() - 1).ticketId());
+        job.setTicketsRefunded(job.getTicketsRefunded() + refunds.size());
+        job.setTotalRefundAmount(job.getTotalRefundAmount() + chunkAmount);
+        job.setAttempts(0);
+        job.setLastError(null);
+        // A short chunk is not the end; the next poll finds nothing and completes the job
+        job.setUpdatedAt(now);
+    }
+
+    // One chunk of holders, each told the total refunded for all of their tickets
+    private void notifyHolders(EventCancellationJobEntity job, LocalDateTime now) {
+        Long eventId = job.getEventId();
+        List<Object[]> holders = ticketRepository.sumRefundedByHolderAfter(eventId, job.getLastNotifiedUserId(),
+                PageRequest.of(0, chunkSize));
+        if (holders.isEmpty()) {
+            complete(job, now);
+            return;
+        }
+        String eventName = eventRepository.findById(eventId).map(EventEntity::getName).orElse("");
+        String reason = job.getReason() != null ? job.getReason() : DEFAULT_CANCEL_REASON;
+        List<NotificationEntity> notifications = new ArrayList<>(holders.size());
+        for (Object[] holder : holders) {
+            double amount = holder[1] != null ? ((Number) holder[1]).doubleValue() : 0;
+            notifications.add(notification((Long) holder[0], "warning", "Event Cancelled - Refund Issued",
+                    String.format("The event \"%s\" has been cancelled. Reason: %s. "
+                            + "A refund of ₱%.2f has been issued to your original payment method.",
+                            eventName, reason, amount),
+                    eventId));
+        }
+        notificationRepository.saveAll(notifications);
+
+        job.setLastNotifiedUserId((Long) holders.get(holders.size() - 1)[0]);
+        job.setAttempts(0);
+        job.setLastError(null);
+        job.setUpdatedAt(now);
+    }
+
+    // The organizer's summary goes through the outbox like every other cancellation notice
+    private void complete(EventCancellationJobEntity job, LocalDateTime now) {
+        job.setStatus(CancellationJobStatus.COMPLETED);
+        job.setCompletedAt(now);
+        job.setUpdatedAt(now);
+        eventRepository.findById(job.getEventId()).ifPresent(event -> {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("eventName", event.getName());
+            payload.put("reason", job.getReason());
+            payload.put("ticketsRefunded", job.getTicketsRefunded());
+            payload.put("totalRefundAmount", job.getTotalRefundAmount());
+            if (event.getOrganizer() != null && !event.getOrganizer().isEmpty()) {
+                try {
+                    payload.put("organizerId", Long.parseLong(event.getOrganizer()));
+                } catch (NumberFormatException e) {
+                    // Organizer is not a valid user ID, skip notification
+                }
+            }
+            outboxService.publish(OutboxEventType.EVENT_CANCELLED, job.getEventId(), payload);
+        });
+    }
+
+    private NotificationEntity notification(Long userId, String type, String title, String message, Long eventId) {
+        NotificationEntity notification = new NotificationEntity();
+        notification.setUserId(userId);
+        notification.setType(type);
+        notification.setTitle(title);
+        notification.setMessage(truncate(message));
+        notification.setRelatedEventId(eventId);
+        notification.setIsRead(false);
+        return notification;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+}
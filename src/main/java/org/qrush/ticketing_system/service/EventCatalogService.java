@@ -0,0 +1,151 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.dto.EventSummaryPage;
+import org.qrush.ticketing_system.dto.EventSummaryResponse;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.entity.EventStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Paged event catalog listing.
+ * Reads only the summary columns straight into DTOs, ordered by (start_date, eventid) and paged by
+ * keyset: the cursor is the last row's sort key, so every page is an index range scan of
+ * {@code limit} rows however deep it is and however large the catalog grows.
+ */
+@Service
+public class EventCatalogService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final String SELECT_SUMMARY = "SELECT eventid, name, category, location, start_date, end_date, "
+            + "ticket_price, capacity, tickets_sold, view_count, organizer, status, image_ref, "
+            + "LEFT(description, 280) AS description_preview FROM events WHERE 1 = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventCatalogService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Lists events starting in [{@code from}, {@code to}], optionally filtered by status and category.
+     * Pass the previous page's {@code nextCursor} to continue.
+     */
+    public EventSummaryPage listSummaries(String status, String category, LocalDateTime from, LocalDateTime to,
+            String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(1, limit), MAX_LIMIT);
+        StringBuilder sql = new StringBuilder(SELECT_SUMMARY);
+        List<Object> args = new ArrayList<>();
+        if (status != null && !status.isBlank()) {
+            sql.append(" AND status = ?");
+            args.add(parseStatus(status).name());
+        }
+        if (category != null && !category.isBlank()) {
+            sql.append(" AND category = ?");
+            args.add(category.trim());
+        }
+        if (from != null) {
+            sql.append(" AND start_date >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND start_date <= ?");
+            args.add(to);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = Cursor.decode(cursor);
+            sql.append(" AND (start_date > ? OR (start_date = ? AND eventid > ?))");
+            args.add(after.startDate());
+            args.add(after.startDate());
+            args.add(after.eventId());
+        }
+        // One extra row tells whether another page follows
+        sql.append(" ORDER BY start_date, eventid LIMIT ?");
+        args.add(pageSize + 1);
+
+        List<EventSummaryResponse> rows = jdbcTemplate.query(sql.toString(), this::toSummary, args.toArray());
+        if (rows.size() <= pageSize) {
+            return new EventSummaryPage(rows, null);
+        }
+        List<EventSummaryResponse> page = rows.subList(0, pageSize);
+        EventSummaryResponse last = page.get(pageSize - 1);
+        return new EventSummaryPage(List.copyOf(page), new Cursor(last.startDate(), last.eventID()).encode());
+    }
+
+    /**
+     * Summaries of the given events in the order given, e.g. to show search hits as cards.
+     * Unknown IDs are left out and at most {@code MAX_LIMIT} are read.
+     */
+    public List<EventSummaryResponse> findSummaries(List<Long> eventIds) {
+        List<Long> ids = eventIds.stream().filter(Objects::nonNull).distinct().limit(MAX_LIMIT).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Map<Long, EventSummaryResponse> byId = new HashMap<>();
+        jdbcTemplate.query(SELECT_SUMMARY + " AND eventid IN (" + placeholders + ")", this::toSummary, ids.toArray())
+                .forEach(summary -> byId.put(summary.eventID(), summary));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private EventSummaryResponse toSummary(ResultSet rs, int rowNum) throws SQLException {
+        return new EventSummaryResponse(
+                rs.getLong("eventid"),
+                rs.getString("name"),
+                rs.getString("category"),
+                rs.getString("location"),
+                rs.getObject("start_date", LocalDateTime.class),
+                rs.getObject("end_date", LocalDateTime.class),
+                rs.getDouble("ticket_price"),
+                rs.getInt("capacity"),
+                rs.getInt("tickets_sold"),
+                rs.getLong("view_count"),
+                rs.getString("organizer"),
+                rs.getString("status"),
+                EventEntity.imageUrl(rs.getString("image_ref")),
+                rs.getString("description_preview"));
+    }
+
+    private static EventStatus parseStatus(String status) {
+        try {
+            return EventStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown event status: " + status);
+        }
+    }
+
+    private record Cursor(LocalDateTime startDate, long eventId) {
+
+        String encode() {
+            String key = startDate + "|" + eventId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String key = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+                int separator = key.indexOf('|');
+                return new Cursor(LocalDateTime.parse(key.substring(0, separator)),
+                        Long.parseLong(key.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
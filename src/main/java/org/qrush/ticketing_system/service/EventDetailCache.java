@@ -0,0 +1,157 @@
+package org.qrush.ticketing_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read cache for {@code GET /api/events/{id}}.
+ * Entries hold the event already serialized to JSON with an ETag over the bytes, so a hit costs
+ * neither a query nor Jackson, and a matching {@code If-None-Match} costs no body at all. Concurrent
+ * misses for one event share a single load. Writes through EventService invalidate after commit;
+ * counters that change without EventService (views, tickets sold) are bounded by the TTL.
+ */
+@Service
+public class EventDetailCache {
+
+    private static final String EVENT_ID_REQUIRED = "Event ID must not be null";
+
+    public record Detail(byte[] body, String etag, long loadedAtNanos) {
+    }
+
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, CompletableFuture<Optional<Detail>>> entries = new ConcurrentHashMap<>();
+    private final Queue<Long> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public EventDetailCache(EventRepository eventRepository,
+            ObjectMapper objectMapper,
+            @Value("${event-detail-cache.max-entries:10000}") int maxEntries,
+            @Value("${event-detail-cache.ttl-millis:5000}") long ttlMillis) {
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = Math.max(0, ttlMillis) * 1_000_000;
+    }
+
+    /**
+     * The serialized event, or empty when it does not exist.
+     */
+    public Optional<Detail> get(Long eventId) {
+        Long id = Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        while (true) {
+            CompletableFuture<Optional<Detail>> existing = entries.get(id);
+            if (existing != null) {
+                if (!existing.isDone() || (!existing.isCompletedExceptionally() && isFresh(existing.join()))) {
+                    return await(existing);
+                }
+                entries.remove(id, existing);
+                continue;
+            }
+            CompletableFuture<Optional<Detail>> mine = new CompletableFuture<>();
+            if (entries.putIfAbsent(id, mine) != null) {
+                continue;
+            }
+            insertionOrder.add(id);
+            queued.incrementAndGet();
+            trim();
+            try {
+                Optional<Detail> loaded = load(id);
+                mine.complete(loaded);
+                if (loaded.isEmpty()) {
+                    // Misses are not cached, so an event created right after is seen at once
+                    entries.remove(id, mine);
+                }
+                return loaded;
+            } catch (RuntimeException e) {
+                entries.remove(id, mine);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Drops an event now and again after the current transaction commits, so a load racing the
+     * write cannot leave the old row cached.
+     */
+    public void invalidate(Long eventId) {
+        Long id = Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        entries.remove(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(id);
+                }
+            });
+        }
+    }
+
+    private Optional<Detail> load(Long id) {
+        return eventRepository.findById(id).map(event -> {
+            try {
+                byte[] body = objectMapper.writeValueAsBytes(event);
+                return new Detail(body, etagOf(body), System.nanoTime());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize event " + id, e);
+            }
+        });
+    }
+
+    private boolean isFresh(Optional<Detail> detail) {
+        return detail.isPresent() && System.nanoTime() - detail.get().loadedAtNanos() < ttlNanos;
+    }
+
+    // An event reloaded after its TTL is queued again, so the queue is trimmed as well as the map
+    private void trim() {
+        while (entries.size() > maxEntries || queued.get() > 2 * maxEntries) {
+            Long oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            entries.remove(oldest);
+        }
+    }
+
+    private static Optional<Detail> await(CompletableFuture<Optional<Detail>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
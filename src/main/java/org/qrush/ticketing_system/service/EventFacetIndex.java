@@ -0,0 +1,352 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.config.RequiresSchema;
+import org.qrush.ticketing_system.dto.EventFacetResponse;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Faceted browsing over the event catalog from in-memory bitmaps.
+ * Every event gets a dense ordinal, and each facet value (category, status, price band,
+ * availability, start month) is a {@link BitSet} over those ordinals. A filter is an AND of
+ * per-facet ORs, and the count for each facet value is taken under all the other facets'
+ * filters, so a client can show "how many if I also pick this" without further queries.
+ * Event writes and sold seats update the bitmaps after commit; a periodic rebuild compacts
+ * ordinals and picks up changes made elsewhere, such as lifecycle status transitions.
+ */
+@Service
+@RequiresSchema
+public class EventFacetIndex implements InitializingBean {
+
+    public static final String CATEGORY = "category";
+    public static final String STATUS = "status";
+    public static final String PRICE = "price";
+    public static final String AVAILABILITY = "availability";
+    public static final String MONTH = "month";
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private static final List<String> FACETS = List.of(CATEGORY, STATUS, PRICE, AVAILABILITY, MONTH);
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Filter for {@link #query}; empty lists and null dates do not filter.
+     */
+    public record Query(List<String> categories, List<String> statuses, List<String> priceBands,
+            List<String> availability, LocalDateTime from, LocalDateTime to, Integer offset, Integer limit) {
+    }
+
+    private record Row(long eventId, String category, String status, double price, int capacity, int sold,
+            LocalDateTime startDate) {
+
+        Row withSold(int sold) {
+            return new Row(eventId, category, status, price, capacity, sold, startDate);
+        }
+    }
+
+    /**
+     * Ordinals, rows and bitmaps; only touched through {@link RebuildableIndex}.
+     */
+    private final class Bitmaps {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private Row[] rows = new Row[1024];
+        private int nextOrdinal;
+        private final BitSet live = new BitSet();
+        private final Map<String, Map<String, BitSet>> facets = new HashMap<>();
+
+        Bitmaps() {
+            FACETS.forEach(facet -> facets.put(facet, new TreeMap<>()));
+        }
+
+        void put(Row row) {
+            Integer existing = ordinals.get(row.eventId());
+            int ordinal = existing != null ? existing : nextOrdinal++;
+            if (existing != null) {
+                setBits(ordinal, rows[ordinal], false);
+            } else {
+                ordinals.put(row.eventId(), ordinal);
+                if (ordinal >= rows.length) {
+                    rows = Arrays.copyOf(rows, rows.length * 2);
+                }
+            }
+            rows[ordinal] = row;
+            setBits(ordinal, row, true);
+            live.set(ordinal);
+        }
+
+        void remove(long eventId) {
+            Integer ordinal = ordinals.remove(eventId);
+            if (ordinal != null) {
+                setBits(ordinal, rows[ordinal], false);
+                rows[ordinal] = null;
+                live.clear(ordinal);
+            }
+        }
+
+        // Returns the new count, so a rebuild in progress can be given the absolute value
+        Integer addSold(long eventId, int quantity) {
+            Integer ordinal = ordinals.get(eventId);
+            if (ordinal == null) {
+                return null;
+            }
+            int sold = rows[ordinal].sold() + quantity;
+            put(rows[ordinal].withSold(sold));
+            return sold;
+        }
+
+        void setSold(long eventId, int sold) {
+            Integer ordinal = ordinals.get(eventId);
+            if (ordinal != null) {
+                put(rows[ordinal].withSold(sold));
+            }
+        }
+
+        private void setBits(int ordinal, Row row, boolean value) {
+            valuesOf(row).forEach((facet, facetValue) -> {
+                Map<String, BitSet> values = facets.get(facet);
+                if (value) {
+                    values.computeIfAbsent(facetValue, key -> new BitSet()).set(ordinal);
+                } else {
+                    BitSet bits = values.get(facetValue);
+                    if (bits != null) {
+                        bits.clear(ordinal);
+                        if (bits.isEmpty()) {
+                            values.remove(facetValue);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double[] priceBands;
+    private final double limitedRatio;
+    private final RebuildableIndex<Bitmaps> index = new RebuildableIndex<>(new Bitmaps());
+
+    public EventFacetIndex(JdbcTemplate jdbcTemplate,
+            @Value("${event-facets.price-bands:1000,2500,5000,10000}") double[] priceBands,
+            @Value("${event-facets.limited-ratio:0.1}") double limitedRatio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priceBands = Arrays.stream(priceBands).sorted().toArray();
+        this.limitedRatio = limitedRatio;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        rebuild();
+    }
+
+    public EventFacetResponse query(Query query) {
+        Objects.requireNonNull(query, "Facet query must not be null");
+        int offset = Math.max(0, Optional.ofNullable(query.offset()).orElse(0));
+        int limit = query.limit() == null ? DEFAULT_LIMIT : Math.min(Math.max(1, query.limit()), MAX_LIMIT);
+        return index.read(bitmaps -> query(bitmaps, query, offset, limit));
+    }
+
+    private EventFacetResponse query(Bitmaps bitmaps, Query query, int offset, int limit) {
+        Map<String, BitSet> masks = new LinkedHashMap<>();
+        putMask(bitmaps, masks, CATEGORY, normalise(query.categories()));
+        putMask(bitmaps, masks, STATUS, Optional.ofNullable(query.statuses()).orElse(List.of()).stream()
+                .map(status -> status.trim().toUpperCase(Locale.ROOT)).toList());
+        putMask(bitmaps, masks, PRICE, query.priceBands());
+        putMask(bitmaps, masks, AVAILABILITY, query.availability());
+        if (query.from() != null || query.to() != null) {
+            masks.put(MONTH, dateMask(bitmaps, query.from(), query.to()));
+        }
+
+        BitSet matches = (BitSet) bitmaps.live.clone();
+        masks.values().forEach(matches::and);
+
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            BitSet others = (BitSet) bitmaps.live.clone();
+            masks.forEach((name, mask) -> {
+                if (!name.equals(facet)) {
+                    others.and(mask);
+                }
+            });
+            Map<String, Integer> facetCounts = new LinkedHashMap<>();
+            bitmaps.facets.get(facet).forEach((value, bits) -> {
+                BitSet both = (BitSet) bits.clone();
+                both.and(others);
+                facetCounts.put(value, both.cardinality());
+            });
+            counts.put(facet, facetCounts);
+        }
+
+        List<Long> eventIds = new ArrayList<>(Math.min(limit, matches.cardinality()));
+        int skipped = 0;
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && eventIds.size() < limit;
+                ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (skipped++ >= offset) {
+                eventIds.add(bitmaps.rows[ordinal].eventId());
+            }
+        }
+        return new EventFacetResponse(matches.cardinality(), eventIds, counts);
+    }
+
+    /**
+     * Adds or replaces an event, after the current transaction commits if there is one.
+     */
+    public void index(EventEntity event) {
+        Objects.requireNonNull(event, "Event must not be null");
+        Row row = new Row(event.getEventID(), event.getCategory(),
+                event.getStatus() != null ? event.getStatus().name() : null,
+                Optional.ofNullable(event.getTicketPrice()).orElse(0.0),
+                Optional.ofNullable(event.getCapacity()).orElse(0),
+                Optional.ofNullable(event.getTicketsSold()).orElse(0),
+                event.getStartDate());
+        index.afterCommit(target -> target.put(row));
+    }
+
+    public void remove(Long eventId) {
+        long id = Objects.requireNonNull(eventId, "Event ID must not be null");
+        index.afterCommit(target -> target.remove(id));
+    }
+
+    /**
+     * Records seats sold by a booking, which may move the event to another availability band.
+     */
+    public void addSold(Long eventId, int quantity) {
+        long id = Objects.requireNonNull(eventId, "Event ID must not be null");
+        index.afterCommitReplaying(target -> {
+            Integer sold = target.addSold(id, quantity);
+            // A rebuild may already have read the new count, so it gets the count rather than the increment
+            return sold != null ? rebuilt -> rebuilt.setSold(id, sold) : null;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${event-facets.rebuild-millis:600000}",
+            initialDelayString = "${event-facets.rebuild-millis:600000}")
+    public void rebuild() {
+        index.rebuild(this::load);
+    }
+
+    private Bitmaps load() {
+        Bitmaps rebuilt = new Bitmaps();
+        long lastId = 0;
+        while (true) {
+            List<Row> batch = jdbcTemplate.query("SELECT eventid, category, status, ticket_price, capacity, "
+                    + "tickets_sold, start_date FROM events WHERE eventid > ? ORDER BY eventid LIMIT ?",
+                    (rs, rowNum) -> new Row(rs.getLong("eventid"), rs.getString("category"),
+                            rs.getString("status"), rs.getDouble("ticket_price"), rs.getInt("capacity"),
+                            rs.getInt("tickets_sold"), rs.getObject("start_date", LocalDateTime.class)),
+                    lastId, LOAD_BATCH_SIZE);
+            batch.forEach(rebuilt::put);
+            if (batch.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).eventId();
+        }
+        return rebuilt;
+    }
+
+    private void putMask(Bitmaps bitmaps, Map<String, BitSet> masks, String facet, List<String> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return;
+        }
+        BitSet mask = new BitSet();
+        Map<String, BitSet> values = bitmaps.facets.get(facet);
+        for (String value : selected) {
+            BitSet bits = values.get(value);
+            if (bits != null) {
+                mask.or(bits);
+            }
+        }
+        masks.put(facet, mask);
+    }
+
+    // Whole months come straight from the month bitmaps; only the two edge months are checked row by row
+    private BitSet dateMask(Bitmaps bitmaps, LocalDateTime from, LocalDateTime to) {
+        BitSet mask = new BitSet();
+        Map<String, BitSet> months = bitmaps.facets.get(MONTH);
+        String first = from != null ? YearMonth.from(from).toString() : null;
+        String last = to != null ? YearMonth.from(to).toString() : null;
+        for (Map.Entry<String, BitSet> month : months.entrySet()) {
+            String key = month.getKey();
+            if ((first != null && key.compareTo(first) < 0) || (last != null && key.compareTo(last) > 0)) {
+                continue;
+            }
+            if (key.equals(first) || key.equals(last)) {
+                BitSet bits = month.getValue();
+                for (int ordinal = bits.nextSetBit(0); ordinal >= 0; ordinal = bits.nextSetBit(ordinal + 1)) {
+                    LocalDateTime start = bitmaps.rows[ordinal].startDate();
+                    if ((from == null || !start.isBefore(from)) && (to == null || !start.isAfter(to))) {
+                        mask.set(ordinal);
+                    }
+                }
+            } else {
+                mask.or(month.getValue());
+            }
+        }
+        return mask;
+    }
+
+    private Map<String, String> valuesOf(Row row) {
+        Map<String, String> values = new HashMap<>();
+        if (row.category() != null && !row.category().isBlank()) {
+            values.put(CATEGORY, row.category().trim().toLowerCase(Locale.ROOT));
+        }
+        if (row.status() != null) {
+            values.put(STATUS, row.status());
+        }
+        values.put(PRICE, priceBand(row.price()));
+        values.put(AVAILABILITY, availability(row.capacity(), row.sold()));
+        if (row.startDate() != null) {
+            values.put(MONTH, YearMonth.from(row.startDate()).toString());
+        }
+        return values;
+    }
+
+    private String priceBand(double price) {
+        if (price <= 0) {
+            return "free";
+        }
+        double lower = 0;
+        for (double upper : priceBands) {
+            if (price < upper) {
+                return format(lower) + "-" + format(upper);
+            }
+            lower = upper;
+        }
+        return format(lower) + "+";
+    }
+
+    private String availability(int capacity, int sold) {
+        int remaining = capacity - sold;
+        if (remaining <= 0) {
+            return "sold_out";
+        }
+        return remaining <= Math.max(1, capacity * limitedRatio) ? "limited" : "available";
+    }
+
+    private static List<String> normalise(List<String> values) {
+        return Optional.ofNullable(values).orElse(List.of()).stream()
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private static String format(double amount) {
+        return amount == Math.rint(amount) ? String.valueOf((long) amount) : String.valueOf(amount);
+    }
+}
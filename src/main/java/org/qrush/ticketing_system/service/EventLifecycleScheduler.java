@@ -0,0 +1,158 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.entity.EventStatus;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Moves events from AVAILABLE to ENDED when they finish and from ENDED to ARCHIVED a while later.
+ * Upcoming end times within the horizon sit in a priority queue, so a tick with nothing due touches
+ * no database; when a deadline passes, each transition is one guarded bulk UPDATE over the
+ * (status, end_date) index. The queue is refilled from an end-date projection, never full rows.
+ * The updates are idempotent, so running this on several nodes is harmless.
+ */
+@Service
+public class EventLifecycleScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLifecycleScheduler.class);
+    private static final long RETRY_SECONDS = 30;
+
+    private enum Transition {
+        END(EventStatus.AVAILABLE, EventStatus.ENDED),
+        ARCHIVE(EventStatus.ENDED, EventStatus.ARCHIVED);
+
+        private final EventStatus from;
+        private final EventStatus to;
+
+        Transition(EventStatus from, EventStatus to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private record Deadline(LocalDateTime at, Transition transition) {
+    }
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final Duration archiveAfter;
+    // Guarded by this
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>(Comparator.comparing(Deadline::at));
+    private LocalDateTime loadedUntil;
+    // While a reload runs: deadlines added since its database read began, kept when the queue is swapped
+    private List<Deadline> addedDuringReload;
+
+    public EventLifecycleScheduler(EventRepository eventRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${event-lifecycle.horizon-minutes:60}") long horizonMinutes,
+            @Value("${event-lifecycle.archive-after-days:30}") long archiveAfterDays) {
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = Duration.ofMinutes(Math.max(1, horizonMinutes));
+        this.archiveAfter = Duration.ofDays(Math.max(0, archiveAfterDays));
+    }
+
+    /**
+     * Registers an event's end time, e.g. after it was created or rescheduled.
+     * End times beyond the loaded horizon are picked up by the next reload; while a reload runs,
+     * every end time is kept, since its read may not have seen the change.
+     */
+    public synchronized void schedule(LocalDateTime endDate) {
+        LocalDateTime until = addedDuringReload != null ? null : loadedUntil;
+        if (endDate != null && (until == null || !endDate.isAfter(until))) {
+            add(new Deadline(endDate, Transition.END));
+        }
+    }
+
+    // Also runs at startup, so events that ended while the application was down are caught up
+    @Scheduled(fixedDelayString = "${event-lifecycle.reload-millis:1800000}")
+    public void reload() {
+        LocalDateTime until = LocalDateTime.now().plus(horizon);
+        synchronized (this) {
+            addedDuringReload = new ArrayList<>();
+        }
+        List<Deadline> loaded = new ArrayList<>();
+        try {
+            for (LocalDateTime endDate : eventRepository.findEndDatesByStatus(EventStatus.AVAILABLE, until)) {
+                loaded.add(new Deadline(endDate, Transition.END));
+            }
+            for (LocalDateTime endDate : eventRepository.findEndDatesByStatus(EventStatus.ENDED, until.minus(archiveAfter))) {
+                loaded.add(new Deadline(endDate.plus(archiveAfter), Transition.ARCHIVE));
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                addedDuringReload = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            // The read may have missed deadlines added meanwhile; the transitions are idempotent, so duplicates are fine
+            deadlines.clear();
+            deadlines.addAll(loaded);
+            deadlines.addAll(addedDuringReload);
+            addedDuringReload = null;
+            loadedUntil = until;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${event-lifecycle.tick-millis:1000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Transition> due = EnumSet.noneOf(Transition.class);
+        synchronized (this) {
+            while (!deadlines.isEmpty() && !deadlines.peek().at().isAfter(now)) {
+                due.add(deadlines.poll().transition());
+            }
+        }
+        for (Transition transition : due) {
+            apply(transition, now);
+        }
+    }
+
+    private void apply(Transition transition, LocalDateTime now) {
+        LocalDateTime cutoff = transition == Transition.ARCHIVE ? now.minus(archiveAfter) : now;
+        try {
+            Integer changed = transactionTemplate.execute(status ->
+                    eventRepository.transitionStatus(transition.from, transition.to, cutoff));
+            if (changed != null && changed > 0) {
+                log.info("Moved {} events from {} to {}", changed, transition.from, transition.to);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Event lifecycle transition {} failed, retrying in {}s", transition, RETRY_SECONDS, e);
+            synchronized (this) {
+                add(new Deadline(now.plusSeconds(RETRY_SECONDS), transition));
+            }
+            return;
+        }
+        // Events that just ended are archived before the next reload when the archive delay is short
+        if (transition == Transition.END && archiveAfter.compareTo(horizon) < 0) {
+            synchronized (this) {
+                add(new Deadline(now.plus(archiveAfter), Transition.ARCHIVE));
+            }
+        }
+    }
+
+    // Called holding this
+    private void add(Deadline deadline) {
+        deadlines.add(deadline);
+        if (addedDuringReload != null) {
+            addedDuringReload.add(deadline);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.config.RequiresSchema;
+import org.qrush.ticketing_system.dto.EventSearchResult;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BinaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the event catalog, ranked with BM25.
+ * Name, category, organizer, location and description are tokenized (lower-cased, accents folded)
+ * into weighted term frequencies; a query scores only the postings of its terms, and its last term
+ * also matches as a prefix so search-as-you-type works. EventService keeps the index current after
+ * each commit, and a periodic rebuild picks up writes made on other nodes.
+ */
+@Service
+@RequiresSchema
+public class EventSearchIndex implements InitializingBean {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float ORGANIZER_WEIGHT = 1.5f;
+    private static final float LOCATION_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    // A prefix match counts a little less than the whole word
+    private static final double PREFIX_FACTOR = 0.8;
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "at", "by", "for", "in", "is", "of", "on", "or", "the", "to", "with");
+
+    // The document length travels with each posting so scoring never looks the document up
+    private record Posting(float frequency, float length) {
+    }
+
+    private record Doc(long eventId, String name, String category, String location, LocalDateTime startDate,
+            String status, Map<String, Float> terms, float length) {
+    }
+
+    /**
+     * Documents and postings; only touched through {@link RebuildableIndex}.
+     */
+    private static final class Index {
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private final NavigableMap<String, Map<Long, Posting>> postings = new TreeMap<>();
+        private double totalLength;
+
+        void put(Doc doc) {
+            remove(doc.eventId());
+            docs.put(doc.eventId(), doc);
+            totalLength += doc.length();
+            doc.terms().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(doc.eventId(), new Posting(frequency, doc.length())));
+        }
+
+        void remove(long eventId) {
+            Doc doc = docs.remove(eventId);
+            if (doc == null) {
+                return;
+            }
+            totalLength -= doc.length();
+            for (String term : doc.terms().keySet()) {
+                Map<Long, Posting> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(eventId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RebuildableIndex<Index> index = new RebuildableIndex<>(new Index());
+
+    public EventSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        rebuild();
+    }
+
+    /**
+     * Ranked matches for {@code query}, best first.
+     */
+    public List<EventSearchResult> search(String query, Integer limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(1, limit), MAX_LIMIT);
+        // The last word is still being typed unless the query ends with a separator
+        boolean lastIsPrefix = !query.isEmpty() && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+
+        return index.read(current -> rank(current, tokens, size, lastIsPrefix));
+    }
+
+    private static List<EventSearchResult> rank(Index current, List<String> tokens, int size, boolean lastIsPrefix) {
+        int documents = current.docs.size();
+        if (documents == 0) {
+            return List.of();
+        }
+        double averageLength = Math.max(1e-9, current.totalLength / documents);
+        Map<Long, Double> scores = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (!lastIsPrefix || i < tokens.size() - 1) {
+                scoreTerm(current, token, 1.0, documents, averageLength, scores, Double::sum);
+                continue;
+            }
+            // A document matching several expansions of the prefix counts its best one
+            Map<Long, Double> prefixScores = new HashMap<>();
+            scoreTerm(current, token, 1.0, documents, averageLength, prefixScores, Math::max);
+            int expanded = 0;
+            for (String term : current.postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (++expanded > MAX_PREFIX_TERMS) {
+                    break;
+                }
+                scoreTerm(current, term, PREFIX_FACTOR, documents, averageLength, prefixScores, Math::max);
+            }
+            prefixScores.forEach((eventId, score) -> scores.merge(eventId, score, Double::sum));
+        }
+
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(ranking);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.add(entry);
+            if (top.size() > size) {
+                top.poll();
+            }
+        }
+        List<EventSearchResult> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Map.Entry<Long, Double> entry = top.poll();
+            Doc doc = current.docs.get(entry.getKey());
+            results.add(new EventSearchResult(doc.eventId(), doc.name(), doc.category(), doc.location(),
+                    doc.startDate(), doc.status(), entry.getValue()));
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Adds or replaces an event, after the current transaction commits if there is one.
+     */
+    public void index(EventEntity event) {
+        Objects.requireNonNull(event, "Event must not be null");
+        Doc doc = document(event.getEventID(), event.getName(), event.getDescription(), event.getLocation(),
+                event.getCategory(), event.getOrganizerDisplayName(), event.getStartDate(),
+                event.getStatus() != null ? event.getStatus().name() : null);
+        index.afterCommit(target -> target.put(doc));
+    }
+
+    public void remove(Long eventId) {
+        long id = Objects.requireNonNull(eventId, "Event ID must not be null");
+        index.afterCommit(target -> target.remove(id));
+    }
+
+    @Scheduled(fixedDelayString = "${event-search.rebuild-millis:600000}",
+            initialDelayString = "${event-search.rebuild-millis:600000}")
+    public void rebuild() {
+        index.rebuild(this::load);
+    }
+
+    private Index load() {
+        Index rebuilt = new Index();
+        long lastId = 0;
+        while (true) {
+            List<Doc> batch = jdbcTemplate.query("SELECT eventid, name, description, location, category, "
+                    + "organizer_display_name, start_date, status FROM events WHERE eventid > ? "
+                    + "ORDER BY eventid LIMIT ?", (rs, rowNum) -> document(rs.getLong("eventid"),
+                    rs.getString("name"), rs.getString("description"), rs.getString("location"),
+                    rs.getString("category"), rs.getString("organizer_display_name"),
+                    rs.getObject("start_date", LocalDateTime.class), rs.getString("status")),
+                    lastId, LOAD_BATCH_SIZE);
+            batch.forEach(rebuilt::put);
+            if (batch.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).eventId();
+        }
+        return rebuilt;
+    }
+
+    private static void scoreTerm(Index index, String term, double factor, int documents, double averageLength,
+            Map<Long, Double> scores, BinaryOperator<Double> combine) {
+        Map<Long, Posting> posting = index.postings.get(term);
+        if (posting == null) {
+            return;
+        }
+        double idf = Math.log(1 + (documents - posting.size() + 0.5) / (posting.size() + 0.5));
+        posting.forEach((eventId, entry) -> {
+            double norm = K1 * (1 - B + B * entry.length() / averageLength);
+            double score = factor * idf * entry.frequency() * (K1 + 1) / (entry.frequency() + norm);
+            scores.merge(eventId, score, combine);
+        });
+    }
+
+    private static Doc document(long eventId, String name, String description, String location, String category,
+            String organizer, LocalDateTime startDate, String status) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, name, NAME_WEIGHT);
+        addTerms(terms, category, CATEGORY_WEIGHT);
+        addTerms(terms, organizer, ORGANIZER_WEIGHT);
+        addTerms(terms, location, LOCATION_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        float length = 0;
+        for (float frequency : terms.values()) {
+            length += frequency;
+        }
+        return new Doc(eventId, name, category, location, startDate, status, Map.copyOf(terms), length);
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            boolean tooShort = token.length() < 2 && !(token.length() == 1 && Character.isDigit(token.charAt(0)));
+            if (!token.isEmpty() && !tooShort && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
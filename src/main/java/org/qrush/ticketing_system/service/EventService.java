@@ -1,12 +1,10 @@
 package org.qrush.ticketing_system.service;
 
 import org.qrush.ticketing_system.dto.CancelEventResponse;
+import org.qrush.ticketing_system.dto.TicketTypeResponse;
 import org.qrush.ticketing_system.entity.EventEntity;
-import org.qrush.ticketing_system.entity.EventViewEntity;
-import org.qrush.ticketing_system.entity.TicketEntity;
 import org.qrush.ticketing_system.repository.AttendanceLogRepository;
 import org.qrush.ticketing_system.repository.EventRepository;
-import org.qrush.ticketing_system.repository.EventViewRepository;
 import org.qrush.ticketing_system.repository.PaymentRepository;
 import org.qrush.ticketing_system.repository.TicketRepository;
 import org.springframework.stereotype.Service;
@@ -19,37 +17,49 @@ import java.util.Optional;
 
 @Service
 public class EventService {
-    // Scheduled job to update event status to ENDED when endDateTime passes
-    @org.springframework.scheduling.annotation.Scheduled(fixedRate = 60000) // every 60 seconds
-    @Transactional
-    public void updateEndedEvents() {
-        List<EventEntity> events = eventRepository.findAll();
-        LocalDateTime now = LocalDateTime.now();
-        for (EventEntity event : events) {
-            if (event.getStatus() == org.qrush.ticketing_system.entity.EventStatus.AVAILABLE && event.getEndDate().isBefore(now)) {
-                event.setStatus(org.qrush.ticketing_system.entity.EventStatus.ENDED);
-                eventRepository.save(event);
-            }
-        }
-    }
-
     private final EventRepository eventRepository;
-    private final EventViewRepository eventViewRepository;
     private final TicketRepository ticketRepository;
     private final PaymentRepository paymentRepository;
     private final AttendanceLogRepository attendanceLogRepository;
     private final NotificationService notificationService;
+    private final TicketInventoryService ticketInventoryService;
+    private final TicketTypeService ticketTypeService;
+    private final EventLifecycleScheduler eventLifecycleScheduler;
+    private final BlobStore blobStore;
+    private final EventDetailCache eventDetailCache;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventFacetIndex eventFacetIndex;
+    private final EventViewCounter eventViewCounter;
+    private final EventUniqueViewers eventUniqueViewers;
+    private final EventCancellationJob eventCancellationJob;
+    private final GateAdmissionService gateAdmissionService;
     private static final String EVENT_ID_MUST_NOT_BE_NULL = "Event ID must not be null";
 
-    public EventService(EventRepository eventRepository, EventViewRepository eventViewRepository,
+    public EventService(EventRepository eventRepository,
             TicketRepository ticketRepository, PaymentRepository paymentRepository,
-            AttendanceLogRepository attendanceLogRepository, NotificationService notificationService) {
+            AttendanceLogRepository attendanceLogRepository, NotificationService notificationService,
+            TicketInventoryService ticketInventoryService, TicketTypeService ticketTypeService,
+            EventLifecycleScheduler eventLifecycleScheduler, BlobStore blobStore,
+            EventDetailCache eventDetailCache, EventSearchIndex eventSearchIndex,
+            EventFacetIndex eventFacetIndex, EventViewCounter eventViewCounter,
+            EventUniqueViewers eventUniqueViewers, EventCancellationJob eventCancellationJob,
+            GateAdmissionService gateAdmissionService) {
         this.eventRepository = eventRepository;
-        this.eventViewRepository = eventViewRepository;
         this.ticketRepository = ticketRepository;
         this.paymentRepository = paymentRepository;
         this.attendanceLogRepository = attendanceLogRepository;
         this.notificationService = notificationService;
+        this.ticketInventoryService = ticketInventoryService;
+        this.ticketTypeService = ticketTypeService;
+        this.eventLifecycleScheduler = eventLifecycleScheduler;
+        this.blobStore = blobStore;
+        this.eventDetailCache = eventDetailCache;
+        this.eventSearchIndex = eventSearchIndex;
+        this.eventFacetIndex = eventFacetIndex;
+        this.eventViewCounter = eventViewCounter;
+        this.eventUniqueViewers = eventUniqueViewers;
+        this.eventCancellationJob = eventCancellationJob;
+        this.gateAdmissionService = gateAdmissionService;
     }
 
     public List<EventEntity> getAllEvents() {
@@ -60,12 +70,22 @@ public class EventService {
         return eventRepository.findById(Objects.requireNonNull(id, EVENT_ID_MUST_NOT_BE_NULL));
     }
 
+    public List<TicketTypeResponse> getTicketTypes(Long id) {
+        return ticketTypeService.describe(Objects.requireNonNull(id, EVENT_ID_MUST_NOT_BE_NULL));
+    }
+
     public EventEntity createEvent(EventEntity event) {
         EventEntity toCreate = Objects.requireNonNull(event, "Event must not be null");
         if (toCreate.getViews() == null) {
             toCreate.setViews(0L);
         }
+        // Uploaded images go to the blob store; the event row keeps only the reference
+        toCreate.setImageRef(blobStore.toReference(toCreate.getSubmittedImage()));
         EventEntity savedEvent = eventRepository.save(toCreate);
+        ticketTypeService.syncFromEvent(savedEvent);
+        eventLifecycleScheduler.schedule(savedEvent.getEndDate());
+        eventSearchIndex.index(savedEvent);
+        eventFacetIndex.index(savedEvent);
 
         // Send notification to organizer
         if (savedEvent.getOrganizer() != null && !savedEvent.getOrganizer().isEmpty()) {
@@ -104,8 +124,8 @@ public class EventService {
             event.setDescription(updatedEvent.getDescription());
             // Fix: update ticketTypes from organizer input
             event.setTicketTypes(updatedEvent.getTicketTypes());
-            if (updatedEvent.getImage() != null) {
-                event.setImage(updatedEvent.getImage());
+            if (updatedEvent.getSubmittedImage() != null) {
+                event.setImageRef(blobStore.toReference(updatedEvent.getSubmittedImage()));
             }
             if (updatedEvent.getFeatures() != null) {
                 event.setFeatures(updatedEvent.getFeatures());
@@ -113,22 +133,30 @@ public class EventService {
             if (updatedEvent.getAgenda() != null) {
                 event.setAgenda(updatedEvent.getAgenda());
             }
-            if (updatedEvent.getViews() != null) {
-                event.setViews(updatedEvent.getViews());
-            }
-            return eventRepository.save(event);
+            EventEntity saved = eventRepository.save(event);
+            ticketTypeService.syncFromEvent(saved);
+            eventLifecycleScheduler.schedule(saved.getEndDate());
+            eventDetailCache.invalidate(id);
+            eventSearchIndex.index(saved);
+            eventFacetIndex.index(saved);
+            // Capacity or quotas may have changed, reload the seat pools on next booking
+            ticketInventoryService.evict(id);
+            // Gates judge the scan day by the index's copy of the dates and show its name
+            gateAdmissionService.evict(id);
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Event not found with ID: " + id));
     }
 
+    /**
+     * Counts a view and returns the event. The count reaches {@code view_count} with the next
+     * flush of {@link EventViewCounter}, so the returned views may not include it yet.
+     */
     public EventEntity getEventByIdAndIncrementViews(Long id) {
         Objects.requireNonNull(id, EVENT_ID_MUST_NOT_BE_NULL);
-        return eventRepository.findById(id)
-                .map(event -> {
-                    long current = Optional.ofNullable(event.getViews()).orElse(0L);
-                    event.setViews(current + 1);
-                    return eventRepository.save(event);
-                })
+        EventEntity event = eventRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found with ID: " + id));
+        eventViewCounter.increment(id);
+        return event;
     }
 
     /**
@@ -136,11 +164,7 @@ public class EventService {
      */
     public void incrementViews(Long eventId) {
         Objects.requireNonNull(eventId, EVENT_ID_MUST_NOT_BE_NULL);
-        eventRepository.findById(eventId).ifPresent(event -> {
-            long current = Optional.ofNullable(event.getViews()).orElse(0L);
-            event.setViews(current + 1);
-            eventRepository.save(event);
-        });
+        eventViewCounter.increment(eventId);
     }
 
     /**
@@ -156,20 +180,10 @@ public class EventService {
             return;
         }
 
-        // Check if this user has already viewed this event
-        boolean hasViewed = eventViewRepository.existsByEventIdAndUserId(eventId, userId);
-
-        if (!hasViewed) {
-            // Record the unique view
-            EventViewEntity view = new EventViewEntity(eventId, userId);
-            eventViewRepository.save(view);
-
-            // Increment the view count
-            eventRepository.findById(eventId).ifPresent(event -> {
-                long current = Optional.ofNullable(event.getViews()).orElse(0L);
-                event.setViews(current + 1);
-                eventRepository.save(event);
-            });
+        // Only a first view by this attendee counts
+        long newViewers = eventUniqueViewers.record(eventId, userId);
+        if (newViewers > 0) {
+            eventViewCounter.add(eventId, newViewers);
         }
     }
 
@@ -201,16 +215,22 @@ public class EventService {
         // Delete related records first to avoid FK constraint violations
         attendanceLogRepository.deleteByEventId(id);
         paymentRepository.deleteByEventId(id);
-        eventViewRepository.deleteByEventId(id);
+        eventUniqueViewers.remove(id);
+        ticketTypeService.deleteForEvent(id);
 
         // Now delete the event
         eventRepository.deleteById(id);
+        eventDetailCache.invalidate(id);
+        eventSearchIndex.remove(id);
+        eventFacetIndex.remove(id);
+        gateAdmissionService.evict(id);
     }
 
     /**
      * Cancel an event and refund all ticket holders.
      * This should be used when an event cannot proceed due to unforeseen
-     * circumstances.
+     * circumstances. The refunds run in the background; follow them with
+     * {@link EventCancellationJob#progress(Long)}.
      */
     @Transactional
     public CancelEventResponse cancelEvent(Long eventId, String reason) {
@@ -223,63 +243,26 @@ public class EventService {
             throw new IllegalStateException("Event is already cancelled");
         }
 
-        // Get all tickets for this event
-        List<TicketEntity> tickets = ticketRepository.findByEvent_EventID(eventId);
-
-        double totalRefundAmount = 0;
-        int ticketsRefunded = 0;
-
-        // Mark all tickets as refunded and notify users
-        for (TicketEntity ticket : tickets) {
-            if (!"refunded".equalsIgnoreCase(ticket.getStatus()) &&
-                !"cancelled".equalsIgnoreCase(ticket.getStatus())) {
-            totalRefundAmount += ticket.getPrice();
-            ticketsRefunded++;
-            // Update ticket status
-            ticket.setStatus("refunded"); // Assuming ticket.status is still String
-            ticketRepository.save(ticket);
-            // Send notification to ticket holder
-            notificationService.createEventNotification(
-                ticket.getUser().getUserID(),
-                "warning",
-                "Event Cancelled - Refund Issued",
-                String.format("The event \"%s\" has been cancelled. Reason: %s. " +
-                    "A refund of ₱%.2f has been issued to your original payment method.",
-                    event.getName(),
-                    reason != null ? reason : "Unforeseen circumstances",
-                    ticket.getPrice()),
-                eventId);
-            }
-        }
-
-        // Update event status
+        // Update event status; bookings are refused from here on
         event.setStatus(org.qrush.ticketing_system.entity.EventStatus.CANCELLED);
         event.setCancellationReason(reason != null ? reason : "Unforeseen circumstances");
         event.setCancelledAt(LocalDateTime.now());
         eventRepository.save(event);
+        ticketInventoryService.evict(eventId);
+        // Tickets of a cancelled event are refunded and no longer admitted
+        gateAdmissionService.evict(eventId);
+        eventDetailCache.invalidate(eventId);
+        eventSearchIndex.index(event);
+        eventFacetIndex.index(event);
 
-        // Notify the organizer
-        if (event.getOrganizer() != null && !event.getOrganizer().isEmpty()) {
-            try {
-                Long organizerId = Long.parseLong(event.getOrganizer());
-                notificationService.createEventNotification(
-                        organizerId,
-                        "error",
-                        "Event Cancelled",
-                        String.format(
-                                "Your event \"%s\" has been cancelled. %d tickets were refunded for a total of ₱%.2f.",
-                                event.getName(), ticketsRefunded, totalRefundAmount),
-                        eventId);
-            } catch (NumberFormatException e) {
-                // Organizer is not a valid user ID, skip notification
-            }
-        }
+        // Tickets are refunded and their holders notified chunk by chunk after commit
+        long ticketsToRefund = eventCancellationJob.start(eventId, event.getCancellationReason());
 
         return new CancelEventResponse(
                 true,
-                String.format("Event cancelled successfully. %d tickets refunded.", ticketsRefunded),
-                ticketsRefunded,
-                totalRefundAmount);
+                String.format("Event cancelled successfully. Refunding %d tickets in the background.", ticketsToRefund),
+                0,
+                0);
     }
 
     /**
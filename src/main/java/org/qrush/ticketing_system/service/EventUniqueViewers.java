@@ -0,0 +1,197 @@
+package org.qrush.ticketing_system.service;
+
+import jakarta.annotation.PreDestroy;
+import org.qrush.ticketing_system.config.RequiresSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which attendees viewed each event, so a repeat view is recognised in memory.
+ * An event's viewers are loaded from its {@code event_unique_viewers} snapshot on first use and
+ * written back periodically while they change. Each write unions in the stored snapshot under a row
+ * lock, so nodes sharing the table converge on the same set. Events past the sketch threshold switch
+ * to a HyperLogLog sketch and report estimated counts. Idle events are dropped from memory.
+ */
+@Service
+@RequiresSchema
+public class EventUniqueViewers {
+
+    private static final Logger log = LoggerFactory.getLogger(EventUniqueViewers.class);
+    private static final String EVENT_ID_REQUIRED = "Event ID must not be null";
+
+    /**
+     * One event's viewers; fields guarded by the entry itself.
+     */
+    private static final class Entry {
+        private final UniqueViewerSet viewers;
+        private boolean dirty;
+        private boolean removed;
+        private long lastUsedNanos = System.nanoTime();
+
+        Entry(UniqueViewerSet viewers) {
+            this.viewers = viewers;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long sketchThreshold;
+    private final long idleNanos;
+
+    public EventUniqueViewers(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${event-unique-views.sketch-threshold:1000000}") long sketchThreshold,
+            @Value("${event-unique-views.idle-millis:3600000}") long idleMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sketchThreshold = Math.max(1, sketchThreshold);
+        this.idleNanos = Math.max(0, idleMillis) * 1_000_000;
+    }
+
+    /**
+     * Records that a user viewed an event and returns by how much the event's unique viewers grew:
+     * 1 for a first view, 0 for a repeat, the growth of the estimate for a sketched event.
+     */
+    public long record(Long eventId, long userId) {
+        Long id = Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        while (true) {
+            Entry entry = entry(id);
+            synchronized (entry) {
+                if (entry.removed) {
+                    continue;
+                }
+                entry.lastUsedNanos = System.nanoTime();
+                long grown = entry.viewers.add(userId);
+                if (grown > 0) {
+                    entry.dirty = true;
+                    compact(entry.viewers);
+                }
+                return grown;
+            }
+        }
+    }
+
+    /**
+     * Number of users who viewed an event, estimated for sketched events.
+     */
+    public long count(Long eventId) {
+        Entry entry = entry(Objects.requireNonNull(eventId, EVENT_ID_REQUIRED));
+        synchronized (entry) {
+            return entry.viewers.cardinality();
+        }
+    }
+
+    /**
+     * Forgets an event's viewers, after the current transaction commits if there is one.
+     */
+    public void remove(Long eventId) {
+        Long id = Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        jdbcTemplate.update("DELETE FROM event_unique_viewers WHERE event_id = ?", id);
+        Runnable drop = () -> {
+            Entry entry = entries.remove(id);
+            if (entry != null) {
+                synchronized (entry) {
+                    entry.removed = true;
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop.run();
+                }
+            });
+        } else {
+            drop.run();
+        }
+    }
+
+    /**
+     * Unions {@code viewers} with the stored snapshot of an event and stores the result, which is
+     * also left in {@code viewers}. Must run inside a transaction.
+     */
+    public void storeMerged(Long eventId, UniqueViewerSet viewers) {
+        Long id = Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        List<byte[]> stored = jdbcTemplate.query("SELECT viewers FROM event_unique_viewers WHERE event_id = ? "
+                + "FOR UPDATE", (rs, rowNum) -> rs.getBytes(1), id);
+        if (!stored.isEmpty()) {
+            viewers.merge(UniqueViewerSet.fromBytes(stored.get(0)));
+        }
+        compact(viewers);
+        jdbcTemplate.update("INSERT INTO event_unique_viewers (event_id, viewers, viewer_count, approximate, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE viewers = VALUES(viewers), "
+                + "viewer_count = VALUES(viewer_count), approximate = VALUES(approximate), updated_at = VALUES(updated_at)",
+                id, viewers.toBytes(), viewers.cardinality(), viewers.isSketch(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${event-unique-views.flush-millis:5000}")
+    public void flush() {
+        long now = System.nanoTime();
+        entries.forEach((id, entry) -> {
+            UniqueViewerSet snapshot;
+            synchronized (entry) {
+                if (!entry.dirty) {
+                    if (now - entry.lastUsedNanos > idleNanos && entries.remove(id, entry)) {
+                        entry.removed = true;
+                    }
+                    return;
+                }
+                snapshot = entry.viewers.copy();
+                entry.dirty = false;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> storeMerged(id, snapshot));
+                // Brings in viewers recorded by other nodes since this event was loaded
+                synchronized (entry) {
+                    entry.viewers.merge(snapshot);
+                }
+            } catch (RuntimeException e) {
+                synchronized (entry) {
+                    entry.dirty = true;
+                }
+                log.warn("Could not store unique viewers of event {}, retrying", id, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Entry entry(Long id) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            return entry;
+        }
+        // Loaded outside the map so a slow query does not block other events; a racing load loses
+        List<byte[]> stored = jdbcTemplate.query("SELECT viewers FROM event_unique_viewers WHERE event_id = ?",
+                (rs, rowNum) -> rs.getBytes(1), id);
+        Entry loaded = new Entry(stored.isEmpty() ? new UniqueViewerSet() : UniqueViewerSet.fromBytes(stored.get(0)));
+        Entry existing = entries.putIfAbsent(id, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void compact(UniqueViewerSet viewers) {
+        if (!viewers.isSketch() && viewers.cardinality() > sketchThreshold) {
+            viewers.toSketch();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.qrush.ticketing_system.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers event page views in memory and adds them to {@code events.view_count} in batches.
+ * A view is one {@link LongAdder} increment, which stays uncontended however hot the event is;
+ * the flush turns each event's pending views into one relative UPDATE, sent as a single JDBC batch,
+ * so concurrent views are never lost and the events row is never read back to count them.
+ * Adders of events without new views are dropped, so only recently viewed events stay in memory.
+ * Views not yet flushed are lost if the process dies, which is acceptable for a popularity counter.
+ */
+@Service
+public class EventViewCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(EventViewCounter.class);
+    private static final String ADD_VIEWS = "UPDATE events SET view_count = view_count + ? WHERE eventid = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // Adders dropped by the previous flush; a view that raced the drop is picked up one flush later
+    private Map<Long, LongAdder> dropped = Map.of();
+
+    public EventViewCounter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void increment(Long eventId) {
+        add(eventId, 1);
+    }
+
+    public void add(Long eventId, long views) {
+        Long id = Objects.requireNonNull(eventId, "Event ID must not be null");
+        LongAdder adder = pending.get(id);
+        if (adder == null) {
+            adder = pending.computeIfAbsent(id, key -> new LongAdder());
+        }
+        adder.add(views);
+    }
+
+    /**
+     * Views counted on this node that are not in the database yet.
+     */
+    public long pending(Long eventId) {
+        LongAdder adder = pending.get(eventId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${event-views.flush-millis:1000}")
+    public synchronized void flush() {
+        // Sorted so rows are updated in ID order and flushes from several nodes cannot deadlock
+        Map<Long, Long> flushes = new TreeMap<>();
+        dropped.forEach((eventId, adder) -> {
+            long late = adder.sum();
+            if (late > 0) {
+                flushes.merge(eventId, late, Long::sum);
+            }
+        });
+        Map<Long, LongAdder> idle = new HashMap<>();
+        pending.forEach((eventId, adder) -> {
+            long views = adder.sum();
+            if (views > 0) {
+                // Only the views read here are taken out; ones added meanwhile stay for the next flush
+                adder.add(-views);
+                flushes.merge(eventId, views, Long::sum);
+            } else if (pending.remove(eventId, adder)) {
+                idle.put(eventId, adder);
+            }
+        });
+        dropped = idle;
+        if (flushes.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(ADD_VIEWS, flushes.entrySet().stream()
+                    .map(flush -> new Object[] { flush.getValue(), flush.getKey() })
+                    .toList());
+        } catch (RuntimeException e) {
+            // Put the views back so the next flush retries them
+            flushes.forEach(this::add);
+            log.warn("Could not flush {} event view counters, retrying", flushes.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
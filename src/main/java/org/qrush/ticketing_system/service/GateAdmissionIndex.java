@@ -0,0 +1,302 @@
+package org.qrush.ticketing_system.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Admission state of one event's tickets, held in parallel primitive arrays.
+ * Ticket IDs and legacy UUID codes are looked up through open-addressing tables keyed by
+ * {@code long}s, so a scan is a couple of array probes with no boxing and no per-ticket
+ * objects. Rows are appended as tickets are learned and never removed.
+ */
+public class GateAdmissionIndex {
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int NO_ROW = -1;
+
+    private final Long eventId;
+    private final String eventName;
+    private final LocalDateTime eventStart;
+    private final LocalDateTime eventEnd;
+
+    // Rows
+    private long[] ticketIds;
+    private long[] userIds;
+    private String[] attendeeNames;
+    private String[] attendeeEmails;
+    private String[] ticketTypes;
+    private boolean[] checkedIn;
+    private int[] reEntryCounts;
+    private long[] lastScanMillis;
+    private int size;
+
+    // ticketId -> row
+    private long[] idKeys;
+    private int[] idRows;
+
+    // legacy UUID code (two halves) -> row
+    private long[] codeHigh;
+    private long[] codeLow;
+    private int[] codeRows;
+    private int codeCount;
+
+    public GateAdmissionIndex(Long eventId, String eventName, LocalDateTime eventStart, LocalDateTime eventEnd,
+            int expectedTickets) {
+        this.eventId = eventId;
+        this.eventName = eventName;
+        this.eventStart = eventStart;
+        this.eventEnd = eventEnd;
+        int rows = Math.max(16, expectedTickets);
+        this.ticketIds = new long[rows];
+        this.userIds = new long[rows];
+        this.attendeeNames = new String[rows];
+        this.attendeeEmails = new String[rows];
+        this.ticketTypes = new String[rows];
+        this.checkedIn = new boolean[rows];
+        this.reEntryCounts = new int[rows];
+        this.lastScanMillis = new long[rows];
+        int table = tableSizeFor(rows);
+        this.idKeys = new long[table];
+        this.idRows = new int[table];
+        this.codeHigh = new long[table];
+        this.codeLow = new long[table];
+        this.codeRows = new int[table];
+    }
+
+    /**
+     * Adds a ticket, or refreshes its row if it is already known. {@code lastScanMillis} is 0
+     * when the ticket was never scanned.
+     */
+    public synchronized void put(long ticketId, String legacyCode, long userId, String attendeeName,
+            String attendeeEmail, String ticketType, boolean entered, int reEntryCount, long lastScan) {
+        int row = findRow(ticketId);
+        if (row == NO_ROW) {
+            ensureRowCapacity();
+            row = size++;
+            insertId(ticketId, row);
+            UUID code = parseUuid(legacyCode);
+            if (code != null) {
+                insertCode(code.getMostSignificantBits(), code.getLeastSignificantBits(), row);
+            }
+        }
+        ticketIds[row] = ticketId;
+        userIds[row] = userId;
+        attendeeNames[row] = attendeeName;
+        attendeeEmails[row] = attendeeEmail;
+        ticketTypes[row] = ticketType;
+        checkedIn[row] = entered;
+        reEntryCounts[row] = reEntryCount;
+        lastScanMillis[row] = lastScan;
+    }
+
+    public synchronized int rowOf(long ticketId) {
+        return findRow(ticketId);
+    }
+
+    /**
+     * Row of a pre-signed-token UUID code, or -1 when the code is unknown or not a UUID.
+     */
+    public synchronized int rowOfLegacyCode(String code) {
+        UUID uuid = parseUuid(code);
+        if (uuid == null || codeCount == 0) {
+            return NO_ROW;
+        }
+        long high = uuid.getMostSignificantBits();
+        long low = uuid.getLeastSignificantBits();
+        int mask = codeRows.length - 1;
+        for (int slot = mix(high ^ low) & mask; ; slot = (slot + 1) & mask) {
+            if (codeRows[slot] == 0) {
+                return NO_ROW;
+            }
+            if (codeHigh[slot] == high && codeLow[slot] == low) {
+                return codeRows[slot] - 1;
+            }
+        }
+    }
+
+    /**
+     * Records a scan of {@code row}. The first scan admits the ticket; later scans count as re-entries.
+     */
+    public synchronized Admission admit(int row, long nowMillis) {
+        long previous = lastScanMillis[row];
+        lastScanMillis[row] = nowMillis;
+        if (!checkedIn[row]) {
+            checkedIn[row] = true;
+            reEntryCounts[row] = 0;
+            return new Admission(row, true, 0, previous);
+        }
+        return new Admission(row, false, ++reEntryCounts[row], previous);
+    }
+
+    /**
+     * Folds in a scan recorded elsewhere. Only moves the row forward, so a late scan never undoes
+     * a newer one seen here.
+     */
+    public synchronized void merge(int row, int reEntryCount, long scanMillis) {
+        checkedIn[row] = true;
+        reEntryCounts[row] = Math.max(reEntryCounts[row], reEntryCount);
+        lastScanMillis[row] = Math.max(lastScanMillis[row], scanMillis);
+    }
+
+    public synchronized long ticketId(int row) {
+        return ticketIds[row];
+    }
+
+    public synchronized long userId(int row) {
+        return userIds[row];
+    }
+
+    public synchronized String attendeeName(int row) {
+        return attendeeNames[row];
+    }
+
+    public synchronized String attendeeEmail(int row) {
+        return attendeeEmails[row];
+    }
+
+    public synchronized String ticketType(int row) {
+        return ticketTypes[row];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public LocalDateTime getEventStart() {
+        return eventStart;
+    }
+
+    public LocalDateTime getEventEnd() {
+        return eventEnd;
+    }
+
+    private int findRow(long ticketId) {
+        int mask = idRows.length - 1;
+        for (int slot = mix(ticketId) & mask; ; slot = (slot + 1) & mask) {
+            // Rows are stored +1 so that 0 marks an empty slot
+            if (idRows[slot] == 0) {
+                return NO_ROW;
+            }
+            if (idKeys[slot] == ticketId) {
+                return idRows[slot] - 1;
+            }
+        }
+    }
+
+    private void insertId(long ticketId, int row) {
+        if ((size + 1) * 2L > idRows.length) {
+            rehashIds(idRows.length * 2);
+        }
+        int mask = idRows.length - 1;
+        int slot = mix(ticketId) & mask;
+        while (idRows[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        idKeys[slot] = ticketId;
+        idRows[slot] = row + 1;
+    }
+
+    private void insertCode(long high, long low, int row) {
+        if ((codeCount + 1) * 2L > codeRows.length) {
+            rehashCodes(codeRows.length * 2);
+        }
+        int mask = codeRows.length - 1;
+        int slot = mix(high ^ low) & mask;
+        while (codeRows[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        codeHigh[slot] = high;
+        codeLow[slot] = low;
+        codeRows[slot] = row + 1;
+        codeCount++;
+    }
+
+    private void rehashIds(int capacity) {
+        long[] oldKeys = idKeys;
+        int[] oldRows = idRows;
+        idKeys = new long[capacity];
+        idRows = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldRows.length; i++) {
+            if (oldRows[i] != 0) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (idRows[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                idKeys[slot] = oldKeys[i];
+                idRows[slot] = oldRows[i];
+            }
+        }
+    }
+
+    private void rehashCodes(int capacity) {
+        long[] oldHigh = codeHigh;
+        long[] oldLow = codeLow;
+        int[] oldRows = codeRows;
+        codeHigh = new long[capacity];
+        codeLow = new long[capacity];
+        codeRows = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldRows.length; i++) {
+            if (oldRows[i] != 0) {
+                int slot = mix(oldHigh[i] ^ oldLow[i]) & mask;
+                while (codeRows[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                codeHigh[slot] = oldHigh[i];
+                codeLow[slot] = oldLow[i];
+                codeRows[slot] = oldRows[i];
+            }
+        }
+    }
+
+    private void ensureRowCapacity() {
+        if (size < ticketIds.length) {
+            return;
+        }
+        int capacity = ticketIds.length * 2;
+        ticketIds = Arrays.copyOf(ticketIds, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        attendeeNames = Arrays.copyOf(attendeeNames, capacity);
+        attendeeEmails = Arrays.copyOf(attendeeEmails, capacity);
+        ticketTypes = Arrays.copyOf(ticketTypes, capacity);
+        checkedIn = Arrays.copyOf(checkedIn, capacity);
+        reEntryCounts = Arrays.copyOf(reEntryCounts, capacity);
+        lastScanMillis = Arrays.copyOf(lastScanMillis, capacity);
+    }
+
+    private static int mix(long key) {
+        return (int) ((key * GOLDEN) >>> 32);
+    }
+
+    private static int tableSizeFor(int rows) {
+        return Integer.highestOneBit(Math.max(16, rows * 2 - 1)) << 1;
+    }
+
+    private static UUID parseUuid(String code) {
+        if (code == null || code.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(code);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Result of one scan: whether it was the first entry, the re-entry count after the scan and
+     * the time of the previous scan in epoch millis (0 if none).
+     */
+    public record Admission(int row, boolean firstEntry, int reEntryCount, long previousScanMillis) {
+    }
+}
@@ -0,0 +1,276 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.entity.EventStatus;
+import org.qrush.ticketing_system.entity.TicketEntity;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers gate scans from memory on event day.
+ * Each running event gets a {@link GateAdmissionIndex}, preloaded shortly before doors open
+ * or loaded on its first scan. Scans update the index and are handed to {@link AttendanceLogWriter},
+ * which writes attendance logs, entry state and notifications in batches. A first entry is only
+ * valid once the conditional {@code markCheckedIn} UPDATE has claimed the ticket row, so gates on
+ * different nodes cannot both admit it; re-entries never touch the database on the scan path.
+ * Tickets the index does not know (bought after it was loaded, other events) fall back to the
+ * database path in TicketService.
+ */
+@Service
+public class GateAdmissionService {
+
+    private static final String EVENT_ID_REQUIRED = "Event ID must not be null";
+    private static final String CHECKED_IN = "CHECKED_IN";
+
+    private final EventRepository eventRepository;
+    private final TicketRepository ticketRepository;
+    private final AttendanceLogWriter attendanceLogWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, GateAdmissionIndex> indexes = new ConcurrentHashMap<>();
+    // Bumped by every eviction, so an index loaded across one is not installed
+    private final AtomicLong evictions = new AtomicLong();
+    private final long preloadHours;
+    private final long retainHours;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public GateAdmissionService(EventRepository eventRepository,
+            TicketRepository ticketRepository,
+            AttendanceLogWriter attendanceLogWriter,
+            PlatformTransactionManager transactionManager,
+            @Value("${gate.index.preload-hours:3}") long preloadHours,
+            @Value("${gate.index.retain-hours:6}") long retainHours) {
+        this.eventRepository = eventRepository;
+        this.ticketRepository = ticketRepository;
+        this.attendanceLogWriter = attendanceLogWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.preloadHours = preloadHours;
+        this.retainHours = retainHours;
+    }
+
+    /**
+     * Scans a ticket by ID. Empty when the event is not running or its index does not know the ticket.
+     */
+    public Optional<Scan> scanTicket(Long eventId, long ticketId, String gate, LocalDateTime scannedAt) {
+        return indexFor(eventId, scannedAt).flatMap(index -> scanTicket(index, ticketId, gate, scannedAt));
+    }
+
+    /**
+     * Scans a ticket by ID in an index resolved through {@link #indexFor}, for callers scanning many
+     * tickets of one event.
+     */
+    public Optional<Scan> scanTicket(GateAdmissionIndex index, long ticketId, String gate, LocalDateTime scannedAt) {
+        int row = index.rowOf(ticketId);
+        return row < 0 ? Optional.empty() : Optional.of(admit(index, row, gate, scannedAt));
+    }
+
+    /**
+     * The event's index, loading it when the event is running. Empty when it is not.
+     */
+    public Optional<GateAdmissionIndex> indexFor(Long eventId, LocalDateTime now) {
+        GateAdmissionIndex index = indexes.get(Objects.requireNonNull(eventId, EVENT_ID_REQUIRED));
+        if (index != null) {
+            return Optional.of(index);
+        }
+        EventEntity event = eventRepository.findById(eventId).orElse(null);
+        if (event == null || event.getStatus() == EventStatus.CANCELLED
+                || !inWindow(event.getStartDate(), event.getEndDate(), now)) {
+            return Optional.empty();
+        }
+        return Optional.of(install(event));
+    }
+
+    /**
+     * Scans a ticket by ID in whichever loaded index holds it, for callers that don't know the event.
+     */
+    public Optional<Scan> scanTicketInAnyEvent(long ticketId, String gate, LocalDateTime scannedAt) {
+        for (GateAdmissionIndex index : indexes.values()) {
+            int row = index.rowOf(ticketId);
+            if (row >= 0) {
+                return Optional.of(admit(index, row, gate, scannedAt));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Scans a legacy UUID code against the loaded indexes.
+     */
+    public Optional<Scan> scanLegacyCode(String code, String gate, LocalDateTime scannedAt) {
+        for (GateAdmissionIndex index : indexes.values()) {
+            int row = index.rowOfLegacyCode(code);
+            if (row >= 0) {
+                return Optional.of(admit(index, row, gate, scannedAt));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Adds a ticket that was checked through the database to its event's index, if loaded.
+     */
+    public void learn(TicketEntity ticket, boolean checkedIn, int reEntryCount, LocalDateTime lastScan) {
+        if (ticket == null || ticket.getEvent() == null || ticket.getUser() == null) {
+            return;
+        }
+        GateAdmissionIndex index = indexes.get(ticket.getEvent().getEventID());
+        if (index != null) {
+            index.put(ticket.getTicketID(), ticket.getQrCode(), ticket.getUser().getUserID(),
+                    ticket.getUser().getName(), ticket.getUser().getEmail(), ticket.getTicketType(),
+                    checkedIn, reEntryCount, toMillis(lastScan));
+        }
+    }
+
+    /**
+     * Brings an event's index, if loaded, up to date with scans already written elsewhere, e.g.
+     * uploaded by offline devices. Tickets the index does not know are left to the database path.
+     */
+    public void applyScans(Long eventId, List<AttendanceLogWriter.Entry> entries) {
+        GateAdmissionIndex index = indexes.get(Objects.requireNonNull(eventId, EVENT_ID_REQUIRED));
+        if (index == null) {
+            return;
+        }
+        for (AttendanceLogWriter.Entry entry : entries) {
+            int row = index.rowOf(entry.ticketId());
+            if (row >= 0) {
+                index.merge(row, entry.reEntryCount(), toMillis(entry.scannedAt()));
+            }
+        }
+    }
+
+    /**
+     * Drops an event's index, e.g. after its tickets were changed outside the scan path.
+     */
+    public void evict(Long eventId) {
+        Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        evictions.incrementAndGet();
+        indexes.remove(eventId);
+    }
+
+    public boolean isLoaded(Long eventId) {
+        return eventId != null && indexes.containsKey(eventId);
+    }
+
+    @Scheduled(fixedDelayString = "${gate.index.refresh-millis:300000}")
+    public void preload() {
+        LocalDateTime now = LocalDateTime.now();
+        for (EventEntity event : eventRepository.findRunningBetween(now.minusHours(retainHours), now.plusHours(preloadHours))) {
+            if (event.getStatus() != EventStatus.CANCELLED && !indexes.containsKey(event.getEventID())) {
+                install(event);
+            }
+        }
+        indexes.values().removeIf(index -> !inWindow(index.getEventStart(), index.getEventEnd(), now));
+    }
+
+    // Loaded outside the map, which must not be locked while the tickets are read; a racing load loses
+    private GateAdmissionIndex install(EventEntity event) {
+        long evictionsBefore = evictions.get();
+        GateAdmissionIndex loaded = load(event);
+        GateAdmissionIndex existing = indexes.putIfAbsent(event.getEventID(), loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (evictions.get() != evictionsBefore) {
+            // The event or its tickets changed while loading; serve this scan, reload on the next
+            indexes.remove(event.getEventID(), loaded);
+        }
+        return loaded;
+    }
+
+    private GateAdmissionIndex load(EventEntity event) {
+        // Commit the event's queued and in-flight scans first so the rows read below already contain them
+        Long eventId = event.getEventID();
+        attendanceLogWriter.awaitEvent(eventId);
+        List<Object[]> tickets = ticketRepository.findAdmissionRows(eventId);
+        GateAdmissionIndex index = new GateAdmissionIndex(eventId, event.getName(), event.getStartDate(),
+                event.getEndDate(), tickets.size() + 64);
+        for (Object[] row : tickets) {
+            Long ticketId = (Long) row[0];
+            String status = (String) row[2];
+            boolean checkedIn = CHECKED_IN.equalsIgnoreCase(status) || "USED".equalsIgnoreCase(status);
+            int reEntry = row[7] != null ? ((Number) row[7]).intValue() : 0;
+            long lastScan = toMillis((LocalDateTime) row[8]);
+            index.put(ticketId, (String) row[1], (Long) row[4], (String) row[5], (String) row[6], (String) row[3],
+                    checkedIn, reEntry, lastScan);
+        }
+        return index;
+    }
+
+    private Scan admit(GateAdmissionIndex index, int row, String gate, LocalDateTime scannedAt) {
+        LocalDateTime start = index.getEventStart();
+        long ticketId = index.ticketId(row);
+        if (start != null && !scannedAt.toLocalDate().isEqual(start.toLocalDate())) {
+            return new Scan(index, row, ticketId, false, 0, null,
+                    "QR code is only valid for scanning on the event day (" + start.toLocalDate() + ")");
+        }
+        long scanMillis = toMillis(scannedAt);
+        GateAdmissionIndex.Admission admission = index.admit(row, scanMillis);
+        if (admission.firstEntry() && !claimFirstEntry(ticketId, gate, scannedAt)) {
+            // Another node admitted the ticket first, so this scan is a re-entry
+            int reEntryCount = index.admit(row, scanMillis).reEntryCount();
+            admission = new GateAdmissionIndex.Admission(row, false, reEntryCount, admission.previousScanMillis());
+        }
+        attendanceLogWriter.submit(new AttendanceLogWriter.Entry(UUID.randomUUID().toString(), ticketId,
+                index.getEventId(), index.userId(row), scannedAt, admission.firstEntry() ? "valid" : "duplicate",
+                admission.reEntryCount(), gate, admission.firstEntry(), index.getEventName(), index.ticketType(row),
+                index.attendeeName(row), index.attendeeEmail(row)));
+        LocalDateTime previous = admission.previousScanMillis() == 0 ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(admission.previousScanMillis()), zone);
+        return new Scan(index, row, ticketId, admission.firstEntry(), admission.reEntryCount(), previous, null);
+    }
+
+    // One primary-key UPDATE whose row count decides the first entry across every node
+    private boolean claimFirstEntry(long ticketId, String gate, LocalDateTime scannedAt) {
+        Integer claimed = transactionTemplate.execute(
+                status -> ticketRepository.markCheckedIn(ticketId, scannedAt, gate));
+        return claimed != null && claimed > 0;
+    }
+
+    // Doors open a few hours before the start and the index stays until a few hours after the end
+    private boolean inWindow(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (start == null) {
+            return false;
+        }
+        LocalDateTime close = (end != null ? end : start).plusHours(retainHours);
+        return !now.isBefore(start.minusHours(preloadHours)) && !now.isAfter(close);
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Outcome of a scan answered from memory. {@code rejection} is set when the ticket was found
+     * but may not enter (wrong day); nothing is recorded in that case.
+     */
+    public record Scan(GateAdmissionIndex index, int row, long ticketId, boolean firstEntry, int reEntryCount,
+            LocalDateTime previousScanAt, String rejection) {
+
+        public String attendeeName() {
+            return index.attendeeName(row);
+        }
+
+        public String attendeeEmail() {
+            return index.attendeeEmail(row);
+        }
+
+        public String ticketType() {
+            return index.ticketType(row);
+        }
+    }
+}
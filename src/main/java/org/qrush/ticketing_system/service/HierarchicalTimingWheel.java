@@ -0,0 +1,191 @@
+package org.qrush.ticketing_system.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for large numbers of timeouts.
+ * Scheduling and cancelling are O(1); expiry cost is amortised O(1) per timeout per
+ * level, no matter how many timeouts are pending. Level {@code i} covers
+ * {@code wheelSize^(i+1)} ticks and cascades its entries into lower levels as time
+ * catches up, the same scheme the Linux kernel and Kafka use for their timers.
+ * The wheel is driven by calling {@link #advanceTo(long)}; it owns no threads.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final Slot<T>[][] levels;
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = newLevels(wheelSize);
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                levels[level][slot] = new Slot<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code deadlineMillis}. Deadlines in the past
+     * expire on the next call to {@link #advanceTo(long)}.
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        long deadlineTick = Math.max(currentTick + 1, (deadlineMillis + tickMillis - 1) / tickMillis);
+        Timeout<T> timeout = new Timeout<>(this, payload, deadlineTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Advances the clock and returns the payloads whose deadline has passed, in deadline order.
+     */
+    public synchronized List<T> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Slot<T> slot = levels[0][(int) (currentTick & mask)];
+            for (Timeout<T> timeout = slot.head; timeout != null; ) {
+                Timeout<T> next = timeout.next;
+                slot.unlink(timeout);
+                size--;
+                expired.add(timeout.payload);
+                timeout = next;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.unlink(timeout);
+        size--;
+        return true;
+    }
+
+    // When lower-level digits roll over to zero, redistribute the matching higher-level slot
+    // Higher levels go first so their entries can fall through to the slots cascaded after them.
+    // An entry due exactly now lands in the current level-0 slot and expires in the same tick.
+    private void cascade() {
+        int topLevel = 0;
+        while (topLevel + 1 < LEVELS && (currentTick & ((1L << (bits * (topLevel + 1))) - 1)) == 0) {
+            topLevel++;
+        }
+        for (int level = topLevel; level >= 1; level--) {
+            Slot<T> slot = levels[level][(int) ((currentTick >>> (bits * level)) & mask)];
+            for (Timeout<T> timeout = slot.head; timeout != null; ) {
+                Timeout<T> next = timeout.next;
+                slot.unlink(timeout);
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    // Java cannot create a generic array; the raw one only ever holds this wheel's Slot<T>
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Slot<T>[][] newLevels(int wheelSize) {
+        return new Slot[LEVELS][wheelSize];
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        long deadlineTick = timeout.deadlineTick;
+        if (level == LEVELS - 1 && delta >= (1L << (bits * LEVELS))) {
+            // Beyond the wheel's range: park in the farthest slot and re-place on cascade
+            deadlineTick = currentTick + (1L << (bits * LEVELS)) - 1;
+        }
+        int index = (int) ((deadlineTick >>> (bits * level)) & mask);
+        levels[level][index].append(timeout);
+    }
+
+    /**
+     * Handle to a scheduled payload.
+     */
+    public static final class Timeout<T> {
+        private final HierarchicalTimingWheel<T> wheel;
+        private final T payload;
+        private final long deadlineTick;
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(HierarchicalTimingWheel<T> wheel, T payload, long deadlineTick) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        /**
+         * Removes the timeout from the wheel. Returns false if it already expired or was cancelled.
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+
+    private static final class Slot<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        private void append(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        private void unlink(Timeout<T> timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.qrush.ticketing_system.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hands out primary keys from blocks reserved in the {@code id_generator} table.
+ * Entities whose IDs are assigned here can be inserted with JDBC batching, and the
+ * ID is known before the row is written (e.g. to embed it in a QR payload).
+ * Blocks are reserved by a dedicated thread in its own transaction, ahead of time once half of
+ * the cached IDs are used, so a booking never takes a second connection for them. A booking that
+ * runs out anyway waits for the refill without holding the sequence's lock, and gives up after
+ * {@code ids.allocation.refill-timeout-millis}.
+ */
+@Service
+public class IdAllocator {
+
+    public static final String ID_GENERATOR_TABLE = "id_generator";
+    public static final String TICKET_SEQUENCE = "ticket";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final long refillTimeoutMillis;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "id-allocator-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdAllocator(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${ids.allocation.block-size:100}") int blockSize,
+            @Value("${ids.allocation.refill-timeout-millis:5000}") long refillTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.blockSize = Math.max(1, blockSize);
+        this.refillTimeoutMillis = Math.max(1, refillTimeoutMillis);
+    }
+
+    public long next(String sequence) {
+        return allocate(sequence, 1)[0];
+    }
+
+    /**
+     * Allocates {@code count} unique IDs. Only waits on the database when the cached blocks
+     * for the sequence run out before the next one arrives.
+     */
+    public long[] allocate(String sequence, int count) {
+        Objects.requireNonNull(sequence, "Sequence name must not be null");
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive");
+        }
+        Sequence cached = sequences.computeIfAbsent(sequence, Sequence::new);
+        long[] ids = new long[count];
+        int filled = 0;
+        while (true) {
+            CompletableFuture<Void> refill;
+            synchronized (cached) {
+                filled = cached.take(ids, filled);
+                if (filled == count) {
+                    if (cached.remaining() < blockSize / 2 + 1) {
+                        refill(cached, blockSize);
+                    }
+                    return ids;
+                }
+                refill = refill(cached, Math.max(blockSize, count - filled));
+            }
+            await(sequence, refill);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refiller.shutdownNow();
+    }
+
+    // Called holding the sequence's lock; at most one refill per sequence is in flight
+    private CompletableFuture<Void> refill(Sequence cached, int size) {
+        if (cached.refill == null) {
+            CompletableFuture<Void> refill = CompletableFuture.runAsync(() -> {
+                long end = reserve(cached.name, size);
+                synchronized (cached) {
+                    cached.ranges.add(new long[] { end - size, end });
+                }
+            }, refiller);
+            cached.refill = refill;
+            refill.whenComplete((ignored, error) -> {
+                synchronized (cached) {
+                    if (cached.refill == refill) {
+                        cached.refill = null;
+                    }
+                }
+            });
+        }
+        return cached.refill;
+    }
+
+    private void await(String sequence, CompletableFuture<Void> refill) {
+        try {
+            refill.get(refillTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out reserving IDs for sequence " + sequence, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not reserve IDs for sequence " + sequence, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reserving IDs for sequence " + sequence, e);
+        }
+    }
+
+    // Bumps next_val and returns the new (exclusive) upper bound; runs on the refill thread, outside any booking
+    private long reserve(String sequence, int size) {
+        Long end = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update(
+                    "UPDATE " + ID_GENERATOR_TABLE
+                            + " SET next_val = LAST_INSERT_ID(next_val + ?) WHERE sequence_name = ?",
+                    size, sequence);
+            if (updated == 0) {
+                throw new IllegalStateException("ID sequence is not initialised: " + sequence);
+            }
+            return jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        });
+        return Objects.requireNonNull(end, "ID block reservation returned no value");
+    }
+
+    /**
+     * Reserved ranges of one sequence, as {@code [next, limit)} pairs; guarded by the instance lock.
+     */
+    private static final class Sequence {
+        private final String name;
+        private final ArrayDeque<long[]> ranges = new ArrayDeque<>();
+        private CompletableFuture<Void> refill;
+
+        Sequence(String name) {
+            this.name = name;
+        }
+
+        int take(long[] ids, int filled) {
+            while (filled < ids.length && !ranges.isEmpty()) {
+                long[] range = ranges.peek();
+                ids[filled++] = range[0]++;
+                if (range[0] >= range[1]) {
+                    ranges.poll();
+                }
+            }
+            return filled;
+        }
+
+        long remaining() {
+            long remaining = 0;
+            for (long[] range : ranges) {
+                remaining += range[1] - range[0];
+            }
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.qrush.ticketing_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.qrush.ticketing_system.entity.IdempotencyRecordEntity;
+import org.qrush.ticketing_system.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Idempotency keys for endpoints that create tickets or payments.
+ * The first request with a key runs normally and records the IDs it created in the same
+ * transaction. Retries with that key are answered by loading those rows by primary key, so
+ * a replay never touches inventory. Recent keys are kept in a bounded in-memory index and
+ * the {@code idempotency_records} table covers restarts and other nodes. A key the table did not
+ * have is remembered briefly, so the replay check and the run that follows cost one lookup; a key
+ * committed elsewhere in that window still wins through the table's primary key.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String BOOK_TICKETS = "BOOK_TICKETS";
+    public static final String CREATE_PAYMENT = "CREATE_PAYMENT";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long MISS_TTL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Completed> completed = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> misses = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long retentionHours;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${idempotency.max-entries:100000}") int maxEntries,
+            @Value("${idempotency.retention-hours:24}") long retentionHours) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * Returns the original result when {@code key} already completed. Throws while the first
+     * request with the key is still running on this node, and when the key was used for a
+     * different request.
+     */
+    public <T> Optional<T> replay(String operation, String key, Object request, Function<List<Long>, T> loader) {
+        if (key == null || key.isBlank()) {
+            return Optional.empty();
+        }
+        String requestHash = fingerprint(operation, validate(key), request);
+        Completed done = find(key);
+        if (done != null) {
+            return Optional.of(replayOf(done, operation, requestHash, loader));
+        }
+        if (inFlight.contains(key)) {
+            throw new KeyInUseException();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Runs {@code action} once per key. The record is written in the action's transaction, so
+     * either both the created rows and the key are committed or neither is.
+     */
+    public <T> Outcome<T> execute(String operation, String key, Object request, Supplier<T> action,
+            Function<T, List<Long>> idsOf, Function<List<Long>, T> loader) {
+        Objects.requireNonNull(operation, "Operation must not be null");
+        if (key == null || key.isBlank()) {
+            return new Outcome<>(action.get(), false);
+        }
+        String requestHash = fingerprint(operation, validate(key), request);
+        Completed done = find(key);
+        if (done != null) {
+            return new Outcome<>(replayOf(done, operation, requestHash, loader), true);
+        }
+        if (!inFlight.add(key)) {
+            throw new KeyInUseException();
+        }
+        try {
+            // The first request may have finished on this node between the lookup and the claim
+            done = completed.get(key);
+            if (done != null) {
+                return new Outcome<>(replayOf(done, operation, requestHash, loader), true);
+            }
+            Completed[] recorded = new Completed[1];
+            T result;
+            try {
+                result = transactionTemplate.execute(status -> {
+                    T value = action.get();
+                    recorded[0] = new Completed(operation, requestHash, List.copyOf(idsOf.apply(value)),
+                            LocalDateTime.now());
+                    idempotencyRecordRepository.saveAndFlush(toEntity(key, recorded[0]));
+                    return value;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another node committed the same key first; its booking stands and ours rolled back
+                Completed winner = idempotencyRecordRepository.findById(key).map(this::toCompleted).orElseThrow(() -> e);
+                remember(key, winner);
+                return new Outcome<>(replayOf(winner, operation, requestHash, loader), true);
+            }
+            remember(key, recorded[0]);
+            return new Outcome<>(result, false);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    @Scheduled(cron = "${idempotency.cleanup-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        completed.values().removeIf(done -> done.createdAt().isBefore(cutoff));
+        long now = System.nanoTime();
+        misses.values().removeIf(missedAt -> now - missedAt >= MISS_TTL_NANOS);
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteByCreatedAtBefore(cutoff));
+    }
+
+    private Completed find(String key) {
+        Completed done = completed.get(key);
+        if (done != null) {
+            return done;
+        }
+        Long missedAt = misses.get(key);
+        if (missedAt != null && System.nanoTime() - missedAt < MISS_TTL_NANOS) {
+            return null;
+        }
+        done = idempotencyRecordRepository.findById(key).map(this::toCompleted).orElse(null);
+        if (done != null) {
+            remember(key, done);
+        } else {
+            rememberMiss(key);
+        }
+        return done;
+    }
+
+    private <T> T replayOf(Completed done, String operation, String requestHash, Function<List<Long>, T> loader) {
+        if (!done.operation().equals(operation) || !done.requestHash().equals(requestHash)) {
+            throw new KeyReusedException();
+        }
+        return loader.apply(done.resourceIds());
+    }
+
+    // FIFO eviction keeps the index bounded; evicted keys are still answered from the table
+    private void remember(String key, Completed done) {
+        misses.remove(key);
+        if (completed.put(key, done) == null) {
+            insertionOrder.add(key);
+        }
+        while (completed.size() > maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            completed.remove(oldest);
+        }
+    }
+
+    // Only a cache of lookups, so dropping it wholesale when full is safe
+    private void rememberMiss(String key) {
+        if (misses.size() >= maxEntries) {
+            misses.clear();
+        }
+        misses.put(key, System.nanoTime());
+    }
+
+    private String validate(String key) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    private String fingerprint(String operation, String key, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to fingerprint request for key " + key, e);
+        }
+    }
+
+    private IdempotencyRecordEntity toEntity(String key, Completed done) {
+        IdempotencyRecordEntity entity = new IdempotencyRecordEntity();
+        entity.setIdempotencyKey(key);
+        entity.setOperation(done.operation());
+        entity.setRequestHash(done.requestHash());
+        entity.setResourceIds(done.resourceIds().stream().map(String::valueOf).collect(Collectors.joining(",")));
+        entity.setCreatedAt(done.createdAt());
+        return entity;
+    }
+
+    private Completed toCompleted(IdempotencyRecordEntity entity) {
+        List<Long> ids = entity.getResourceIds().isEmpty()
+                ? List.of()
+                : Arrays.stream(entity.getResourceIds().split(",")).map(Long::valueOf).toList();
+        return new Completed(entity.getOperation(), entity.getRequestHash(), ids, entity.getCreatedAt());
+    }
+
+    private record Completed(String operation, String requestHash, List<Long> resourceIds, LocalDateTime createdAt) {
+    }
+
+    /**
+     * Result of an idempotent call and whether it was served from a previous request.
+     */
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+
+    /**
+     * The first request with this key has not finished yet.
+     */
+    public static class KeyInUseException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        public KeyInUseException() {
+            super("A request with this idempotency key is already being processed");
+        }
+    }
+
+    /**
+     * The key was already used for a different request.
+     */
+    public static class KeyReusedException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        public KeyReusedException() {
+            super("Idempotency key was already used for a different request");
+        }
+    }
+}
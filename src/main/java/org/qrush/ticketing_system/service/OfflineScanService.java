@@ -0,0 +1,371 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.dto.OfflineScanUploadRequest;
+import org.qrush.ticketing_system.dto.OfflineScanUploadResponse;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.entity.TicketEntity;
+import org.qrush.ticketing_system.repository.AttendanceLogRepository;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lets gate devices keep scanning when the venue network drops.
+ * Devices download a binary manifest of an event's admissible tickets, then fetch deltas with
+ * the version of the last one. Scans recorded offline are uploaded in batches and reconciled
+ * against the database and each other in one transaction: per ticket, the earliest scan
+ * across all devices is the entry and every later one a re-entry. Accepted scans are applied to
+ * the event's gate index once they commit, so online gates see them straight away.
+ *
+ * <p>Manifest layout (big-endian, varints are unsigned LEB128):
+ * <pre>
+ * "QRM1" | eventId u64 | version u64 | since u64
+ * count varint | count x (ticketId delta varint, flags u8, [uuid 16 bytes], [code hash 8 bytes])
+ *   flags bit0: legacy UUID code follows, bit1: hash of the signed code follows
+ * revoked count varint | revoked ticketId deltas
+ * checked-in count varint | checked-in ticketId deltas
+ * </pre>
+ * Signed codes carry their ticket ID (see {@link QrTokenService}), so devices find them by ID and
+ * then compare the first 8 bytes of the SHA-256 of the scanned code with the manifest's hash; a
+ * forged code naming a real ticket does not match. Legacy UUID codes are matched by value. Rotating
+ * codes cannot be matched offline and are only verified on upload. The revoked and checked-in lists
+ * are always complete.
+ */
+@Service
+public class OfflineScanService {
+
+    private static final byte[] MAGIC = "QRM1".getBytes(StandardCharsets.US_ASCII);
+    private static final int FLAG_LEGACY_CODE = 1;
+    private static final int FLAG_CODE_HASH = 2;
+    private static final int CODE_HASH_BYTES = 8;
+    private static final int MAX_DEVICE_ID_LENGTH = 100;
+    private static final List<String> REVOKED_STATUSES = List.of("refunded", "cancelled");
+    private static final List<String> CHECKED_IN_STATUSES = List.of("checked_in", "used");
+    private static final String EVENT_ID_REQUIRED = "Event ID must not be null";
+    private static final String STATUS_VALID = "valid";
+    private static final String STATUS_DUPLICATE = "duplicate";
+    private static final String STATUS_INVALID = "invalid";
+
+    private final TicketRepository ticketRepository;
+    private final EventRepository eventRepository;
+    private final AttendanceLogRepository attendanceLogRepository;
+    private final AttendanceLogWriter attendanceLogWriter;
+    private final GateAdmissionService gateAdmissionService;
+    private final QrTokenService qrTokenService;
+    private final TransactionTemplate transactionTemplate;
+    private final long overlapSeconds;
+    private final int maxScansPerUpload;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public OfflineScanService(TicketRepository ticketRepository,
+            EventRepository eventRepository,
+            AttendanceLogRepository attendanceLogRepository,
+            AttendanceLogWriter attendanceLogWriter,
+            GateAdmissionService gateAdmissionService,
+            QrTokenService qrTokenService,
+            PlatformTransactionManager transactionManager,
+            @Value("${offline-scans.manifest-overlap-seconds:300}") long overlapSeconds,
+            @Value("${offline-scans.max-scans-per-upload:5000}") int maxScansPerUpload) {
+        this.ticketRepository = ticketRepository;
+        this.eventRepository = eventRepository;
+        this.attendanceLogRepository = attendanceLogRepository;
+        this.attendanceLogWriter = attendanceLogWriter;
+        this.gateAdmissionService = gateAdmissionService;
+        this.qrTokenService = qrTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.overlapSeconds = overlapSeconds;
+        this.maxScansPerUpload = maxScansPerUpload;
+    }
+
+    /**
+     * Builds the manifest of tickets bought since {@code sinceVersion} (0 for all of them).
+     */
+    public Manifest buildManifest(Long eventId, long sinceVersion) {
+        Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        if (!eventRepository.existsById(eventId)) {
+            throw new IllegalArgumentException("Event not found with ID: " + eventId);
+        }
+        long version = System.currentTimeMillis();
+        // Versions are timestamps, not ticket IDs: IdAllocator hands out ID blocks per node, so a
+        // lower ID can commit after a higher one. The overlap covers that and in-flight commits.
+        LocalDateTime since = sinceVersion <= 0
+                ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(sinceVersion), zone).minusSeconds(overlapSeconds);
+
+        return transactionTemplate.execute(status -> {
+            List<Object[]> rows = ticketRepository.findManifestRows(eventId, since);
+            List<Long> revoked = new ArrayList<>();
+            List<Long> checkedIn = new ArrayList<>();
+            List<String> statuses = new ArrayList<>(REVOKED_STATUSES);
+            statuses.addAll(CHECKED_IN_STATUSES);
+            for (Object[] row : ticketRepository.findIdsByStatus(eventId, statuses)) {
+                String ticketStatus = ((String) row[1]).toLowerCase();
+                (REVOKED_STATUSES.contains(ticketStatus) ? revoked : checkedIn).add((Long) row[0]);
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + rows.size() * 3);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.write(MAGIC);
+                out.writeLong(eventId);
+                out.writeLong(version);
+                out.writeLong(Math.max(0, sinceVersion));
+                Set<Long> revokedIds = new HashSet<>(revoked);
+                List<Object[]> admissible = rows.stream().filter(row -> !revokedIds.contains((Long) row[0])).toList();
+                writeVarint(out, admissible.size());
+                long previous = 0;
+                for (Object[] row : admissible) {
+                    long ticketId = (Long) row[0];
+                    writeVarint(out, ticketId - previous);
+                    previous = ticketId;
+                    String code = (String) row[1];
+                    UUID legacy = parseUuid(code);
+                    boolean signed = QrTokenService.isSignedToken(code);
+                    out.writeByte((legacy != null ? FLAG_LEGACY_CODE : 0) | (signed ? FLAG_CODE_HASH : 0));
+                    if (legacy != null) {
+                        out.writeLong(legacy.getMostSignificantBits());
+                        out.writeLong(legacy.getLeastSignificantBits());
+                    }
+                    if (signed) {
+                        out.write(codeHash(code));
+                    }
+                }
+                writeIds(out, revoked);
+                writeIds(out, checkedIn);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new Manifest(version, bytes.toByteArray());
+        });
+    }
+
+    /**
+     * Reconciles one device's offline scans. Scans already uploaded are reported as synced and
+     * not applied again.
+     */
+    public OfflineScanUploadResponse upload(OfflineScanUploadRequest request) {
+        Objects.requireNonNull(request, "Offline scan upload must not be null");
+        Long eventId = Objects.requireNonNull(request.eventId(), EVENT_ID_REQUIRED);
+        String deviceId = Optional.ofNullable(request.deviceId()).map(String::trim).orElse("");
+        if (deviceId.isEmpty() || deviceId.length() > MAX_DEVICE_ID_LENGTH) {
+            throw new IllegalArgumentException("Device ID must be 1 to " + MAX_DEVICE_ID_LENGTH + " characters");
+        }
+        if (request.scans().size() > maxScansPerUpload) {
+            throw new IllegalArgumentException("At most " + maxScansPerUpload + " scans can be uploaded at once");
+        }
+        EventEntity event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
+
+        // Online scans still queued in the writer must be in the table before re-entries are counted
+        attendanceLogWriter.awaitEvent(eventId);
+        return transactionTemplate.execute(status -> reconcile(event, deviceId, request));
+    }
+
+    private OfflineScanUploadResponse reconcile(EventEntity event, String deviceId, OfflineScanUploadRequest request) {
+        List<OfflineScanUploadRequest.Scan> scans = request.scans();
+        OfflineScanUploadResponse.Result[] results = new OfflineScanUploadResponse.Result[scans.size()];
+        List<Resolved> resolved = new ArrayList<>();
+        List<String> legacyCodes = new ArrayList<>();
+
+        for (int i = 0; i < scans.size(); i++) {
+            OfflineScanUploadRequest.Scan scan = scans.get(i);
+            String code = Optional.ofNullable(scan.code()).map(String::trim).orElse("");
+            if (scan.scanId() == null || scan.scanId().isBlank() || code.isEmpty() || scan.scannedAt() == null) {
+                results[i] = rejected(scan, null, "Scan ID, code and scan time are required.");
+                continue;
+            }
+            String scanRef = UUID.nameUUIDFromBytes(("offline:" + deviceId + ":" + scan.scanId())
+                    .getBytes(StandardCharsets.UTF_8)).toString();
+            Long ticketId = null;
+            if (QrTokenService.isSignedToken(code)) {
+                QrTokenService.Verification verification = qrTokenService.verify(code, scan.scannedAt());
+                if (!verification.valid()) {
+                    results[i] = rejected(scan, null, verification.reason());
+                    continue;
+                }
+                ticketId = verification.ticketId();
+            } else if (parseUuid(code) != null) {
+                legacyCodes.add(code);
+            } else {
+                ticketId = TicketService.extractTicketId(code);
+                if (ticketId == null) {
+                    results[i] = rejected(scan, null, "No ticket matches the scanned code.");
+                    continue;
+                }
+            }
+            resolved.add(new Resolved(i, scan, scanRef, ticketId, code));
+        }
+
+        // Set-based lookups: legacy codes, already uploaded scans and tickets with their entry state
+        Map<String, Long> idsByCode = legacyCodes.isEmpty() ? Map.of()
+                : ticketRepository.findByQrCodeIn(legacyCodes).stream()
+                        .collect(Collectors.toMap(TicketEntity::getQrCode, TicketEntity::getTicketID, (a, b) -> a));
+        Set<String> synced = resolved.isEmpty() ? new HashSet<>()
+                : new HashSet<>(attendanceLogRepository.findExistingScanRefs(
+                        resolved.stream().map(Resolved::scanRef).toList()));
+        List<Long> ticketIds = resolved.stream()
+                .map(r -> r.ticketId() != null ? r.ticketId() : idsByCode.get(r.code()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        // Locked so a live scan at another gate cannot admit the same ticket while this upload does
+        Map<Long, TicketEntity> tickets = (ticketIds.isEmpty() ? List.<TicketEntity>of()
+                : ticketRepository.findAllForCheckIn(ticketIds)).stream()
+                .collect(Collectors.toMap(TicketEntity::getTicketID, Function.identity()));
+        Map<Long, Integer> reEntries = new HashMap<>();
+        tickets.values().forEach(ticket -> reEntries.put(ticket.getTicketID(),
+                Optional.ofNullable(ticket.getReEntryCount()).orElse(0)));
+
+        int alreadySynced = 0;
+        List<Accepted> accepted = new ArrayList<>();
+        for (Resolved r : resolved) {
+            Long ticketId = r.ticketId() != null ? r.ticketId() : idsByCode.get(r.code());
+            TicketEntity ticket = ticketId != null ? tickets.get(ticketId) : null;
+            // A scan ID repeated within the upload counts as synced after its first occurrence
+            if (!synced.add(r.scanRef())) {
+                alreadySynced++;
+                results[r.position()] = new OfflineScanUploadResponse.Result(r.scan().scanId(), ticketId, "synced",
+                        "Scan was already uploaded.", 0);
+            } else if (ticket == null || ticket.getEvent() == null) {
+                results[r.position()] = rejected(r.scan(), ticketId, "No ticket matches the scanned code.");
+            } else if (ticket.getUser() == null) {
+                results[r.position()] = rejected(r.scan(), ticketId, "Ticket has no holder.");
+            } else if (!event.getEventID().equals(ticket.getEvent().getEventID())) {
+                results[r.position()] = rejected(r.scan(), ticketId, "Ticket belongs to a different event.");
+            } else if (REVOKED_STATUSES.contains(Objects.toString(ticket.getStatus(), "").toLowerCase())) {
+                results[r.position()] = rejected(r.scan(), ticketId, "Ticket has been " + ticket.getStatus() + ".");
+            } else if (event.getStartDate() != null
+                    && !r.scan().scannedAt().toLocalDate().isEqual(event.getStartDate().toLocalDate())) {
+                results[r.position()] = rejected(r.scan(), ticketId,
+                        "QR code is only valid for scanning on the event day (" + event.getStartDate().toLocalDate() + ")");
+            } else {
+                accepted.add(new Accepted(r, ticket));
+            }
+        }
+
+        // Per ticket, in scan order across every device: the first unadmitted scan enters, the rest re-enter
+        accepted.sort(Comparator.comparing((Accepted a) -> a.ticket().getTicketID())
+                .thenComparing(a -> a.resolved().scan().scannedAt()));
+        Set<Long> admittedNow = new HashSet<>();
+        List<AttendanceLogWriter.Entry> entries = new ArrayList<>(accepted.size());
+        int admitted = 0;
+        int duplicates = 0;
+        for (Accepted a : accepted) {
+            TicketEntity ticket = a.ticket();
+            OfflineScanUploadRequest.Scan scan = a.resolved().scan();
+            boolean entered = admittedNow.contains(ticket.getTicketID())
+                    || CHECKED_IN_STATUSES.contains(Objects.toString(ticket.getStatus(), "").toLowerCase());
+            int reEntryCount = entered ? reEntries.merge(ticket.getTicketID(), 1, Integer::sum) : 0;
+            if (!entered) {
+                admittedNow.add(ticket.getTicketID());
+                reEntries.put(ticket.getTicketID(), 0);
+                admitted++;
+            } else {
+                duplicates++;
+            }
+            entries.add(AttendanceLogWriter.Entry.of(ticket, scan.scannedAt(), entered ? STATUS_DUPLICATE : STATUS_VALID,
+                    reEntryCount, normaliseGate(scan.gate()), !entered).withScanRef(a.resolved().scanRef()));
+            results[a.resolved().position()] = new OfflineScanUploadResponse.Result(scan.scanId(),
+                    ticket.getTicketID(), entered ? STATUS_DUPLICATE : STATUS_VALID,
+                    entered ? "Ticket was already checked in." : "Ticket verified successfully.", reEntryCount);
+        }
+        attendanceLogWriter.writeNow(entries);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                gateAdmissionService.applyScans(event.getEventID(), entries);
+            }
+        });
+
+        return new OfflineScanUploadResponse(scans.size(), admitted, duplicates,
+                scans.size() - admitted - duplicates - alreadySynced, alreadySynced, List.of(results));
+    }
+
+    private static OfflineScanUploadResponse.Result rejected(OfflineScanUploadRequest.Scan scan, Long ticketId,
+            String message) {
+        return new OfflineScanUploadResponse.Result(scan.scanId(), ticketId, STATUS_INVALID, message, 0);
+    }
+
+    private static String normaliseGate(String gate) {
+        return Optional.ofNullable(gate).map(String::trim).filter(value -> !value.isEmpty()).orElse("Main Gate");
+    }
+
+    private static void writeIds(DataOutputStream out, List<Long> ids) throws IOException {
+        writeVarint(out, ids.size());
+        long previous = 0;
+        for (long id : ids) {
+            writeVarint(out, id - previous);
+            previous = id;
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    // Hash of the static code a device compares scans against; the code's signature never leaves the server
+    private static byte[] codeHash(String code) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(code.getBytes(StandardCharsets.US_ASCII));
+            byte[] truncated = new byte[CODE_HASH_BYTES];
+            System.arraycopy(digest, 0, truncated, 0, CODE_HASH_BYTES);
+            return truncated;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static UUID parseUuid(String code) {
+        if (code == null || code.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(code);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record Resolved(int position, OfflineScanUploadRequest.Scan scan, String scanRef, Long ticketId, String code) {
+    }
+
+    private record Accepted(Resolved resolved, TicketEntity ticket) {
+    }
+
+    /**
+     * Encoded manifest and the version to pass as {@code since} next time.
+     */
+    public record Manifest(long version, byte[] content) {
+    }
+}
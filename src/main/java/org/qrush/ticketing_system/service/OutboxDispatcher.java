@@ -0,0 +1,208 @@
+package org.qrush.ticketing_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.qrush.ticketing_system.entity.NotificationEntity;
+import org.qrush.ticketing_system.entity.OutboxEventEntity;
+import org.qrush.ticketing_system.repository.NotificationRepository;
+import org.qrush.ticketing_system.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Background handler for the outbox.
+ * Picks up pending events in ID order and writes the resulting notifications in JDBC batches,
+ * marking the events processed in the same transaction. Row locks are taken with SKIP LOCKED,
+ * so every node can run the dispatcher. A failing event is retried with exponential backoff and
+ * skipped by polls until its next attempt is due. When writing a batch fails as a whole, its events
+ * are dispatched one per transaction so only the failing ones are retried.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationRepository notificationRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+    private final long retentionDays;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+            NotificationRepository notificationRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${outbox.batch-size:200}") int batchSize,
+            @Value("${outbox.max-attempts:5}") int maxAttempts,
+            @Value("${outbox.retry-backoff-millis:1000}") long retryBackoffMillis,
+            @Value("${outbox.max-retry-backoff-millis:300000}") long maxRetryBackoffMillis,
+            @Value("${outbox.retention-days:7}") long retentionDays) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationRepository = notificationRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = Math.max(1, retryBackoffMillis);
+        this.maxRetryBackoffMillis = Math.max(this.retryBackoffMillis, maxRetryBackoffMillis);
+        this.retentionDays = retentionDays;
+    }
+
+    // Keeps going while batches come back full; events that just failed are not due again yet
+    @Scheduled(fixedDelayString = "${outbox.poll-millis:500}")
+    public void dispatch() {
+        int handled;
+        do {
+            try {
+                handled = Optional.ofNullable(transactionTemplate.execute(status -> dispatchBatch())).orElse(0);
+            } catch (RuntimeException e) {
+                log.warn("Dispatching an outbox batch failed, dispatching its events one at a time", e);
+                handled = dispatchIndividually();
+            }
+        } while (handled == batchSize);
+    }
+
+    @Scheduled(cron = "${outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteProcessedBefore(cutoff));
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEventEntity> batch = outboxEventRepository.findPendingForUpdate(now, PageRequest.of(0, batchSize));
+        if (!batch.isEmpty()) {
+            dispatch(batch, now);
+        }
+        return batch.size();
+    }
+
+    // After a failed batch: an event that fails on its own has the failure recorded in a new
+    // transaction, since the one that failed rolled back
+    private int dispatchIndividually() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxEventRepository.findPendingIds(now, PageRequest.of(0, batchSize));
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> outboxEventRepository
+                        .findPendingByIdForUpdate(id).ifPresent(event -> dispatch(List.of(event), now)));
+            } catch (RuntimeException e) {
+                transactionTemplate.executeWithoutResult(status -> outboxEventRepository
+                        .findPendingByIdForUpdate(id).ifPresent(event -> recordFailure(event, e, now)));
+            }
+        }
+        return ids.size();
+    }
+
+    private void dispatch(List<OutboxEventEntity> events, LocalDateTime now) {
+        List<NotificationEntity> notifications = new ArrayList<>();
+        List<Long> handled = new ArrayList<>(events.size());
+        for (OutboxEventEntity event : events) {
+            try {
+                addNotifications(event, notifications);
+                handled.add(event.getId());
+            } catch (RuntimeException | JsonProcessingException e) {
+                recordFailure(event, e, now);
+            }
+        }
+        notificationRepository.saveAll(notifications);
+        if (!handled.isEmpty()) {
+            outboxEventRepository.markProcessed(handled, now);
+        }
+    }
+
+    // Retry a few times, then park the event with its error so it stops blocking the queue
+    private void recordFailure(OutboxEventEntity event, Exception e, LocalDateTime now) {
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(truncate(e.getMessage()));
+        if (event.getAttempts() >= maxAttempts) {
+            event.setProcessedAt(now);
+        } else {
+            event.setNextAttemptAt(now.plusNanos(backoffMillis(event.getAttempts()) * 1_000_000));
+        }
+    }
+
+    private void addNotifications(OutboxEventEntity event, List<NotificationEntity> out) throws JsonProcessingException {
+        Map<String, Object> payload = objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        Long eventId = event.getAggregateId();
+        String eventName = String.valueOf(payload.get("eventName"));
+        switch (event.getEventType()) {
+            case TICKET_BOOKED -> {
+                int quantity = ((Number) payload.get("quantity")).intValue();
+                out.add(notification(longOf(payload, "userId"), "success", "Ticket Purchased",
+                        String.format("Your %d %s %s for \"%s\" %s been confirmed!", quantity,
+                                payload.get("ticketType"), quantity > 1 ? "tickets" : "ticket", eventName,
+                                quantity > 1 ? "have" : "has"),
+                        eventId));
+            }
+            case TICKET_CHECKED_IN -> out.add(notification(longOf(payload, "userId"), "success", "Checked In",
+                    String.format("You've been checked in to \"%s\" at %s. Enjoy the event!", eventName,
+                            payload.get("gate")),
+                    eventId));
+            case EVENT_CANCELLED -> addCancellationNotifications(eventId, eventName, payload, out);
+        }
+    }
+
+    // Holders are notified by EventCancellationJob as their refunds commit; this is the organizer's summary
+    private void addCancellationNotifications(Long eventId, String eventName, Map<String, Object> payload,
+            List<NotificationEntity> out) {
+        if (payload.get("organizerId") != null) {
+            out.add(notification(longOf(payload, "organizerId"), "error", "Event Cancelled",
+                    String.format("Your event \"%s\" has been cancelled. %d tickets were refunded for a total of ₱%.2f.",
+                            eventName, ((Number) payload.get("ticketsRefunded")).intValue(),
+                            ((Number) payload.get("totalRefundAmount")).doubleValue()),
+                    eventId));
+        }
+    }
+
+    private NotificationEntity notification(Long userId, String type, String title, String message, Long eventId) {
+        NotificationEntity notification = new NotificationEntity();
+        notification.setUserId(userId);
+        notification.setType(type);
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setRelatedEventId(eventId);
+        notification.setIsRead(false);
+        return notification;
+    }
+
+    private static Long longOf(Map<String, Object> payload, String key) {
+        Object value = payload.get(key);
+        if (!(value instanceof Number number)) {
+            throw new IllegalArgumentException("Outbox payload is missing " + key);
+        }
+        return number.longValue();
+    }
+
+    private long backoffMillis(int attempts) {
+        // Capped so the shift cannot overflow
+        int doublings = Math.min(attempts - 1, Long.numberOfLeadingZeros(retryBackoffMillis) - 1);
+        return Math.min(maxRetryBackoffMillis, retryBackoffMillis << doublings);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,43 @@
+package org.qrush.ticketing_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.qrush.ticketing_system.entity.OutboxEventEntity;
+import org.qrush.ticketing_system.entity.OutboxEventType;
+import org.qrush.ticketing_system.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Transactional outbox for domain events.
+ * Events are written in the caller's transaction, so they exist exactly when the business
+ * change commits, and are turned into notifications later by {@link OutboxDispatcher}.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEventType type, Long aggregateId, Map<String, Object> payload) {
+        OutboxEventEntity event = new OutboxEventEntity();
+        event.setEventType(Objects.requireNonNull(type, "Outbox event type must not be null"));
+        event.setAggregateId(Objects.requireNonNull(aggregateId, "Aggregate ID must not be null"));
+        try {
+            event.setPayload(objectMapper.writeValueAsString(Objects.requireNonNull(payload, "Payload must not be null")));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+        outboxEventRepository.save(event);
+    }
+}
@@ -41,6 +41,16 @@ public class PaymentService {
         return paymentRepository.findByTransactionReference(Objects.requireNonNull(reference, TRANSACTION_REFERENCE_REQUIRED));
     }
 
+    /**
+     * Payment created by an earlier request, used to replay its response.
+     */
+    public PaymentEntity getCreatedPayment(List<Long> ids) {
+        return ids.stream()
+                .findFirst()
+                .flatMap(paymentRepository::findById)
+                .orElseThrow(() -> new IllegalStateException("The original payment no longer exists"));
+    }
+
     public PaymentEntity createPayment(PaymentEntity payment) {
         return paymentRepository.save(Objects.requireNonNull(payment, "Payment must not be null"));
     }
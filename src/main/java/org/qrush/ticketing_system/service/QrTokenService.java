@@ -0,0 +1,222 @@
+package org.qrush.ticketing_system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signed, self-describing QR codes.
+ * A code is {@code Q1.} followed by the base64url of ticket ID, event ID, event day, time step
+ * and a truncated HMAC. Gates verify it with one HMAC over 24 bytes, so forged and stale codes
+ * are rejected without a database lookup. The signed day is the one the code was issued for;
+ * gates judge the scan day against the event's current dates, so rescheduling an event keeps
+ * issued codes valid. Each event has its own key derived from the master secret. Step 0 is the
+ * static code stored on the ticket; steps above 0 are short-lived rotating codes that make
+ * screenshots useless after a few seconds.
+ */
+@Service
+public class QrTokenService {
+
+    public static final String TOKEN_PREFIX = "Q1.";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SECRET_NAME = "qr_master_key";
+    private static final int BODY_BYTES = Long.BYTES * 2 + Integer.BYTES * 2;
+    private static final int SIGNATURE_BYTES = 12;
+    private static final ThreadLocal<Mac> MACS = ThreadLocal.withInitial(QrTokenService::newMac);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String configuredSecret;
+    private final long rotationSeconds;
+    private final boolean requireRotating;
+    private final Map<Long, SecretKeySpec> eventKeys = new ConcurrentHashMap<>();
+    private volatile SecretKeySpec masterKey;
+
+    public QrTokenService(JdbcTemplate jdbcTemplate,
+            @Value("${tickets.qr.secret:}") String configuredSecret,
+            @Value("${tickets.qr.rotation-seconds:0}") long rotationSeconds,
+            @Value("${tickets.qr.require-rotating:false}") boolean requireRotating) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.configuredSecret = configuredSecret;
+        this.rotationSeconds = Math.max(0, rotationSeconds);
+        this.requireRotating = requireRotating && this.rotationSeconds > 0;
+    }
+
+    /**
+     * Static code stored on the ticket. {@code eventDay} may be null for events without a start date.
+     */
+    public String issue(Long ticketId, Long eventId, LocalDate eventDay) {
+        return encode(ticketId, eventId, eventDay, 0);
+    }
+
+    /**
+     * Code for the current time step, or the static code when rotation is disabled.
+     */
+    public String current(Long ticketId, Long eventId, LocalDate eventDay) {
+        return encode(ticketId, eventId, eventDay, rotationSeconds > 0 ? currentStep() : 0);
+    }
+
+    public boolean isRotating() {
+        return rotationSeconds > 0;
+    }
+
+    public long getRotationSeconds() {
+        return rotationSeconds;
+    }
+
+    public static boolean isSignedToken(String code) {
+        return code != null && code.startsWith(TOKEN_PREFIX);
+    }
+
+    /**
+     * Checks signature and time step against {@code scannedAt}, so offline scans uploaded later
+     * are judged by when they happened. Never touches the database; the event day is the caller's
+     * to check against the event's current dates.
+     */
+    public Verification verify(String code, LocalDateTime scannedAt) {
+        if (!isSignedToken(code)) {
+            return Verification.rejected("No ticket matches the scanned code.");
+        }
+        byte[] raw;
+        try {
+            raw = Base64.getUrlDecoder().decode(code.substring(TOKEN_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return Verification.rejected("No ticket matches the scanned code.");
+        }
+        if (raw.length != BODY_BYTES + SIGNATURE_BYTES) {
+            return Verification.rejected("No ticket matches the scanned code.");
+        }
+        ByteBuffer body = ByteBuffer.wrap(raw, 0, BODY_BYTES);
+        long ticketId = body.getLong();
+        long eventId = body.getLong();
+        body.getInt(); // event day at issue, not authoritative
+        int step = body.getInt();
+
+        byte[] expected = sign(eventId, raw, BODY_BYTES);
+        byte[] actual = new byte[SIGNATURE_BYTES];
+        System.arraycopy(raw, BODY_BYTES, actual, 0, SIGNATURE_BYTES);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return Verification.rejected("QR code signature is invalid.");
+        }
+        if (step == 0 && requireRotating) {
+            return Verification.rejected("Static QR codes are not accepted. Ask the attendee to open their ticket.");
+        }
+        // One step of slack either way covers clock skew and the time it takes to scan
+        if (step != 0 && (rotationSeconds == 0 || Math.abs(stepAt(scannedAt) - step) > 1)) {
+            return Verification.rejected("QR code has expired. Ask the attendee to refresh their ticket.");
+        }
+        return new Verification(true, ticketId, eventId, null);
+    }
+
+    private String encode(Long ticketId, Long eventId, LocalDate eventDay, int step) {
+        Objects.requireNonNull(ticketId, "Ticket ID must not be null");
+        Objects.requireNonNull(eventId, "Event ID must not be null");
+        byte[] raw = new byte[BODY_BYTES + SIGNATURE_BYTES];
+        ByteBuffer.wrap(raw)
+                .putLong(ticketId)
+                .putLong(eventId)
+                .putInt(eventDay != null ? (int) eventDay.toEpochDay() : 0)
+                .putInt(step);
+        System.arraycopy(sign(eventId, raw, BODY_BYTES), 0, raw, BODY_BYTES, SIGNATURE_BYTES);
+        return TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    private int currentStep() {
+        return (int) (Instant.now().getEpochSecond() / rotationSeconds);
+    }
+
+    private int stepAt(LocalDateTime time) {
+        return (int) (time.atZone(ZoneId.systemDefault()).toEpochSecond() / rotationSeconds);
+    }
+
+    private byte[] sign(long eventId, byte[] data, int length) {
+        SecretKeySpec key = eventKeys.computeIfAbsent(eventId, this::deriveEventKey);
+        try {
+            Mac mac = MACS.get();
+            mac.init(key);
+            mac.update(data, 0, length);
+            byte[] truncated = new byte[SIGNATURE_BYTES];
+            System.arraycopy(mac.doFinal(), 0, truncated, 0, SIGNATURE_BYTES);
+            return truncated;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign QR code", e);
+        }
+    }
+
+    // Per-event key = HMAC(master, eventId), so a leaked event key cannot forge other events' codes
+    private SecretKeySpec deriveEventKey(Long eventId) {
+        try {
+            Mac mac = newMac();
+            mac.init(masterKey());
+            byte[] derived = mac.doFinal(ByteBuffer.allocate(Long.BYTES).putLong(eventId).array());
+            return new SecretKeySpec(derived, HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to derive QR key", e);
+        }
+    }
+
+    private SecretKeySpec masterKey() {
+        SecretKeySpec key = masterKey;
+        if (key == null) {
+            synchronized (this) {
+                key = masterKey;
+                if (key == null) {
+                    key = new SecretKeySpec(loadSecret(), HMAC_ALGORITHM);
+                    masterKey = key;
+                }
+            }
+        }
+        return key;
+    }
+
+    // Issued codes are printed and screenshotted, so the secret must survive restarts: without a
+    // configured value one is generated once and kept in the database for every node to share
+    private byte[] loadSecret() {
+        if (configuredSecret != null && !configuredSecret.isBlank()) {
+            return configuredSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS app_secrets "
+                + "(name VARCHAR(100) NOT NULL PRIMARY KEY, secret_value VARCHAR(255) NOT NULL)");
+        byte[] generated = new byte[32];
+        new SecureRandom().nextBytes(generated);
+        jdbcTemplate.update("INSERT IGNORE INTO app_secrets (name, secret_value) VALUES (?, ?)",
+                SECRET_NAME, HexFormat.of().formatHex(generated));
+        String stored = jdbcTemplate.queryForObject("SELECT secret_value FROM app_secrets WHERE name = ?",
+                String.class, SECRET_NAME);
+        return HexFormat.of().parseHex(Objects.requireNonNull(stored, "QR secret is missing"));
+    }
+
+    private static Mac newMac() {
+        try {
+            return Mac.getInstance(HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Outcome of verifying a code: the ticket and event it names, or why it was rejected.
+     */
+    public record Verification(boolean valid, Long ticketId, Long eventId, String reason) {
+        static Verification rejected(String reason) {
+            return new Verification(false, null, null, reason);
+        }
+    }
+}
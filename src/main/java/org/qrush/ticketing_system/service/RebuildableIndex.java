@@ -0,0 +1,106 @@
+package org.qrush.ticketing_system.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory index kept current by writes applied after commit and periodically rebuilt from
+ * the database. Writes that land while a rebuild is reading the table are replayed onto the
+ * rebuilt index before it replaces the current one, so a replay must set absolute state: the
+ * rebuild may already have read the row the write changed.
+ */
+final class RebuildableIndex<T> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private T current;
+    private List<Consumer<T>> pendingDuringRebuild;
+
+    RebuildableIndex(T initial) {
+        this.current = initial;
+    }
+
+    <R> R read(Function<T, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a write that sets absolute state, after the current transaction commits if there is one.
+     */
+    void afterCommit(Consumer<T> write) {
+        afterCommitReplaying(target -> {
+            write.accept(target);
+            return write;
+        });
+    }
+
+    /**
+     * Applies a write, after the current transaction commits if there is one. The write returns
+     * the absolute state to replay onto a rebuild in progress, or null when there is none.
+     */
+    void afterCommitReplaying(Function<T, Consumer<T>> write) {
+        Runnable apply = () -> {
+            lock.writeLock().lock();
+            try {
+                Consumer<T> replay = write.apply(current);
+                if (pendingDuringRebuild != null && replay != null) {
+                    pendingDuringRebuild.add(replay);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Loads a fresh index without holding the lock and swaps it in. A failed load keeps serving
+     * the current index.
+     */
+    void rebuild(Supplier<T> loader) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        T rebuilt = null;
+        try {
+            rebuilt = loader.get();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                List<Consumer<T>> pending = pendingDuringRebuild;
+                pendingDuringRebuild = null;
+                if (rebuilt != null) {
+                    for (Consumer<T> write : pending) {
+                        write.accept(rebuilt);
+                    }
+                    current = rebuilt;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
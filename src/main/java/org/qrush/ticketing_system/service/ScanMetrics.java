@@ -0,0 +1,157 @@
+package org.qrush.ticketing_system.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.qrush.ticketing_system.dto.BulkCheckInResponse;
+import org.qrush.ticketing_system.dto.TicketScanResponse;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Micrometer instrumentation for the gate.
+ * Every scan is timed and counted by operation (scan, manual, bulk), event, gate and outcome
+ * (valid, duplicate, invalid, error), and each gate has a gauge with its scans per second over
+ * the last {@value #WINDOW_SECONDS} seconds. Latency percentiles are kept per operation only, since
+ * every event adds a set of timers. Everything is available under {@code /actuator/metrics}.
+ */
+@Service
+public class ScanMetrics {
+
+    public static final String SCAN = "scan";
+    public static final String MANUAL = "manual";
+    public static final String BULK = "bulk";
+
+    static final int WINDOW_SECONDS = 10;
+
+    // Gate names are free text; beyond this many the rest share one tag value
+    private static final int MAX_GATES = 200;
+    private static final String OTHER_GATE = "other";
+
+    private final MeterRegistry registry;
+    private final Map<String, GateRate> gateRates = new ConcurrentHashMap<>();
+    private final Map<String, Timer> latencies = new ConcurrentHashMap<>();
+
+    public ScanMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records one scan. {@code response} is null when the scan failed with an exception.
+     */
+    public void recordScan(String operation, String gate, TicketScanResponse response, long elapsedNanos) {
+        String event = response != null && response.eventId() != null ? response.eventId().toString() : "none";
+        String outcome = response != null ? outcomeOf(response.status()) : "error";
+        String gateTag = gateTag(gate);
+        Timer.builder("qrush.scan.duration")
+                .description("Time to answer a gate scan")
+                .tags("operation", operation, "event", event, "gate", gateTag, "outcome", outcome)
+                .register(registry)
+                .record(Duration.ofNanos(elapsedNanos));
+        latencyOf(operation).record(Duration.ofNanos(elapsedNanos));
+        count(operation, event, gateTag, outcome, 1);
+        rateOf(gateTag).mark(1);
+    }
+
+    /**
+     * Records a group check-in: one timer sample for the whole call, and per-outcome counts.
+     * {@code response} is null when the check-in failed part way.
+     */
+    public void recordBulk(Long eventId, String gate, BulkCheckInResponse response, long elapsedNanos) {
+        String event = eventId != null ? eventId.toString() : "none";
+        String gateTag = gateTag(gate);
+        Timer.builder("qrush.bulk.checkin.duration")
+                .description("Time to process one group check-in")
+                .tags("event", event, "gate", gateTag, "outcome", response != null ? "completed" : "error")
+                .register(registry)
+                .record(Duration.ofNanos(elapsedNanos));
+        if (response == null) {
+            return;
+        }
+        count(BULK, event, gateTag, "valid", response.successful());
+        count(BULK, event, gateTag, "duplicate", response.duplicates());
+        count(BULK, event, gateTag, "invalid", response.invalid());
+        rateOf(gateTag).mark(response.totalProcessed());
+    }
+
+    private void count(String operation, String event, String gate, String outcome, int amount) {
+        if (amount <= 0) {
+            return;
+        }
+        Counter.builder("qrush.scans")
+                .description("Gate scans by outcome")
+                .tags("operation", operation, "event", event, "gate", gate, "outcome", outcome)
+                .register(registry)
+                .increment(amount);
+    }
+
+    private Timer latencyOf(String operation) {
+        return latencies.computeIfAbsent(operation, name -> Timer.builder("qrush.scan.latency")
+                .description("Gate scan latency percentiles")
+                .tag("operation", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+    }
+
+    private GateRate rateOf(String gate) {
+        return gateRates.computeIfAbsent(gate, name -> {
+            GateRate rate = new GateRate();
+            Gauge.builder("qrush.gate.scan.rate", rate, GateRate::perSecond)
+                    .description("Scans per second at the gate over the last " + WINDOW_SECONDS + " seconds")
+                    .tag("gate", name)
+                    .register(registry);
+            return rate;
+        });
+    }
+
+    private String gateTag(String gate) {
+        String name = Optional.ofNullable(gate).map(String::trim).filter(value -> !value.isEmpty()).orElse("Main Gate");
+        return gateRates.containsKey(name) || gateRates.size() < MAX_GATES ? name : OTHER_GATE;
+    }
+
+    private static String outcomeOf(String status) {
+        String normalised = Optional.ofNullable(status).orElse("").toLowerCase();
+        return switch (normalised) {
+            case "valid", "duplicate", "invalid" -> normalised;
+            default -> "invalid";
+        };
+    }
+
+    /**
+     * Ring of per-second counts. A bucket is reused once its second has left the window.
+     */
+    static final class GateRate {
+        private final AtomicLongArray seconds = new AtomicLongArray(WINDOW_SECONDS + 1);
+        private final AtomicLongArray counts = new AtomicLongArray(WINDOW_SECONDS + 1);
+
+        void mark(int amount) {
+            long now = System.currentTimeMillis() / 1000;
+            int slot = (int) (now % seconds.length());
+            long stamp = seconds.get(slot);
+            // A scan racing the reset may be lost from the gauge; the counters stay exact
+            if (stamp != now && seconds.compareAndSet(slot, stamp, now)) {
+                counts.set(slot, 0);
+            }
+            counts.addAndGet(slot, amount);
+        }
+
+        // Average over the last full seconds, leaving out the one still being counted
+        double perSecond() {
+            long now = System.currentTimeMillis() / 1000;
+            long total = 0;
+            for (int slot = 0; slot < seconds.length(); slot++) {
+                long stamp = seconds.get(slot);
+                if (stamp < now && stamp >= now - WINDOW_SECONDS) {
+                    total += counts.get(slot);
+                }
+            }
+            return (double) total / WINDOW_SECONDS;
+        }
+    }
+}
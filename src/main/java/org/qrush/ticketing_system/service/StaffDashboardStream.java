@@ -0,0 +1,253 @@
+package org.qrush.ticketing_system.service;
+
+import jakarta.annotation.PreDestroy;
+import org.qrush.ticketing_system.dto.dashboard.StaffDashboardResponse;
+import org.qrush.ticketing_system.dto.dashboard.StaffDashboardUpdate;
+import org.qrush.ticketing_system.repository.AttendanceLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-sent events for staff dashboards, one stream per event.
+ * A new subscriber gets a {@code snapshot} (the same counts as the REST endpoint), then one
+ * {@code scans} event per committed batch of attendance logs with the new scans and the change
+ * in check-ins. All sends go through a single thread, so a subscriber always sees its snapshot
+ * before the deltas that follow it and a slow client never holds up the log writer.
+ * A batch is registered before it commits and stays registered until its delta is sent; the
+ * snapshot checks, in the same read as its counts, which registered scans it already contains, and
+ * those are left out of the deltas that follow so no check-in is counted twice.
+ * Deltas only come from batches written on this node. Scans written by other nodes reach a
+ * dashboard through a fresh snapshot every {@code dashboard.stream.snapshot-millis}.
+ */
+@Service
+public class StaffDashboardStream {
+
+    private static final String EVENT_ID_REQUIRED = "Event ID must not be null";
+
+    private final DashboardService dashboardService;
+    private final AttendanceLogRepository attendanceLogRepository;
+    private final TransactionTemplate readTemplate;
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    // Batches from before they commit until their delta has been sent
+    private final Set<Batch> unsent = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "staff-dashboard-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long timeoutMillis;
+
+    public StaffDashboardStream(DashboardService dashboardService,
+            AttendanceLogRepository attendanceLogRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${dashboard.stream.timeout-millis:1800000}") long timeoutMillis) {
+        this.dashboardService = dashboardService;
+        this.attendanceLogRepository = attendanceLogRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter subscribe(Long eventId) {
+        Long validatedEventId = Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis));
+        subscribers.compute(validatedEventId, (id, list) -> {
+            List<Subscriber> updated = list != null ? list : new CopyOnWriteArrayList<>();
+            updated.add(subscriber);
+            return updated;
+        });
+        Runnable remove = () -> unsubscribe(validatedEventId, subscriber);
+        subscriber.emitter.onCompletion(remove);
+        subscriber.emitter.onTimeout(remove);
+        subscriber.emitter.onError(error -> remove.run());
+        sender.execute(() -> sendSnapshot(validatedEventId, List.of(subscriber)));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Registers a batch of attendance logs about to commit. Returns null when nobody is watching.
+     */
+    public Batch prepare(List<AttendanceLogWriter.Entry> entries) {
+        if (subscribers.isEmpty() || entries.isEmpty()) {
+            return null;
+        }
+        Batch batch = new Batch(List.copyOf(entries));
+        unsent.add(batch);
+        return batch;
+    }
+
+    /**
+     * Pushes a committed batch to the dashboards watching its events, or forgets a rolled-back one.
+     */
+    public void complete(Batch batch, boolean committed) {
+        if (batch == null) {
+            return;
+        }
+        if (!committed) {
+            unsent.remove(batch);
+            return;
+        }
+        Map<Long, List<AttendanceLogWriter.Entry>> byEvent = new LinkedHashMap<>();
+        for (AttendanceLogWriter.Entry entry : batch.entries()) {
+            byEvent.computeIfAbsent(entry.eventId(), id -> new ArrayList<>()).add(entry);
+        }
+        sender.execute(() -> {
+            try {
+                byEvent.forEach((eventId, entries) -> subscribers.getOrDefault(eventId, List.of())
+                        .forEach(subscriber -> sendDelta(eventId, subscriber, entries)));
+            } finally {
+                unsent.remove(batch);
+            }
+        });
+    }
+
+    // Keeps idle connections open through proxies and finds clients that went away
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-millis:15000}")
+    public void heartbeat() {
+        sender.execute(() -> subscribers.forEach((eventId, list) -> list.forEach(subscriber -> {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(eventId, subscriber);
+            }
+        })));
+    }
+
+    // Brings in scans that other nodes wrote, which never arrive here as deltas
+    @Scheduled(fixedDelayString = "${dashboard.stream.snapshot-millis:60000}",
+            initialDelayString = "${dashboard.stream.snapshot-millis:60000}")
+    public void refreshSnapshots() {
+        subscribers.keySet().forEach(eventId -> sender.execute(
+                () -> sendSnapshot(eventId, List.copyOf(subscribers.getOrDefault(eventId, List.of())))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    // Runs on the sender thread, so no delta for these subscribers is sent while it reads
+    private void sendSnapshot(Long eventId, List<Subscriber> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        Snapshot snapshot;
+        try {
+            // One read-only transaction, so the counts and the coverage check see the same commits
+            snapshot = readTemplate.execute(status -> {
+                StaffDashboardResponse dashboard = dashboardService.getStaffDashboard(eventId);
+                List<String> unsentRefs = unsent.stream()
+                        .flatMap(batch -> batch.entries().stream())
+                        .filter(entry -> entry.eventId() == eventId)
+                        .map(AttendanceLogWriter.Entry::scanRef)
+                        .toList();
+                Set<String> covered = unsentRefs.isEmpty() ? Set.of()
+                        : new HashSet<>(attendanceLogRepository.findExistingScanRefs(unsentRefs));
+                return new Snapshot(dashboard, covered);
+            });
+        } catch (RuntimeException e) {
+            targets.forEach(subscriber -> {
+                if (!subscriber.ready) {
+                    unsubscribe(eventId, subscriber);
+                    subscriber.emitter.completeWithError(e);
+                }
+            });
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            subscriber.covered = snapshot.covered();
+            subscriber.ready = true;
+            send(eventId, subscriber, "snapshot", snapshot.dashboard());
+        }
+    }
+
+    private void sendDelta(Long eventId, Subscriber subscriber, List<AttendanceLogWriter.Entry> entries) {
+        // Deltas committed before the snapshot was read are already part of it
+        if (!subscriber.ready) {
+            return;
+        }
+        List<AttendanceLogWriter.Entry> fresh = entries.stream()
+                .filter(entry -> !subscriber.covered.contains(entry.scanRef()))
+                .toList();
+        if (fresh.isEmpty()) {
+            return;
+        }
+        long checkedInDelta = fresh.stream().filter(entry -> "valid".equals(entry.status())).count();
+        List<StaffDashboardResponse.ScanRecord> scans = fresh.stream()
+                .map(entry -> new StaffDashboardResponse.ScanRecord(
+                        null,
+                        entry.ticketId(),
+                        DashboardService.formatTicketNumber(entry.ticketType(), entry.ticketId()),
+                        Objects.toString(entry.attendeeName(), ""),
+                        Objects.toString(entry.attendeeEmail(), ""),
+                        entry.scannedAt(),
+                        entry.status(),
+                        entry.gate()))
+                .toList();
+        send(eventId, subscriber, "scans", new StaffDashboardUpdate(eventId, checkedInDelta, scans));
+    }
+
+    private void send(Long eventId, Subscriber subscriber, String name, Object data) {
+        try {
+            subscriber.emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected; the container completes the emitter
+            unsubscribe(eventId, subscriber);
+        }
+    }
+
+    private void unsubscribe(Long eventId, Subscriber subscriber) {
+        subscribers.computeIfPresent(eventId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Attendance logs written in one transaction, tracked until their delta is sent.
+     */
+    public static final class Batch {
+        private final List<AttendanceLogWriter.Entry> entries;
+
+        private Batch(List<AttendanceLogWriter.Entry> entries) {
+            this.entries = entries;
+        }
+
+        private List<AttendanceLogWriter.Entry> entries() {
+            return entries;
+        }
+    }
+
+    private record Snapshot(StaffDashboardResponse dashboard, Set<String> covered) {
+    }
+
+    // ready and covered are only touched on the sender thread
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private boolean ready;
+        private Set<String> covered = Set.of();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
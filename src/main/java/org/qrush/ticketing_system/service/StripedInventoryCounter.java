@@ -0,0 +1,125 @@
+package org.qrush.ticketing_system.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counter of remaining seats for a single event.
+ * Remaining inventory is split across cache-line padded stripes so concurrent
+ * bookings mostly CAS on different memory locations instead of one shared value.
+ * Only the slow path near sell-out, which gathers seats from several stripes, takes a lock.
+ */
+public class StripedInventoryCounter {
+
+    // 16 ints = 64 bytes, keeps each stripe on its own cache line
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+
+    public StripedInventoryCounter(int available, int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PADDING);
+        int remaining = Math.max(available, 0);
+        int share = remaining / stripes;
+        for (int i = 0; i < stripes; i++) {
+            int amount = i == 0 ? share + remaining % stripes : share;
+            cells.set(i * PADDING, amount);
+        }
+    }
+
+    /**
+     * Atomically takes {@code quantity} seats. Never lets the total go below zero.
+     */
+    public boolean tryAcquire(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        int home = homeStripe();
+        if (takeExactly(home, quantity)) {
+            return true;
+        }
+        // Gathers are serialized so one never sees seats another is holding in flight;
+        // a failed gather therefore means seats were really sold, and it is retried until too few remain
+        synchronized (this) {
+            while (available() >= quantity) {
+                if (gather(home, quantity)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns seats to the pool, e.g. after a rolled back booking or an expired hold.
+     */
+    public void release(int quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        cells.addAndGet(homeStripe() * PADDING, quantity);
+    }
+
+    public int available() {
+        int total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+
+    public int stripes() {
+        return stripes;
+    }
+
+    private boolean takeExactly(int stripe, int quantity) {
+        int index = stripe * PADDING;
+        while (true) {
+            int current = cells.get(index);
+            if (current < quantity) {
+                return false;
+            }
+            if (cells.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    // Slow path near sell-out: collect seats from every stripe, give them back if we fall short.
+    private boolean gather(int home, int quantity) {
+        int[] taken = new int[stripes];
+        int collected = 0;
+        for (int offset = 0; offset < stripes && collected < quantity; offset++) {
+            int stripe = (home + offset) % stripes;
+            int index = stripe * PADDING;
+            while (collected < quantity) {
+                int current = cells.get(index);
+                if (current <= 0) {
+                    break;
+                }
+                int take = Math.min(current, quantity - collected);
+                if (cells.compareAndSet(index, current, current - take)) {
+                    taken[stripe] += take;
+                    collected += take;
+                }
+            }
+        }
+        if (collected == quantity) {
+            return true;
+        }
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (taken[stripe] > 0) {
+                cells.addAndGet(stripe * PADDING, taken[stripe]);
+            }
+        }
+        return false;
+    }
+
+    private int homeStripe() {
+        return ThreadLocalRandom.current().nextInt(stripes);
+    }
+}
@@ -0,0 +1,195 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.dto.TicketHoldRequest;
+import org.qrush.ticketing_system.dto.TicketHoldResponse;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-limited seat holds.
+ * A hold takes seats from the in-memory inventory pool for a few minutes while the buyer
+ * pays. Expiry is driven by a hierarchical timing wheel, so hundreds of thousands of
+ * open holds cost nothing until they are due and the database is never polled.
+ */
+@Service
+public class TicketHoldService {
+
+    private static final String HOLD_ID_REQUIRED = "Hold ID must not be null";
+
+    private final TicketInventoryService ticketInventoryService;
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final TicketTypeService ticketTypeService;
+    private final HierarchicalTimingWheel<Hold> wheel;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final long holdMillis;
+    private final int maxQuantity;
+
+    public TicketHoldService(TicketInventoryService ticketInventoryService,
+            EventRepository eventRepository,
+            UserRepository userRepository,
+            TicketTypeService ticketTypeService,
+            @Value("${tickets.hold.minutes:10}") long holdMinutes,
+            @Value("${tickets.hold.max-quantity:10}") int maxQuantity,
+            @Value("${tickets.hold.tick-millis:100}") long tickMillis) {
+        this.ticketInventoryService = ticketInventoryService;
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.ticketTypeService = ticketTypeService;
+        this.holdMillis = holdMinutes * 60_000L;
+        this.maxQuantity = maxQuantity;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, 256, System.currentTimeMillis());
+    }
+
+    public TicketHoldResponse createHold(TicketHoldRequest request) {
+        Objects.requireNonNull(request, "Ticket hold request must not be null");
+        Long userId = Objects.requireNonNull(request.userId(), "User ID must not be null");
+        Long eventId = Objects.requireNonNull(request.eventId(), "Event ID must not be null");
+        int quantity = Math.max(1, Optional.ofNullable(request.quantity()).orElse(1));
+        if (quantity > maxQuantity) {
+            throw new IllegalArgumentException("A single hold may contain at most " + maxQuantity + " tickets");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found with ID: " + userId);
+        }
+        EventEntity event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
+        TicketTypeService.TicketType ticketType = ticketTypeService.resolve(eventId, request.ticketType());
+
+        ticketInventoryService.reserve(event, ticketType, quantity);
+
+        long expiresAt = System.currentTimeMillis() + holdMillis;
+        Hold hold = new Hold(UUID.randomUUID().toString(), userId, eventId, ticketType, quantity, expiresAt);
+        holds.put(hold.holdId(), hold);
+        hold.timeout = wheel.schedule(hold, expiresAt);
+        return toResponse(hold);
+    }
+
+    public Optional<TicketHoldResponse> getHold(String holdId) {
+        return Optional.ofNullable(holds.get(Objects.requireNonNull(holdId, HOLD_ID_REQUIRED)))
+                .map(this::toResponse);
+    }
+
+    /**
+     * Removes the hold so it can be converted into tickets. The caller owns the held seats
+     * from here on and must release them if the purchase fails.
+     */
+    public Hold claim(String holdId) {
+        Hold hold = holds.remove(Objects.requireNonNull(holdId, HOLD_ID_REQUIRED));
+        if (hold == null) {
+            throw new IllegalStateException("Hold not found or already expired");
+        }
+        cancelTimeout(hold);
+        return hold;
+    }
+
+    /**
+     * Gives the held seats back to the pool.
+     */
+    public void release(String holdId) {
+        Hold hold = holds.remove(Objects.requireNonNull(holdId, HOLD_ID_REQUIRED));
+        if (hold != null) {
+            cancelTimeout(hold);
+            ticketInventoryService.release(hold.eventId(), hold.heldTypeId(), hold.quantity());
+        }
+    }
+
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    @Scheduled(fixedRateString = "${tickets.hold.tick-millis:100}")
+    public void expireHolds() {
+        List<Hold> expired = wheel.advanceTo(System.currentTimeMillis());
+        for (Hold hold : expired) {
+            // Skip holds that were claimed or released while they sat in the due slot
+            if (holds.remove(hold.holdId(), hold)) {
+                ticketInventoryService.release(hold.eventId(), hold.heldTypeId(), hold.quantity());
+            }
+        }
+    }
+
+    private void cancelTimeout(Hold hold) {
+        HierarchicalTimingWheel.Timeout<Hold> timeout = hold.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private TicketHoldResponse toResponse(Hold hold) {
+        return new TicketHoldResponse(
+                hold.holdId(),
+                hold.userId(),
+                hold.eventId(),
+                hold.ticketType().name(),
+                hold.quantity(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.expiresAt()), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Seats taken from the pool on behalf of one buyer.
+     */
+    public static final class Hold {
+        private final String holdId;
+        private final Long userId;
+        private final Long eventId;
+        private final TicketTypeService.TicketType ticketType;
+        private final int quantity;
+        private final long expiresAt;
+        private volatile HierarchicalTimingWheel.Timeout<Hold> timeout;
+
+        private Hold(String holdId, Long userId, Long eventId, TicketTypeService.TicketType ticketType,
+                int quantity, long expiresAt) {
+            this.holdId = holdId;
+            this.userId = userId;
+            this.eventId = eventId;
+            this.ticketType = ticketType;
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+        }
+
+        public String holdId() {
+            return holdId;
+        }
+
+        public Long userId() {
+            return userId;
+        }
+
+        public Long eventId() {
+            return eventId;
+        }
+
+        // Price is locked in when the hold is taken
+        public TicketTypeService.TicketType ticketType() {
+            return ticketType;
+        }
+
+        // Type whose quota counter the hold draws from, or null when only event capacity applies
+        public Long heldTypeId() {
+            return ticketType.quota() != null ? ticketType.id() : null;
+        }
+
+        public int quantity() {
+            return quantity;
+        }
+
+        public long expiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.TicketTypeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission authority for ticket inventory.
+ * Bookings first take seats from an in-memory striped counter, so a sold-out
+ * event is rejected without touching the database. The durable commit is a single
+ * conditional increment on the events row, executed at the very end of the booking
+ * transaction so the row lock is held only until commit.
+ * Ticket types with their own quota get a second counter on top of the event's.
+ * Seats taken but not yet sold (open holds, bookings in flight) are tracked per event and type,
+ * so a counter reloaded from the database leaves them out and their later release is exact.
+ */
+@Service
+public class TicketInventoryService {
+
+    private static final String EVENT_ID_REQUIRED = "Event ID must not be null";
+    private static final String NOT_ENOUGH_TICKETS = "Not enough tickets available";
+
+    private final EventRepository eventRepository;
+    private final TicketTypeRepository ticketTypeRepository;
+    private final EventFacetIndex eventFacetIndex;
+    private final Map<Long, StripedInventoryCounter> counters = new ConcurrentHashMap<>();
+    private final Map<TypeKey, StripedInventoryCounter> typeCounters = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> eventInFlight = new ConcurrentHashMap<>();
+    private final Map<TypeKey, Integer> typeInFlight = new ConcurrentHashMap<>();
+    private final int stripes;
+
+    public TicketInventoryService(EventRepository eventRepository,
+            TicketTypeRepository ticketTypeRepository,
+            EventFacetIndex eventFacetIndex,
+            @Value("${tickets.inventory.stripes:0}") int configuredStripes) {
+        this.eventRepository = eventRepository;
+        this.ticketTypeRepository = ticketTypeRepository;
+        this.eventFacetIndex = eventFacetIndex;
+        this.stripes = configuredStripes > 0
+                ? configuredStripes
+                : Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+    }
+
+    /**
+     * Takes seats from the in-memory pools of the event and, when it has a quota, the ticket
+     * type. If the surrounding transaction rolls back the seats are returned automatically.
+     */
+    public void reserve(EventEntity event, TicketTypeService.TicketType type, int quantity) {
+        Objects.requireNonNull(event, "Event must not be null");
+        Objects.requireNonNull(type, "Ticket type must not be null");
+        Long eventId = Objects.requireNonNull(event.getEventID(), EVENT_ID_REQUIRED);
+        Long typeId = typeIdOf(type);
+        // Counters are loaded before these seats count as in flight, or a first load would subtract them twice
+        StripedInventoryCounter counter = counterFor(event);
+        StripedInventoryCounter typeCounter = typeId != null ? typeCounterFor(type) : null;
+        addInFlight(eventId, typeId, quantity);
+        if (!counter.tryAcquire(quantity)) {
+            addInFlight(eventId, typeId, -quantity);
+            throw new IllegalStateException(NOT_ENOUGH_TICKETS);
+        }
+        if (typeCounter != null && !typeCounter.tryAcquire(quantity)) {
+            release(eventId, null, quantity);
+            typeInFlight.merge(new TypeKey(eventId, typeId), -quantity, TicketInventoryService::sumOrRemove);
+            throw new IllegalStateException("Not enough " + type.name() + " tickets available");
+        }
+        settleOnCompletion(eventId, typeId, quantity);
+    }
+
+    /**
+     * Ties seats that were taken earlier (e.g. by a hold) to the current transaction, so a
+     * rollback returns them to the pool.
+     */
+    public void adoptReservation(Long eventId, Long typeId, int quantity) {
+        settleOnCompletion(Objects.requireNonNull(eventId, EVENT_ID_REQUIRED), typeId, quantity);
+    }
+
+    /**
+     * Persists sold seats with relative, capacity-guarded updates. Throws when the
+     * database says the event or type is full, which rolls back the booking and frees the seats.
+     */
+    public void commit(Long eventId, TicketTypeService.TicketType type, int quantity) {
+        Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        if (type.id() != null && ticketTypeRepository.incrementSold(type.id(), quantity) == 0) {
+            typeCounters.remove(new TypeKey(eventId, type.id()));
+            throw new IllegalStateException("Not enough " + type.name() + " tickets available");
+        }
+        if (eventRepository.incrementTicketsSold(eventId, quantity) == 0) {
+            // Another node sold the last seats; resync from the database on next use
+            counters.remove(eventId);
+            throw new IllegalStateException(NOT_ENOUGH_TICKETS);
+        }
+        eventFacetIndex.addSold(eventId, quantity);
+    }
+
+    /**
+     * Returns reserved seats to the in-memory pools without touching the database.
+     */
+    public void release(Long eventId, Long typeId, int quantity) {
+        // Returned before leaving the in-flight count; the other order would let a reload count them twice
+        Optional.ofNullable(counters.get(eventId)).ifPresent(counter -> counter.release(quantity));
+        if (typeId != null) {
+            Optional.ofNullable(typeCounters.get(new TypeKey(eventId, typeId)))
+                    .ifPresent(counter -> counter.release(quantity));
+        }
+        addInFlight(eventId, typeId, -quantity);
+    }
+
+    /**
+     * Remaining seats as seen by this node, or {@code -1} when the event is not loaded.
+     */
+    public int available(Long eventId) {
+        return Optional.ofNullable(counters.get(eventId)).map(StripedInventoryCounter::available).orElse(-1);
+    }
+
+    /**
+     * Remaining seats of a quota-limited type, or {@code -1} when it is not loaded.
+     */
+    public int availableForType(Long eventId, Long typeId) {
+        return Optional.ofNullable(typeCounters.get(new TypeKey(eventId, typeId)))
+                .map(StripedInventoryCounter::available)
+                .orElse(-1);
+    }
+
+    /**
+     * Drops the cached counters so the next booking reloads capacity and sold count,
+     * e.g. after an organizer edits capacity or the event is cancelled.
+     */
+    public void evict(Long eventId) {
+        counters.remove(Objects.requireNonNull(eventId, EVENT_ID_REQUIRED));
+        typeCounters.keySet().removeIf(key -> key.eventId().equals(eventId));
+    }
+
+    private StripedInventoryCounter counterFor(EventEntity event) {
+        return counters.computeIfAbsent(event.getEventID(), id -> {
+            int capacity = Optional.ofNullable(event.getCapacity()).orElse(0);
+            int sold = Optional.ofNullable(event.getTicketsSold()).orElse(0);
+            return new StripedInventoryCounter(capacity - sold - eventInFlight.getOrDefault(id, 0), stripes);
+        });
+    }
+
+    private StripedInventoryCounter typeCounterFor(TicketTypeService.TicketType type) {
+        return typeCounters.computeIfAbsent(new TypeKey(type.eventId(), type.id()), key -> {
+            // Read the live sold count once; the cached model only has a snapshot
+            int sold = ticketTypeRepository.findById(type.id())
+                    .map(row -> Optional.ofNullable(row.getSold()).orElse(0))
+                    .orElse(type.soldAtLoad());
+            return new StripedInventoryCounter(type.quota() - sold - typeInFlight.getOrDefault(key, 0), stripes);
+        });
+    }
+
+    private Long typeIdOf(TicketTypeService.TicketType type) {
+        return type.quota() != null ? type.id() : null;
+    }
+
+    // A committed booking's seats are sold in the database now; any other outcome returns them
+    private void settleOnCompletion(Long eventId, Long typeId, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    addInFlight(eventId, typeId, -quantity);
+                } else {
+                    release(eventId, typeId, quantity);
+                }
+            }
+        });
+    }
+
+    private void addInFlight(Long eventId, Long typeId, int delta) {
+        eventInFlight.merge(eventId, delta, TicketInventoryService::sumOrRemove);
+        if (typeId != null) {
+            typeInFlight.merge(new TypeKey(eventId, typeId), delta, TicketInventoryService::sumOrRemove);
+        }
+    }
+
+    private static Integer sumOrRemove(Integer current, Integer delta) {
+        int sum = current + delta;
+        return sum == 0 ? null : sum;
+    }
+
+    private record TypeKey(Long eventId, Long typeId) {
+    }
+}
@@ -3,28 +3,44 @@ package org.qrush.ticketing_system.service;
 import org.qrush.ticketing_system.dto.BookTicketRequest;
 import org.qrush.ticketing_system.dto.BulkCheckInRequest;
 import org.qrush.ticketing_system.dto.BulkCheckInResponse;
+import org.qrush.ticketing_system.dto.ConfirmHoldRequest;
 import org.qrush.ticketing_system.dto.ManualTicketVerificationRequest;
+import org.qrush.ticketing_system.dto.QrCodeResponse;
 import org.qrush.ticketing_system.dto.TicketScanRequest;
 import org.qrush.ticketing_system.dto.TicketScanResponse;
-import org.qrush.ticketing_system.entity.AttendanceLogEntity;
 import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.entity.EventStatus;
+import org.qrush.ticketing_system.entity.OutboxEventType;
 import org.qrush.ticketing_system.entity.PaymentEntity;
 import org.qrush.ticketing_system.entity.TicketEntity;
 import org.qrush.ticketing_system.entity.UserEntity;
-import org.qrush.ticketing_system.repository.AttendanceLogRepository;
 import org.qrush.ticketing_system.repository.EventRepository;
 import org.qrush.ticketing_system.repository.PaymentRepository;
 import org.qrush.ticketing_system.repository.TicketRepository;
 import org.qrush.ticketing_system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 public class TicketService {
@@ -32,9 +48,19 @@ public class TicketService {
     private final TicketRepository ticketRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
-    private final AttendanceLogRepository attendanceLogRepository;
     private final PaymentRepository paymentRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final TicketInventoryService ticketInventoryService;
+    private final IdAllocator idAllocator;
+    private final TicketHoldService ticketHoldService;
+    private final WaitingRoomService waitingRoomService;
+    private final TicketTypeService ticketTypeService;
+    private final QrTokenService qrTokenService;
+    private final GateAdmissionService gateAdmissionService;
+    private final AttendanceLogWriter attendanceLogWriter;
+    private final ScanMetrics scanMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int bulkChunkSize;
     private static final String TICKET_ID_REQUIRED = "Ticket ID must not be null";
     private static final String USER_ID_REQUIRED = "User ID must not be null";
     private static final String EVENT_ID_REQUIRED = "Event ID must not be null";
@@ -46,15 +72,35 @@ public class TicketService {
     public TicketService(TicketRepository ticketRepository,
             UserRepository userRepository,
             EventRepository eventRepository,
-            AttendanceLogRepository attendanceLogRepository,
             PaymentRepository paymentRepository,
-            NotificationService notificationService) {
+            OutboxService outboxService,
+            TicketInventoryService ticketInventoryService,
+            IdAllocator idAllocator,
+            TicketHoldService ticketHoldService,
+            WaitingRoomService waitingRoomService,
+            TicketTypeService ticketTypeService,
+            QrTokenService qrTokenService,
+            GateAdmissionService gateAdmissionService,
+            AttendanceLogWriter attendanceLogWriter,
+            ScanMetrics scanMetrics,
+            PlatformTransactionManager transactionManager,
+            @Value("${bulk-check-in.chunk-size:500}") int bulkChunkSize) {
         this.ticketRepository = ticketRepository;
         this.userRepository = userRepository;
         this.eventRepository = eventRepository;
-        this.attendanceLogRepository = attendanceLogRepository;
         this.paymentRepository = paymentRepository;
-        this.notificationService = notificationService;
+        this.outboxService = outboxService;
+        this.ticketInventoryService = ticketInventoryService;
+        this.idAllocator = idAllocator;
+        this.ticketHoldService = ticketHoldService;
+        this.waitingRoomService = waitingRoomService;
+        this.ticketTypeService = ticketTypeService;
+        this.qrTokenService = qrTokenService;
+        this.gateAdmissionService = gateAdmissionService;
+        this.attendanceLogWriter = attendanceLogWriter;
+        this.scanMetrics = scanMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkChunkSize = Math.max(1, bulkChunkSize);
     }
 
     public List<TicketEntity> getAllTickets() {
@@ -65,8 +111,29 @@ public class TicketService {
         return ticketRepository.findById(Objects.requireNonNull(id, TICKET_ID_REQUIRED));
     }
 
+    /**
+     * Loads tickets in ID order, e.g. to replay the response of an earlier booking.
+     */
+    public List<TicketEntity> getTicketsByIds(List<Long> ids) {
+        Objects.requireNonNull(ids, "Ticket IDs must not be null");
+        List<TicketEntity> tickets = new ArrayList<>(ticketRepository.findAllById(ids));
+        tickets.sort(Comparator.comparing(TicketEntity::getTicketID));
+        return tickets;
+    }
+
     public TicketEntity createTicket(TicketEntity ticket) {
-        return ticketRepository.save(Objects.requireNonNull(ticket, "Ticket must not be null"));
+        Objects.requireNonNull(ticket, "Ticket must not be null");
+        if (ticket.getTicketID() == null) {
+            ticket.setTicketID(idAllocator.next(IdAllocator.TICKET_SEQUENCE));
+        } else if (ticketRepository.existsById(ticket.getTicketID())) {
+            // A client-supplied ID of an existing ticket updates it, as it did before IDs were allocated
+            ticket.markNotNew();
+        }
+        if (ticket.getQrCode() == null && ticket.getEvent() != null && ticket.getEvent().getEventID() != null) {
+            ticket.setQrCode(qrTokenService.issue(ticket.getTicketID(), ticket.getEvent().getEventID(),
+                    eventDayOf(ticket.getEvent())));
+        }
+        return ticketRepository.save(ticket);
     }
 
     @Transactional
@@ -74,6 +141,8 @@ public class TicketService {
         Objects.requireNonNull(request, "Ticket booking request must not be null");
         Long userId = Objects.requireNonNull(request.getUserId(), USER_ID_REQUIRED);
         Long eventId = Objects.requireNonNull(request.getEventId(), EVENT_ID_REQUIRED);
+        // Spends the waiting room admission only if this booking commits
+        waitingRoomService.consumeAdmission(eventId, request.getQueueToken());
 
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
@@ -82,31 +151,53 @@ public class TicketService {
                 .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
 
         int quantity = Math.max(1, request.getQuantity());
-        String ticketType = Optional.ofNullable(request.getTicketType())
-                .filter(type -> !type.isBlank())
-                .orElse("REGULAR");
+        // Price and quota come from the parsed ticket type, never from the client
+        TicketTypeService.TicketType ticketType = ticketTypeService.resolve(eventId, request.getTicketType());
 
-        // Check if enough tickets are available
-        int ticketsSold = event.getTicketsSold() != null ? event.getTicketsSold() : 0;
-        if (ticketsSold + quantity > event.getCapacity()) {
-            throw new IllegalStateException("Not enough tickets available");
-        }
+        // Take seats from the in-memory pool first; sold-out requests stop here
+        ticketInventoryService.reserve(event, ticketType, quantity);
+
+        return issueTickets(user, event, ticketType, quantity, request.getPaymentMethod());
+    }
 
-        // Increment tickets sold and save event
-        event.setTicketsSold(ticketsSold + quantity);
-        eventRepository.save(event);
+    /**
+     * Converts a ticket hold into tickets. The held seats go back to the pool if the purchase fails.
+     */
+    @Transactional
+    public List<TicketEntity> confirmHold(String holdId, ConfirmHoldRequest request) {
+        TicketHoldService.Hold hold = ticketHoldService.claim(holdId);
+        ticketInventoryService.adoptReservation(hold.eventId(), hold.heldTypeId(), hold.quantity());
+
+        UserEntity user = userRepository.findById(hold.userId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + hold.userId()));
+        EventEntity event = eventRepository.findById(hold.eventId())
+                .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + hold.eventId()));
+
+        String paymentMethod = request != null ? request.paymentMethod() : null;
+        return issueTickets(user, event, hold.ticketType(), hold.quantity(), paymentMethod);
+    }
 
-        // Create tickets
-        List<TicketEntity> bookedTickets = new ArrayList<>();
+    // Writes the tickets, payment and sold count for seats already taken from the pool
+    private List<TicketEntity> issueTickets(UserEntity user, EventEntity event,
+            TicketTypeService.TicketType ticketType, int quantity, String paymentMethod) {
+        Long userId = user.getUserID();
+        Long eventId = event.getEventID();
+        if (event.getStatus() == EventStatus.CANCELLED) {
+            throw new IllegalStateException("Event has been cancelled");
+        }
+
+        // Create tickets with pre-allocated IDs; the inserts are flushed as one JDBC batch
+        long[] ticketIds = idAllocator.allocate(IdAllocator.TICKET_SEQUENCE, quantity);
+        List<TicketEntity> bookedTickets = new ArrayList<>(quantity);
         for (int i = 0; i < quantity; i++) {
             TicketEntity ticket = createTicketEntity(user, event, ticketType);
-            bookedTickets.add(ticketRepository.save(ticket));
+            ticket.setTicketID(ticketIds[i]);
+            ticket.setQrCode(qrTokenService.issue(ticketIds[i], eventId, eventDayOf(event)));
+            bookedTickets.add(ticket);
         }
+        ticketRepository.saveAll(bookedTickets);
 
-        // Calculate total amount using ticket price from request (for specific ticket
-        // type) or event default
-        double ticketPrice = request.getTicketPrice() != null ? request.getTicketPrice()
-                : (event.getTicketPrice() != null ? event.getTicketPrice() : 0.0);
+        double ticketPrice = ticketType.price();
         float totalAmount = (float) (ticketPrice * quantity);
         if (totalAmount > 0) {
             PaymentEntity payment = new PaymentEntity();
@@ -114,38 +205,59 @@ public class TicketService {
             payment.setEventID(eventId);
             payment.setAmount(totalAmount);
             payment.setPaymentDate(LocalDateTime.now());
-            payment.setPaymentMethod(request.getPaymentMethod() != null ? request.getPaymentMethod() : "GCASH");
+            payment.setPaymentMethod(paymentMethod != null ? paymentMethod : "GCASH");
             payment.setPaymentStatus("COMPLETED");
             payment.setTransactionReference(UUID.randomUUID().toString());
             paymentRepository.save(payment);
         }
 
-        // Send notification to user
-        String ticketWord = quantity > 1 ? "tickets" : "ticket";
-        notificationService.createEventNotification(
-                userId,
-                "success",
-                "Ticket Purchased",
-                String.format("Your %d %s %s for \"%s\" %s been confirmed!", quantity, ticketType, ticketWord,
-                        event.getName(),
-                        quantity > 1 ? "have" : "has"),
-                eventId);
+        // Persist the sold count last so the events row lock is held only until commit; the status is
+        // read again under that lock, since the event may have been cancelled after it was loaded
+        if (EventStatus.CANCELLED.name().equals(eventRepository.findStatusForUpdate(eventId))) {
+            throw new IllegalStateException("Event has been cancelled");
+        }
+        ticketInventoryService.commit(eventId, ticketType, quantity);
+
+        // The purchase notification is written after commit by the outbox dispatcher
+        outboxService.publish(OutboxEventType.TICKET_BOOKED, eventId, Map.of(
+                "userId", userId,
+                "eventName", event.getName(),
+                "quantity", quantity,
+                "ticketType", ticketType.name()));
 
         return bookedTickets;
     }
 
-    private TicketEntity createTicketEntity(UserEntity user, EventEntity event, String ticketType) {
+    private TicketEntity createTicketEntity(UserEntity user, EventEntity event,
+            TicketTypeService.TicketType ticketType) {
         TicketEntity ticket = new TicketEntity();
         ticket.setUser(user);
         ticket.setEvent(event);
-        ticket.setTicketType(ticketType);
+        ticket.setTicketType(ticketType.name());
         ticket.setStatus("ACTIVE");
-        ticket.setPrice(event.getTicketPrice());
+        ticket.setPrice(ticketType.price());
         ticket.setPurchaseDate(LocalDateTime.now());
-        ticket.setQrCode(UUID.randomUUID().toString());
         return ticket;
     }
 
+    private LocalDate eventDayOf(EventEntity event) {
+        return event.getStartDate() != null ? event.getStartDate().toLocalDate() : null;
+    }
+
+    /**
+     * QR code the ticket holder should show right now; rotates when rotating codes are enabled.
+     */
+    public QrCodeResponse getCurrentQrCode(Long ticketId) {
+        TicketEntity ticket = ticketRepository.findById(Objects.requireNonNull(ticketId, TICKET_ID_REQUIRED))
+                .orElseThrow(() -> new IllegalArgumentException("Ticket not found with ID: " + ticketId));
+        if (ticket.getEvent() == null || !QrTokenService.isSignedToken(ticket.getQrCode())) {
+            // Legacy UUID codes cannot rotate
+            return new QrCodeResponse(ticketId, ticket.getQrCode(), false, 0);
+        }
+        String code = qrTokenService.current(ticketId, ticket.getEvent().getEventID(), eventDayOf(ticket.getEvent()));
+        return new QrCodeResponse(ticketId, code, qrTokenService.isRotating(), qrTokenService.getRotationSeconds());
+    }
+
     public TicketEntity updateTicket(Long id, TicketEntity updatedTicket) {
         Objects.requireNonNull(id, TICKET_ID_REQUIRED);
         Objects.requireNonNull(updatedTicket, UPDATED_TICKET_REQUIRED);
@@ -157,7 +269,10 @@ public class TicketService {
             ticket.setPurchaseDate(updatedTicket.getPurchaseDate());
             ticket.setTicketType(updatedTicket.getTicketType());
             ticket.setStatus(updatedTicket.getStatus());
-            return ticketRepository.save(ticket);
+            TicketEntity saved = ticketRepository.save(ticket);
+            // Status or code may have changed under the gate index
+            Optional.ofNullable(saved.getEvent()).map(EventEntity::getEventID).ifPresent(gateAdmissionService::evict);
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Ticket not found with ID: " + id));
     }
 
@@ -165,10 +280,22 @@ public class TicketService {
         ticketRepository.deleteById(Objects.requireNonNull(id, TICKET_ID_REQUIRED));
     }
 
-    @Transactional
+    // Not transactional: scans answered by the gate index never take a database connection
     public TicketScanResponse scanTicket(TicketScanRequest request) {
         Objects.requireNonNull(request, "Ticket scan request must not be null");
 
+        long started = System.nanoTime();
+        TicketScanResponse response = null;
+        try {
+            response = scanTicketInternal(request);
+            return response;
+        } finally {
+            scanMetrics.recordScan(ScanMetrics.SCAN, request.gate(), response, System.nanoTime() - started);
+        }
+    }
+
+    private TicketScanResponse scanTicketInternal(TicketScanRequest request) {
+
         String qrCode = Optional.ofNullable(request.qrCode())
                 .map(String::trim)
                 .orElse("");
@@ -179,24 +306,62 @@ public class TicketService {
         String gate = normaliseGate(request.gate());
         LocalDateTime scannedAt = LocalDateTime.now();
 
-        Optional<TicketEntity> ticketOptional = ticketRepository.findByQrCode(qrCode);
-        if (ticketOptional.isEmpty()) {
-            return buildInvalidResponse("No ticket matches the scanned code.", gate, scannedAt);
+        if (QrTokenService.isSignedToken(qrCode)) {
+            // Forged and expired codes are rejected here, before any query; the day is checked against the event
+            QrTokenService.Verification verification = qrTokenService.verify(qrCode, scannedAt);
+            if (!verification.valid()) {
+                return buildInvalidResponse(verification.reason(), gate, scannedAt);
+            }
+            Optional<GateAdmissionService.Scan> indexed = gateAdmissionService.scanTicket(
+                    verification.eventId(), verification.ticketId(), gate, scannedAt);
+            if (indexed.isPresent()) {
+                return toScanResponse(indexed.get(), gate, scannedAt);
+            }
+            return transactionTemplate.execute(status -> ticketRepository.findById(verification.ticketId())
+                    .filter(ticket -> ticket.getEvent() != null
+                            && verification.eventId().equals(ticket.getEvent().getEventID()))
+                    .map(ticket -> processTicketEntry(ticket, gate, scannedAt))
+                    .orElseGet(() -> buildInvalidResponse("No ticket matches the scanned code.", gate, scannedAt)));
         }
 
-        return processTicketEntry(ticketOptional.get(), gate, scannedAt);
+        // Codes issued before signed tokens are plain UUIDs
+        Optional<GateAdmissionService.Scan> indexed = gateAdmissionService.scanLegacyCode(qrCode, gate, scannedAt);
+        if (indexed.isPresent()) {
+            return toScanResponse(indexed.get(), gate, scannedAt);
+        }
+        return transactionTemplate.execute(status -> ticketRepository.findByQrCode(qrCode)
+                .map(ticket -> processTicketEntry(ticket, gate, scannedAt))
+                .orElseGet(() -> buildInvalidResponse("No ticket matches the scanned code.", gate, scannedAt)));
     }
 
-    @Transactional
     public TicketScanResponse verifyTicketManually(ManualTicketVerificationRequest request) {
         Objects.requireNonNull(request, "Manual ticket verification request must not be null");
 
+        long started = System.nanoTime();
+        TicketScanResponse response = null;
+        try {
+            response = verifyTicketManuallyInternal(request);
+            return response;
+        } finally {
+            scanMetrics.recordScan(ScanMetrics.MANUAL, request.gate(), response, System.nanoTime() - started);
+        }
+    }
+
+    private TicketScanResponse verifyTicketManuallyInternal(ManualTicketVerificationRequest request) {
         String gate = normaliseGate(request.gate());
         LocalDateTime scannedAt = LocalDateTime.now();
-        return verifyTicketByNumberInternal(request, gate, scannedAt);
+        Optional<GateAdmissionService.Scan> indexed = scanIndexedTicketNumber(request, gate, scannedAt);
+        if (indexed.isPresent()) {
+            return toScanResponse(indexed.get(), gate, scannedAt);
+        }
+        return transactionTemplate.execute(status -> verifyTicketByNumberInternal(request, gate, scannedAt));
     }
 
-    @Transactional
+    /**
+     * Checks in a group of tickets in chunks. Each chunk is answered from the gate index where
+     * possible and otherwise with one ticket query, one attendance query and batched writes,
+     * in its own transaction.
+     */
     public BulkCheckInResponse bulkCheckIn(BulkCheckInRequest request) {
         Objects.requireNonNull(request, "Bulk check-in request must not be null");
 
@@ -205,18 +370,87 @@ public class TicketService {
             return new BulkCheckInResponse(0, 0, 0, 0, List.of());
         }
 
+        long started = System.nanoTime();
+        BulkCheckInResponse response = null;
         String gate = normaliseGate(request.gate());
-        List<TicketScanResponse> results = new ArrayList<>();
+        try {
+            List<TicketScanResponse> results = new ArrayList<>(ticketNumbers.size());
+            for (int from = 0; from < ticketNumbers.size(); from += bulkChunkSize) {
+                results.addAll(checkInChunk(ticketNumbers.subList(from, Math.min(ticketNumbers.size(), from + bulkChunkSize)),
+                        gate, request.eventId()));
+            }
+            response = summarise(results, results);
+            return response;
+        } finally {
+            scanMetrics.recordBulk(request.eventId(), gate, response, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #bulkCheckIn}: reads one ticket number per line and hands each
+     * result to {@code sink} as soon as its chunk is done, so neither side holds the whole group.
+     * Returns the totals with an empty result list.
+     */
+    public BulkCheckInResponse bulkCheckIn(BufferedReader ticketNumbers, Long eventId, String gate,
+            Consumer<TicketScanResponse> sink) throws IOException {
+        Objects.requireNonNull(ticketNumbers, "Ticket numbers must not be null");
+        Objects.requireNonNull(sink, "Result sink must not be null");
+
+        long started = System.nanoTime();
+        BulkCheckInResponse totals = null;
+        String normalisedGate = normaliseGate(gate);
+        try {
+            totals = streamCheckIn(ticketNumbers, eventId, normalisedGate, sink);
+            return totals;
+        } finally {
+            scanMetrics.recordBulk(eventId, normalisedGate, totals, System.nanoTime() - started);
+        }
+    }
+
+    private BulkCheckInResponse streamCheckIn(BufferedReader ticketNumbers, Long eventId, String normalisedGate,
+            Consumer<TicketScanResponse> sink) throws IOException {
+        Set<String> seen = new HashSet<>();
+        List<String> chunk = new ArrayList<>(bulkChunkSize);
+        BulkCheckInResponse totals = new BulkCheckInResponse(0, 0, 0, 0, List.of());
+        String line;
+        while ((line = ticketNumbers.readLine()) != null) {
+            // Lines may be bare ticket numbers or JSON strings
+            String number = line.trim();
+            if (number.length() >= 2 && number.startsWith("\"") && number.endsWith("\"")) {
+                number = number.substring(1, number.length() - 1).trim();
+            }
+            if (number.isEmpty() || !seen.add(number)) {
+                continue;
+            }
+            chunk.add(number);
+            if (chunk.size() == bulkChunkSize) {
+                totals = emit(checkInChunk(chunk, normalisedGate, eventId), totals, sink);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            totals = emit(checkInChunk(chunk, normalisedGate, eventId), totals, sink);
+        }
+        return totals;
+    }
+
+    private BulkCheckInResponse emit(List<TicketScanResponse> results, BulkCheckInResponse totals,
+            Consumer<TicketScanResponse> sink) {
+        results.forEach(sink);
+        BulkCheckInResponse chunk = summarise(results, List.of());
+        return new BulkCheckInResponse(
+                totals.totalProcessed() + chunk.totalProcessed(),
+                totals.successful() + chunk.successful(),
+                totals.duplicates() + chunk.duplicates(),
+                totals.invalid() + chunk.invalid(),
+                List.of());
+    }
+
+    private BulkCheckInResponse summarise(List<TicketScanResponse> results, List<TicketScanResponse> included) {
         int successful = 0;
         int duplicates = 0;
         int invalid = 0;
-
-        for (String ticketNumber : ticketNumbers) {
-            ManualTicketVerificationRequest singleRequest = ManualTicketVerificationRequest.fromBulk(ticketNumber,
-                    request);
-            TicketScanResponse response = verifyTicketByNumberInternal(singleRequest, gate, LocalDateTime.now());
-            results.add(response);
-
+        for (TicketScanResponse response : results) {
             String status = Optional.ofNullable(response.status()).orElse("").toLowerCase();
             if (status.equals(STATUS_VALID)) {
                 successful++;
@@ -226,8 +460,107 @@ public class TicketService {
                 invalid++;
             }
         }
+        return new BulkCheckInResponse(results.size(), successful, duplicates, invalid, included);
+    }
 
-        return new BulkCheckInResponse(results.size(), successful, duplicates, invalid, results);
+    private List<TicketScanResponse> checkInChunk(List<String> ticketNumbers, String gate, Long eventId) {
+        LocalDateTime scannedAt = LocalDateTime.now();
+        TicketScanResponse[] responses = new TicketScanResponse[ticketNumbers.size()];
+        Map<Long, List<Integer>> positionsById = new LinkedHashMap<>();
+        // Resolved once per chunk, so a chunk for an event without an index costs one lookup
+        Optional<GateAdmissionIndex> eventIndex = eventId != null
+                ? gateAdmissionService.indexFor(eventId, scannedAt)
+                : Optional.empty();
+        for (int i = 0; i < ticketNumbers.size(); i++) {
+            Long ticketId = extractTicketId(ticketNumbers.get(i));
+            if (ticketId == null) {
+                responses[i] = buildInvalidResponse("Ticket number is invalid.", gate, scannedAt);
+                continue;
+            }
+            Optional<GateAdmissionService.Scan> indexed = eventId != null
+                    ? eventIndex.flatMap(index -> gateAdmissionService.scanTicket(index, ticketId, gate, scannedAt))
+                    : gateAdmissionService.scanTicketInAnyEvent(ticketId, gate, scannedAt);
+            if (indexed.isPresent()) {
+                responses[i] = toScanResponse(indexed.get(), gate, scannedAt);
+            } else {
+                positionsById.computeIfAbsent(ticketId, id -> new ArrayList<>()).add(i);
+            }
+        }
+        if (!positionsById.isEmpty()) {
+            // Queued scans of these tickets must reach their rows before they are read
+            attendanceLogWriter.awaitTickets(positionsById.keySet());
+            transactionTemplate.executeWithoutResult(
+                    status -> checkInFromDatabase(positionsById, responses, gate, eventId, scannedAt));
+        }
+        return Arrays.asList(responses);
+    }
+
+    private void checkInFromDatabase(Map<Long, List<Integer>> positionsById, TicketScanResponse[] responses,
+            String gate, Long eventId, LocalDateTime scannedAt) {
+        List<Long> ticketIds = new ArrayList<>(positionsById.keySet());
+        Map<Long, TicketEntity> tickets = new HashMap<>();
+        for (TicketEntity ticket : ticketRepository.findAllForCheckIn(ticketIds)) {
+            tickets.put(ticket.getTicketID(), ticket);
+        }
+
+        List<AttendanceLogWriter.Entry> entries = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> byId : positionsById.entrySet()) {
+            TicketEntity ticket = tickets.get(byId.getKey());
+            String rejection = checkInRejection(ticket, eventId, scannedAt);
+            int reEntryCount = ticket != null ? Optional.ofNullable(ticket.getReEntryCount()).orElse(0) : 0;
+            LocalDateTime lastScan = ticket != null ? ticket.getLastEntryAt() : null;
+            boolean alreadyCheckedIn = ticket != null && isCheckedIn(ticket);
+            for (int position : byId.getValue()) {
+                if (rejection != null) {
+                    responses[position] = buildInvalidResponse(rejection, gate, scannedAt);
+                    continue;
+                }
+                if (alreadyCheckedIn) {
+                    reEntryCount++;
+                    responses[position] = toScanResponse(ticket, STATUS_DUPLICATE, "Ticket was already checked in.",
+                            gate, reEntryCount, true, scannedAt, lastScan);
+                } else {
+                    reEntryCount = 0;
+                    responses[position] = toScanResponse(ticket, STATUS_VALID, "Ticket verified successfully.",
+                            gate, 0, false, scannedAt, lastScan);
+                }
+                // The writer marks first entries CHECKED_IN and notifies the attendee in this transaction
+                entries.add(AttendanceLogWriter.Entry.of(ticket, scannedAt,
+                        alreadyCheckedIn ? STATUS_DUPLICATE : STATUS_VALID, reEntryCount, gate, !alreadyCheckedIn));
+                alreadyCheckedIn = true;
+                lastScan = scannedAt;
+            }
+        }
+        attendanceLogWriter.writeNow(entries);
+        for (AttendanceLogWriter.Entry entry : entries) {
+            gateAdmissionService.learn(tickets.get(entry.ticketId()), true, entry.reEntryCount(), scannedAt);
+        }
+    }
+
+    private String checkInRejection(TicketEntity ticket, Long eventId, LocalDateTime scannedAt) {
+        if (ticket == null) {
+            return "Ticket number not found.";
+        }
+        EventEntity event = ticket.getEvent();
+        if (event == null) {
+            return "Ticket is not linked to an event.";
+        }
+        if (eventId != null && !event.getEventID().equals(eventId)) {
+            return "Ticket belongs to a different event.";
+        }
+        if (ticket.getUser() == null) {
+            return "Ticket has no holder.";
+        }
+        if (event.getStartDate() != null && !scannedAt.toLocalDate().isEqual(event.getStartDate().toLocalDate())) {
+            return "QR code is only valid for scanning on the event day (" + event.getStartDate().toLocalDate() + ")";
+        }
+        return null;
+    }
+
+    private static boolean isCheckedIn(TicketEntity ticket) {
+        return Optional.ofNullable(ticket.getStatus())
+                .map(status -> status.equalsIgnoreCase("CHECKED_IN") || status.equalsIgnoreCase("USED"))
+                .orElse(false);
     }
 
     private TicketScanResponse verifyTicketByNumberInternal(ManualTicketVerificationRequest request,
@@ -255,6 +588,41 @@ public class TicketService {
         return processTicketEntry(ticket, gate, scannedAt);
     }
 
+    // Ticket numbers for a given event only match that event's index, as in the database path
+    private Optional<GateAdmissionService.Scan> scanIndexedTicketNumber(ManualTicketVerificationRequest request,
+            String gate, LocalDateTime scannedAt) {
+        Long ticketId = extractTicketId(request.ticketNumber());
+        if (ticketId == null) {
+            return Optional.empty();
+        }
+        return request.eventId() != null
+                ? gateAdmissionService.scanTicket(request.eventId(), ticketId, gate, scannedAt)
+                : gateAdmissionService.scanTicketInAnyEvent(ticketId, gate, scannedAt);
+    }
+
+    private TicketScanResponse toScanResponse(GateAdmissionService.Scan scan, String gate, LocalDateTime scannedAt) {
+        if (scan.rejection() != null) {
+            return buildInvalidResponse(scan.rejection(), gate, scannedAt);
+        }
+        GateAdmissionIndex index = scan.index();
+        return new TicketScanResponse(
+                scan.firstEntry() ? STATUS_VALID : STATUS_DUPLICATE,
+                scan.firstEntry() ? "Ticket verified successfully." : "Ticket was already checked in.",
+                scan.ticketId(),
+                index.getEventId(),
+                formatTicketNumber(scan.ticketType(), scan.ticketId()),
+                Objects.toString(scan.attendeeName(), ""),
+                Objects.toString(scan.attendeeEmail(), ""),
+                Objects.toString(index.getEventName(), ""),
+                index.getEventStart(),
+                index.getEventEnd(),
+                gate,
+                scan.reEntryCount(),
+                !scan.firstEntry(),
+                scannedAt,
+                scan.previousScanAt());
+    }
+
     private String normaliseGate(String gate) {
         return Optional.ofNullable(gate)
                 .map(String::trim)
@@ -282,6 +650,12 @@ public class TicketService {
     }
 
     private TicketScanResponse processTicketEntry(TicketEntity ticket, String gate, LocalDateTime scannedAt) {
+                if (ticket.getEvent() == null) {
+                    return buildInvalidResponse("Ticket is not linked to an event.", gate, scannedAt);
+                }
+                if (ticket.getUser() == null) {
+                    return buildInvalidResponse("Ticket has no holder.", gate, scannedAt);
+                }
 
                 // Restrict scan to event day only
                 if (ticket.getEvent() != null && ticket.getEvent().getStartDate() != null) {
@@ -291,20 +665,12 @@ public class TicketService {
                         return buildInvalidResponse("QR code is only valid for scanning on the event day (" + eventStart.toLocalDate() + ")", gate, scannedAt);
                     }
                 }
-        AttendanceLogEntity latestLog = attendanceLogRepository
-                .findTopByTicket_TicketIDOrderByStartTimeDesc(ticket.getTicketID())
-                .orElse(null);
+        // The previous entry comes from the ticket row itself, not from a sort over its log
+        LocalDateTime previousScanAt = ticket.getLastEntryAt();
 
-        boolean alreadyCheckedIn = Optional.ofNullable(ticket.getStatus())
-                .map(status -> status.equalsIgnoreCase("CHECKED_IN") || status.equalsIgnoreCase("USED"))
-                .orElse(false);
-
-        AttendanceLogEntity logEntry = new AttendanceLogEntity();
-        logEntry.setTicket(ticket);
-        logEntry.setEvent(ticket.getEvent());
-        logEntry.setUser(ticket.getUser());
-        logEntry.setStartTime(scannedAt);
-        logEntry.setGate(gate);
+        // Two gates can read ACTIVE at the same moment; only the conditional update decides who admits
+        boolean alreadyCheckedIn = isCheckedIn(ticket)
+                || ticketRepository.markCheckedIn(ticket.getTicketID(), scannedAt, gate) == 0;
 
         int reEntryCount;
         String status;
@@ -313,35 +679,33 @@ public class TicketService {
         if (alreadyCheckedIn) {
             status = STATUS_DUPLICATE;
             message = "Ticket was already checked in.";
-            int previousReEntry = Optional.ofNullable(latestLog)
-                    .map(AttendanceLogEntity::getReEntry)
-                    .orElse(0);
-            reEntryCount = previousReEntry + 1;
-            logEntry.setStatus(STATUS_DUPLICATE);
-            logEntry.setReEntry(reEntryCount);
+            reEntryCount = Optional.ofNullable(ticket.getReEntryCount()).orElse(0) + 1;
+            ticketRepository.recordReEntry(ticket.getTicketID(), scannedAt, gate);
         } else {
             status = STATUS_VALID;
             message = "Ticket verified successfully.";
             reEntryCount = 0;
-            logEntry.setStatus(STATUS_VALID);
-            logEntry.setReEntry(reEntryCount);
-            ticket.setStatus("CHECKED_IN");
-            ticketRepository.save(ticket);
 
-            // Send notification to attendee about successful check-in
+            // Notify the attendee through the outbox so the scan doesn't wait on the insert
             if (ticket.getUser() != null && ticket.getEvent() != null) {
-                notificationService.createEventNotification(
-                        ticket.getUser().getUserID(),
-                        "success",
-                        "Checked In",
-                        String.format("You've been checked in to \"%s\" at %s. Enjoy the event!",
-                                ticket.getEvent().getName(), gate),
-                        ticket.getEvent().getEventID());
+                outboxService.publish(OutboxEventType.TICKET_CHECKED_IN, ticket.getEvent().getEventID(), Map.of(
+                        "userId", ticket.getUser().getUserID(),
+                        "ticketId", ticket.getTicketID(),
+                        "eventName", ticket.getEvent().getName(),
+                        "gate", gate));
             }
         }
 
-        attendanceLogRepository.save(logEntry);
+        // The entry state was saved above, so the writer only has to append the log row
+        attendanceLogWriter.submit(AttendanceLogWriter.Entry.of(ticket, scannedAt, status, reEntryCount, gate, false));
+        gateAdmissionService.learn(ticket, true, reEntryCount, scannedAt);
+
+        return toScanResponse(ticket, status, message, gate, reEntryCount, alreadyCheckedIn, scannedAt,
+                previousScanAt);
+    }
 
+    private TicketScanResponse toScanResponse(TicketEntity ticket, String status, String message, String gate,
+            int reEntryCount, boolean alreadyCheckedIn, LocalDateTime scannedAt, LocalDateTime previousScanAt) {
         EventEntity event = ticket.getEvent();
         UserEntity attendee = ticket.getUser();
 
@@ -360,10 +724,10 @@ public class TicketService {
                 reEntryCount,
                 alreadyCheckedIn,
                 scannedAt,
-                Optional.ofNullable(latestLog).map(AttendanceLogEntity::getStartTime).orElse(null));
+                previousScanAt);
     }
 
-    private Long extractTicketId(String ticketNumber) {
+    static Long extractTicketId(String ticketNumber) {
         if (ticketNumber == null) {
             return null;
         }
@@ -390,7 +754,11 @@ public class TicketService {
         if (ticket == null || ticket.getTicketID() == null) {
             return "";
         }
-        String prefix = Objects.toString(ticket.getTicketType(), "TICKET");
-        return "%s-%06d".formatted(prefix.replaceAll("\\s+", "").toUpperCase(), ticket.getTicketID());
+        return formatTicketNumber(ticket.getTicketType(), ticket.getTicketID());
+    }
+
+    private String formatTicketNumber(String ticketType, long ticketId) {
+        String prefix = Objects.toString(ticketType, "TICKET");
+        return "%s-%06d".formatted(prefix.replaceAll("\\s+", "").toUpperCase(), ticketId);
     }
 }
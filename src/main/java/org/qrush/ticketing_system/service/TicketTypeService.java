@@ -0,0 +1,308 @@
+package org.qrush.ticketing_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.qrush.ticketing_system.dto.TicketTypeResponse;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.entity.TicketTypeEntity;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.TicketTypeRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * First-class ticket types.
+ * The organizer's {@code EventEntity.ticketTypes} JSON is parsed once, on create and update,
+ * into {@code ticket_types} rows carrying price, quota and sold counter. Bookings look types
+ * up in an in-memory model cached per event, so the JSON blob is never re-read on the hot path.
+ * Only committed rows are cached: events from before the table existed are migrated in a
+ * transaction of their own, and edits drop the cached model again once they complete.
+ */
+@Service
+public class TicketTypeService {
+
+    private static final String EVENT_ID_REQUIRED = "Event ID must not be null";
+    private static final String DEFAULT_TYPE_NAME = "Regular";
+
+    private final TicketTypeRepository ticketTypeRepository;
+    private final EventRepository eventRepository;
+    private final TicketInventoryService ticketInventoryService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate migrationTemplate;
+    private final Map<Long, List<TicketType>> cache = new ConcurrentHashMap<>();
+
+    public TicketTypeService(TicketTypeRepository ticketTypeRepository,
+            EventRepository eventRepository,
+            TicketInventoryService ticketInventoryService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.ticketTypeRepository = ticketTypeRepository;
+        this.eventRepository = eventRepository;
+        this.ticketInventoryService = ticketInventoryService;
+        this.objectMapper = objectMapper;
+        this.migrationTemplate = new TransactionTemplate(transactionManager);
+        this.migrationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Bookable types of an event, in organizer order.
+     */
+    public List<TicketType> getTypes(Long eventId) {
+        Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        List<TicketType> cached = cache.get(eventId);
+        if (cached != null) {
+            return cached;
+        }
+        // Loaded outside the map, which must not be locked while the database is queried
+        List<TicketType> loaded = load(eventId);
+        List<TicketType> existing = cache.putIfAbsent(eventId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Finds a type by name (case-insensitive). A blank name selects the event's first type.
+     */
+    public TicketType resolve(Long eventId, String name) {
+        List<TicketType> types = getTypes(eventId);
+        if (name == null || name.isBlank()) {
+            return types.get(0);
+        }
+        String wanted = normalise(name);
+        return types.stream()
+                .filter(type -> normalise(type.name()).equals(wanted))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown ticket type: " + name));
+    }
+
+    /**
+     * Types with live availability, capped by the seats left in the event as a whole.
+     */
+    public List<TicketTypeResponse> describe(Long eventId) {
+        List<TicketType> types = getTypes(eventId);
+        int eventRemaining = ticketInventoryService.available(eventId);
+        if (eventRemaining < 0) {
+            eventRemaining = Optional.ofNullable(eventRepository.findRemainingCapacity(eventId)).orElse(0);
+        }
+        List<TicketTypeResponse> responses = new ArrayList<>(types.size());
+        for (TicketType type : types) {
+            int available = eventRemaining;
+            if (type.quota() != null) {
+                int typeRemaining = ticketInventoryService.availableForType(eventId, type.id());
+                if (typeRemaining < 0) {
+                    typeRemaining = type.quota() - type.soldAtLoad();
+                }
+                available = Math.min(available, typeRemaining);
+            }
+            responses.add(new TicketTypeResponse(type.id(), type.name(), type.price(), type.quota(),
+                    Math.max(available, 0), type.description(), type.features()));
+        }
+        return responses;
+    }
+
+    /**
+     * Re-parses the event's ticket type JSON into rows. Types that disappeared from the JSON are
+     * deactivated rather than deleted so existing tickets keep their type.
+     */
+    @Transactional
+    public void syncFromEvent(EventEntity event) {
+        Objects.requireNonNull(event, "Event must not be null");
+        Long eventId = Objects.requireNonNull(event.getEventID(), EVENT_ID_REQUIRED);
+        writeRows(event);
+        evictAfterCommit(eventId);
+    }
+
+    @Transactional
+    public void deleteForEvent(Long eventId) {
+        ticketTypeRepository.deleteByEventId(Objects.requireNonNull(eventId, EVENT_ID_REQUIRED));
+        evictAfterCommit(eventId);
+    }
+
+    public void evict(Long eventId) {
+        cache.remove(Objects.requireNonNull(eventId, EVENT_ID_REQUIRED));
+    }
+
+    private List<TicketType> load(Long eventId) {
+        List<TicketTypeEntity> rows = ticketTypeRepository.findByEventIdOrderBySortOrderAsc(eventId);
+        if (rows.isEmpty()) {
+            rows = migrateLegacy(eventId);
+        }
+        List<TicketType> types = rows.stream()
+                .filter(row -> Boolean.TRUE.equals(row.getActive()))
+                .map(this::toModel)
+                .toList();
+        if (types.isEmpty()) {
+            throw new IllegalStateException("Event has no bookable ticket types");
+        }
+        return types;
+    }
+
+    // Event created before ticket types had their own table. Committed on its own, so a booking that
+    // rolls back never leaves the cache holding IDs of rows that were never written
+    private List<TicketTypeEntity> migrateLegacy(Long eventId) {
+        try {
+            return migrationTemplate.execute(status -> {
+                List<TicketTypeEntity> rows = ticketTypeRepository.findByEventIdOrderBySortOrderAsc(eventId);
+                if (!rows.isEmpty()) {
+                    return rows;
+                }
+                EventEntity event = eventRepository.findById(eventId)
+                        .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
+                return writeRows(event);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node migrated the event first; read its rows in a fresh snapshot
+            return migrationTemplate.execute(status -> ticketTypeRepository.findByEventIdOrderBySortOrderAsc(eventId));
+        }
+    }
+
+    private void evictAfterCommit(Long eventId) {
+        cache.remove(eventId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A load during the edit may have cached rows the edit replaced, or ones it rolled back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.remove(eventId);
+                }
+            });
+        }
+    }
+
+    private List<TicketTypeEntity> writeRows(EventEntity event) {
+        Long eventId = event.getEventID();
+        Map<String, TicketTypeEntity> existing = new LinkedHashMap<>();
+        for (TicketTypeEntity row : ticketTypeRepository.findByEventIdOrderBySortOrderAsc(eventId)) {
+            existing.put(normalise(row.getName()), row);
+        }
+
+        List<TicketTypeEntity> rows = new ArrayList<>();
+        int order = 0;
+        for (ParsedType parsed : parse(event)) {
+            TicketTypeEntity row = existing.remove(normalise(parsed.name()));
+            if (row == null) {
+                row = new TicketTypeEntity();
+                row.setEventId(eventId);
+                row.setSold(0);
+            }
+            row.setName(parsed.name());
+            row.setPrice(parsed.price());
+            row.setQuota(parsed.quota());
+            row.setDescription(parsed.description());
+            row.setFeatures(parsed.features());
+            row.setSortOrder(order++);
+            row.setActive(true);
+            rows.add(row);
+        }
+        for (TicketTypeEntity removed : existing.values()) {
+            removed.setActive(false);
+            rows.add(removed);
+        }
+        return ticketTypeRepository.saveAll(rows);
+    }
+
+    private List<ParsedType> parse(EventEntity event) {
+        double defaultPrice = Optional.ofNullable(event.getTicketPrice()).orElse(0.0);
+        List<ParsedType> parsed = new ArrayList<>();
+        String json = event.getTicketTypes();
+        if (json != null && !json.isBlank()) {
+            try {
+                JsonNode root = objectMapper.readTree(json);
+                if (root.isArray()) {
+                    for (JsonNode node : root) {
+                        String name = node.path("name").asText("").trim();
+                        if (name.isEmpty() || parsed.stream().anyMatch(p -> normalise(p.name()).equals(normalise(name)))) {
+                            continue;
+                        }
+                        parsed.add(new ParsedType(
+                                name,
+                                node.path("price").asDouble(defaultPrice),
+                                quotaOf(node),
+                                node.path("description").asText(null),
+                                node.has("features") ? node.get("features").toString() : null));
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // Malformed JSON from older clients, fall back to a single default type
+                parsed.clear();
+            }
+        }
+        if (parsed.isEmpty()) {
+            parsed.add(new ParsedType(DEFAULT_TYPE_NAME, defaultPrice, null, null, null));
+        }
+        return parsed;
+    }
+
+    private Integer quotaOf(JsonNode node) {
+        for (String field : List.of("quota", "capacity", "quantity")) {
+            JsonNode value = node.get(field);
+            if (value != null && value.canConvertToInt() && value.asInt() > 0) {
+                return value.asInt();
+            }
+            if (value != null && value.isTextual() && value.asText().matches("\\d+") && Integer.parseInt(value.asText()) > 0) {
+                return Integer.parseInt(value.asText());
+            }
+        }
+        return null;
+    }
+
+    private TicketType toModel(TicketTypeEntity row) {
+        List<String> features = List.of();
+        if (row.getFeatures() != null) {
+            try {
+                features = List.copyOf(objectMapper.readValue(row.getFeatures(), new TypeReference<List<String>>() {
+                }));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                features = List.of();
+            }
+        }
+        return new TicketType(
+                row.getId(),
+                row.getEventId(),
+                row.getName(),
+                Optional.ofNullable(row.getPrice()).orElse(0.0),
+                row.getQuota(),
+                Optional.ofNullable(row.getSold()).orElse(0),
+                row.getDescription(),
+                features);
+    }
+
+    private static String normalise(String name) {
+        return name == null ? "" : name.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+    }
+
+    private record ParsedType(String name, double price, Integer quota, String description, String features) {
+    }
+
+    /**
+     * Immutable, parsed view of a ticket type. {@code soldAtLoad} is only a snapshot; live
+     * availability comes from {@link TicketInventoryService}.
+     */
+    public record TicketType(
+            Long id,
+            Long eventId,
+            String name,
+            double price,
+            Integer quota,
+            int soldAtLoad,
+            String description,
+            List<String> features
+    ) {
+    }
+}
@@ -0,0 +1,293 @@
+package org.qrush.ticketing_system.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * The set of users who viewed one event.
+ * Exact sets are compressed bitmaps: user IDs are split into 65536-wide chunks, each chunk holding
+ * a sorted array of the low 16 bits while sparse and a plain 8 KB bitmap once it has more than 4096
+ * members. A set can be turned into a HyperLogLog sketch (16384 registers, about 1% error) for
+ * events too big to track exactly; it then only estimates its size. Not thread-safe.
+ */
+public final class UniqueViewerSet {
+
+    private static final byte FORMAT_EXACT = 1;
+    private static final byte FORMAT_SKETCH = 2;
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final int PRECISION = 14;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    /**
+     * Members sharing the high 48 bits of their ID.
+     */
+    private static final class Container {
+        private char[] values = new char[4];
+        private long[] bitmap;
+        private int size;
+
+        boolean add(char low) {
+            if (bitmap != null) {
+                long bit = 1L << low;
+                if ((bitmap[low >>> 6] & bit) != 0) {
+                    return false;
+                }
+                bitmap[low >>> 6] |= bit;
+                size++;
+                return true;
+            }
+            int at = Arrays.binarySearch(values, 0, size, low);
+            if (at >= 0) {
+                return false;
+            }
+            if (size == ARRAY_MAX) {
+                toBitmap();
+                return add(low);
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+            }
+            int insert = -at - 1;
+            System.arraycopy(values, insert, values, insert + 1, size - insert);
+            values[insert] = low;
+            size++;
+            return true;
+        }
+
+        void forEach(long high, LongConsumer action) {
+            if (bitmap == null) {
+                for (int i = 0; i < size; i++) {
+                    action.accept(high << 16 | values[i]);
+                }
+                return;
+            }
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                long bits = bitmap[word];
+                while (bits != 0) {
+                    action.accept(high << 16 | (word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+
+        private void toBitmap() {
+            bitmap = new long[BITMAP_WORDS];
+            for (int i = 0; i < size; i++) {
+                bitmap[values[i] >>> 6] |= 1L << values[i];
+            }
+            values = null;
+        }
+    }
+
+    // Exactly one of containers and registers is set
+    private Map<Long, Container> containers = new HashMap<>();
+    private long cardinality;
+    private byte[] registers;
+    private double inverseSum;
+    private int zeros;
+
+    /**
+     * Adds a viewer and returns how much the set grew: 0 or 1 for an exact set, the growth of the
+     * estimate for a sketch.
+     */
+    public long add(long userId) {
+        if (registers == null) {
+            long high = userId >>> 16;
+            Container container = containers.computeIfAbsent(high, key -> new Container());
+            if (!container.add((char) userId)) {
+                return 0;
+            }
+            cardinality++;
+            return 1;
+        }
+        if (!addToSketch(userId)) {
+            return 0;
+        }
+        long estimate = estimate();
+        if (estimate <= cardinality) {
+            return 0;
+        }
+        long grown = estimate - cardinality;
+        cardinality = estimate;
+        return grown;
+    }
+
+    /**
+     * Number of viewers, estimated once the set is a sketch. Never decreases.
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public boolean isSketch() {
+        return registers != null;
+    }
+
+    /**
+     * Replaces the members with a HyperLogLog sketch of them; the count carries over.
+     */
+    public void toSketch() {
+        if (registers != null) {
+            return;
+        }
+        registers = new byte[REGISTERS];
+        inverseSum = REGISTERS;
+        zeros = REGISTERS;
+        Map<Long, Container> members = containers;
+        containers = null;
+        members.forEach((high, container) -> container.forEach(high, this::addToSketch));
+    }
+
+    /**
+     * Adds every viewer of {@code other}. A sketch on either side makes this set a sketch.
+     */
+    public void merge(UniqueViewerSet other) {
+        if (other.registers == null) {
+            other.containers.forEach((high, container) -> container.forEach(high, userId -> {
+                if (registers == null) {
+                    add(userId);
+                } else {
+                    addToSketch(userId);
+                }
+            }));
+        } else {
+            toSketch();
+            for (int i = 0; i < REGISTERS; i++) {
+                setRegister(i, other.registers[i]);
+            }
+            cardinality = Math.max(cardinality, other.cardinality);
+        }
+        if (registers != null) {
+            cardinality = Math.max(cardinality, estimate());
+        }
+    }
+
+    public UniqueViewerSet copy() {
+        return fromBytes(toBytes());
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (registers != null) {
+                out.writeByte(FORMAT_SKETCH);
+                out.writeLong(cardinality);
+                out.write(registers);
+                return bytes.toByteArray();
+            }
+            out.writeByte(FORMAT_EXACT);
+            out.writeInt(containers.size());
+            List<Long> highs = new ArrayList<>(containers.keySet());
+            highs.sort(null);
+            for (Long high : highs) {
+                Container container = containers.get(high);
+                out.writeLong(high);
+                out.writeShort(container.size - 1);
+                if (container.bitmap != null) {
+                    for (long word : container.bitmap) {
+                        out.writeLong(word);
+                    }
+                } else {
+                    for (int i = 0; i < container.size; i++) {
+                        out.writeChar(container.values[i]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static UniqueViewerSet fromBytes(byte[] data) {
+        UniqueViewerSet set = new UniqueViewerSet();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte format = in.readByte();
+            if (format == FORMAT_SKETCH) {
+                set.toSketch();
+                set.cardinality = in.readLong();
+                byte[] stored = new byte[REGISTERS];
+                in.readFully(stored);
+                for (int i = 0; i < REGISTERS; i++) {
+                    set.setRegister(i, stored[i]);
+                }
+                return set;
+            }
+            if (format != FORMAT_EXACT) {
+                throw new IllegalArgumentException("Unknown viewer set format " + format);
+            }
+            int count = in.readInt();
+            for (int c = 0; c < count; c++) {
+                Container container = new Container();
+                long high = in.readLong();
+                container.size = in.readUnsignedShort() + 1;
+                if (container.size > ARRAY_MAX) {
+                    container.values = null;
+                    container.bitmap = new long[BITMAP_WORDS];
+                    for (int i = 0; i < BITMAP_WORDS; i++) {
+                        container.bitmap[i] = in.readLong();
+                    }
+                } else {
+                    container.values = new char[container.size];
+                    for (int i = 0; i < container.size; i++) {
+                        container.values[i] = in.readChar();
+                    }
+                }
+                set.containers.put(high, container);
+                set.cardinality += container.size;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated viewer set", e);
+        }
+        return set;
+    }
+
+    private boolean addToSketch(long userId) {
+        long hash = mix(userId);
+        int index = (int) (hash >>> (64 - PRECISION));
+        int rank = Long.numberOfLeadingZeros(hash << PRECISION | 1L << (PRECISION - 1)) + 1;
+        return setRegister(index, rank);
+    }
+
+    private boolean setRegister(int index, int rank) {
+        int current = registers[index];
+        if (rank <= current) {
+            return false;
+        }
+        if (current == 0) {
+            zeros--;
+        }
+        inverseSum += Math.scalb(1.0, -rank) - Math.scalb(1.0, -current);
+        registers[index] = (byte) rank;
+        return true;
+    }
+
+    private long estimate() {
+        double raw = ALPHA * REGISTERS * REGISTERS / inverseSum;
+        // Linear counting is more accurate while many registers are still empty
+        if (raw <= 2.5 * REGISTERS && zeros > 0) {
+            return Math.round(REGISTERS * Math.log((double) REGISTERS / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    // SplitMix64 finalizer, so sequential user IDs spread over all registers
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,235 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.dto.QueueStatusResponse;
+import org.qrush.ticketing_system.service.WaitingRoomStore.RoomState;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-event virtual waiting room for on-sale rushes.
+ * A client joining the queue receives a signed token holding its sequence number. Rooms live in
+ * the database, so every node issues from the same sequence and honours any node's token: a room
+ * admits {@code burst} clients at once and then {@code ratePerSecond} more each second, so whether
+ * a sequence is admitted is worked out from the room's schedule and the clock, and status polls
+ * never touch the database. Each node reloads the open rooms every
+ * {@code waiting-room.refresh-millis}; a room opened on another node is enforced from its next reload.
+ * Using an admission to book is recorded in the booking's transaction, so it is spent only when
+ * the booking commits and a token books once across all nodes.
+ */
+@Service
+public class WaitingRoomService implements InitializingBean {
+
+    private static final String EVENT_ID_REQUIRED = "Event ID must not be null";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final WaitingRoomStore store;
+    private volatile Map<Long, RoomState> rooms = Map.of();
+    private byte[] secret;
+    private final double defaultRatePerSecond;
+    private final int defaultBurst;
+    private final long maxQueueSize;
+    private final long tokenTtlSeconds;
+
+    public WaitingRoomService(WaitingRoomStore store,
+            @Value("${waiting-room.secret:}") String secret,
+            @Value("${waiting-room.admission-rate-per-second:50}") double defaultRatePerSecond,
+            @Value("${waiting-room.burst:100}") int defaultBurst,
+            @Value("${waiting-room.max-queue-size:200000}") long maxQueueSize,
+            @Value("${waiting-room.token-ttl-seconds:7200}") long tokenTtlSeconds) {
+        this.store = store;
+        this.secret = secret == null || secret.isBlank() ? null : secret.getBytes(StandardCharsets.UTF_8);
+        this.defaultRatePerSecond = defaultRatePerSecond;
+        this.defaultBurst = defaultBurst;
+        this.maxQueueSize = maxQueueSize;
+        this.tokenTtlSeconds = tokenTtlSeconds;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        store.createTables();
+        if (secret == null) {
+            // Tokens from one node are verified on the others, so a generated secret is shared through the database
+            secret = store.sharedSecret();
+        }
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${waiting-room.refresh-millis:2000}")
+    public void refresh() {
+        Map<Long, RoomState> loaded = new HashMap<>();
+        for (RoomState room : store.loadOpen()) {
+            loaded.put(room.eventId(), room);
+        }
+        rooms = Map.copyOf(loaded);
+    }
+
+    /**
+     * Starts queueing buyers for an event. Re-opening an open room only updates its rate.
+     */
+    public void open(Long eventId, Double ratePerSecond, Integer burst) {
+        Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        double rate = ratePerSecond != null && ratePerSecond > 0 ? ratePerSecond : defaultRatePerSecond;
+        int bucket = burst != null && burst > 0 ? burst : defaultBurst;
+        store.open(eventId, rate, bucket, System.currentTimeMillis());
+        refresh();
+    }
+
+    public void close(Long eventId) {
+        store.close(Objects.requireNonNull(eventId, EVENT_ID_REQUIRED));
+        refresh();
+    }
+
+    public boolean isOpen(Long eventId) {
+        return eventId != null && rooms.containsKey(eventId);
+    }
+
+    /**
+     * Issues a queue token. When no room is open for the event the client is admitted straight away.
+     */
+    public QueueStatusResponse join(Long eventId) {
+        Objects.requireNonNull(eventId, EVENT_ID_REQUIRED);
+        RoomState room = rooms.get(eventId);
+        if (room == null) {
+            return new QueueStatusResponse(eventId, null, true, 0, 0);
+        }
+        long now = System.currentTimeMillis();
+        long admitted = room.admitted(now);
+        // After an idle spell only a burst's worth of newcomers is admitted at once
+        long sequence = store.issue(eventId, admitted - room.burst(), admitted + maxQueueSize);
+        if (sequence < 0) {
+            throw new IllegalStateException("The waiting room for this event is full, please try again later");
+        }
+        String token = sign(eventId, sequence, now / 1000);
+        return statusOf(eventId, token, room, sequence, now);
+    }
+
+    public QueueStatusResponse status(String token) {
+        QueueToken parsed = parse(token);
+        RoomState room = rooms.get(parsed.eventId());
+        if (room == null) {
+            return new QueueStatusResponse(parsed.eventId(), token, true, 0, 0);
+        }
+        return statusOf(parsed.eventId(), token, room, parsed.sequence(), System.currentTimeMillis());
+    }
+
+    /**
+     * Gatekeeper for the booking endpoints: rejects tokens that are not admitted yet without
+     * touching the database. Does not use the admission; see {@link #consumeAdmission}.
+     */
+    public void checkAdmission(Long eventId, String token) {
+        admittedSequence(eventId, token);
+    }
+
+    /**
+     * Uses the admission to book, in the caller's transaction if there is one: the admission is
+     * spent only if that transaction commits, and a second booking with the same token fails.
+     */
+    public void consumeAdmission(Long eventId, String token) {
+        Long sequence = admittedSequence(eventId, token);
+        if (sequence != null && !store.claim(eventId, sequence)) {
+            throw new NotAdmittedException("This queue token has already been used. Please rejoin the queue.");
+        }
+    }
+
+    // The token's sequence once it may book, or null when the event has no room open
+    private Long admittedSequence(Long eventId, String token) {
+        RoomState room = eventId == null ? null : rooms.get(eventId);
+        if (room == null) {
+            return null;
+        }
+        if (token == null || token.isBlank()) {
+            throw new NotAdmittedException("This event is using a waiting room. Join the queue before booking.");
+        }
+        QueueToken parsed;
+        try {
+            parsed = parse(token);
+        } catch (IllegalArgumentException e) {
+            throw new NotAdmittedException(e.getMessage());
+        }
+        if (!parsed.eventId().equals(eventId)) {
+            throw new NotAdmittedException("Queue token belongs to a different event");
+        }
+        if (Instant.now().getEpochSecond() - parsed.issuedAt() > tokenTtlSeconds) {
+            throw new NotAdmittedException("Queue token has expired. Please rejoin the queue.");
+        }
+        if (parsed.sequence() >= room.admitted(System.currentTimeMillis())) {
+            throw new NotAdmittedException("It's not your turn yet. Please keep waiting.");
+        }
+        return parsed.sequence();
+    }
+
+    private QueueStatusResponse statusOf(Long eventId, String token, RoomState room, long sequence, long now) {
+        long ahead = Math.max(0, sequence - room.admitted(now) + 1);
+        long wait = ahead == 0 ? 0 : (long) Math.ceil(ahead / room.ratePerSecond());
+        return new QueueStatusResponse(eventId, token, ahead == 0, ahead, wait);
+    }
+
+    private String sign(Long eventId, long sequence, long issuedAt) {
+        ByteBuffer payload = ByteBuffer.allocate(Long.BYTES * 3)
+                .putLong(eventId)
+                .putLong(sequence)
+                .putLong(issuedAt);
+        byte[] body = payload.array();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(body) + "." + encoder.encodeToString(mac(body));
+    }
+
+    private QueueToken parse(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("Queue token must not be null");
+        }
+        int separator = token.indexOf('.');
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] body = decoder.decode(token.substring(0, Math.max(separator, 0)));
+            byte[] signature = decoder.decode(token.substring(separator + 1));
+            if (separator <= 0 || body.length != Long.BYTES * 3 || !MessageDigest.isEqual(mac(body), signature)) {
+                throw new IllegalArgumentException("Queue token is invalid");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            return new QueueToken(buffer.getLong(), buffer.getLong(), buffer.getLong());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Queue token is invalid", ex);
+        }
+    }
+
+    private byte[] mac(byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            byte[] full = mac.doFinal(body);
+            byte[] truncated = new byte[SIGNATURE_BYTES];
+            System.arraycopy(full, 0, truncated, 0, SIGNATURE_BYTES);
+            return truncated;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to sign queue token", ex);
+        }
+    }
+
+    private record QueueToken(Long eventId, long sequence, long issuedAt) {
+    }
+
+    /**
+     * A booking was refused by the waiting room: no token, not admitted yet, or already used.
+     */
+    public static final class NotAdmittedException extends IllegalStateException {
+        public NotAdmittedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.qrush.ticketing_system.service;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Waiting room state shared by every node: one row per open room holding its admission schedule
+ * and issued counter, and one row per admission used to book.
+ */
+@Component
+class WaitingRoomStore {
+
+    static final String ROOMS_TABLE = "waiting_rooms";
+    static final String ADMISSIONS_TABLE = "waiting_room_admissions";
+    private static final String SECRET_NAME = "waiting_room_token";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    WaitingRoomStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    void createTables() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ROOMS_TABLE
+                + " (event_id BIGINT NOT NULL PRIMARY KEY, rate_per_second DOUBLE NOT NULL, burst INT NOT NULL,"
+                + " admitted_base BIGINT NOT NULL, admitted_since BIGINT NOT NULL, issued BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ADMISSIONS_TABLE
+                + " (event_id BIGINT NOT NULL, sequence BIGINT NOT NULL, PRIMARY KEY (event_id, sequence))");
+    }
+
+    // Generated once and kept for every node to share, like the QR signing secret
+    byte[] sharedSecret() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS app_secrets "
+                + "(name VARCHAR(100) NOT NULL PRIMARY KEY, secret_value VARCHAR(255) NOT NULL)");
+        byte[] generated = new byte[32];
+        new SecureRandom().nextBytes(generated);
+        jdbcTemplate.update("INSERT IGNORE INTO app_secrets (name, secret_value) VALUES (?, ?)",
+                SECRET_NAME, HexFormat.of().formatHex(generated));
+        String stored = jdbcTemplate.queryForObject("SELECT secret_value FROM app_secrets WHERE name = ?",
+                String.class, SECRET_NAME);
+        return HexFormat.of().parseHex(Objects.requireNonNull(stored, "Waiting room secret is missing"));
+    }
+
+    List<RoomState> loadOpen() {
+        return jdbcTemplate.query("SELECT event_id, rate_per_second, burst, admitted_base, admitted_since FROM "
+                + ROOMS_TABLE, (rs, row) -> new RoomState(rs.getLong(1), rs.getDouble(2), rs.getInt(3),
+                        rs.getLong(4), rs.getLong(5)));
+    }
+
+    /**
+     * Opens a room, or changes the rate of an open one from {@code nowMillis} on without moving
+     * the admissions already made.
+     */
+    void open(Long eventId, double ratePerSecond, int burst, long nowMillis) {
+        // MySQL assigns left to right, so admitted_base is advanced with the old rate and start
+        jdbcTemplate.update("INSERT INTO " + ROOMS_TABLE
+                + " (event_id, rate_per_second, burst, admitted_base, admitted_since, issued) VALUES (?, ?, ?, ?, ?, 0)"
+                + " ON DUPLICATE KEY UPDATE"
+                + " admitted_base = admitted_base + FLOOR(rate_per_second * (VALUES(admitted_since) - admitted_since) / 1000),"
+                + " admitted_since = VALUES(admitted_since), rate_per_second = VALUES(rate_per_second),"
+                + " burst = VALUES(burst)",
+                eventId, ratePerSecond, burst, (long) burst, nowMillis);
+    }
+
+    void close(Long eventId) {
+        jdbcTemplate.update("DELETE FROM " + ROOMS_TABLE + " WHERE event_id = ?", eventId);
+        jdbcTemplate.update("DELETE FROM " + ADMISSIONS_TABLE + " WHERE event_id = ?", eventId);
+    }
+
+    /**
+     * Issues the next queue sequence, skipping ahead to {@code floor} after an idle spell.
+     * Returns -1 when the room is closed or {@code limit} sequences are already issued.
+     */
+    long issue(Long eventId, long floor, long limit) {
+        Long sequence = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update("UPDATE " + ROOMS_TABLE
+                    + " SET issued = LAST_INSERT_ID(GREATEST(issued, ?) + 1) WHERE event_id = ? AND GREATEST(issued, ?) < ?",
+                    floor, eventId, floor, limit);
+            if (updated == 0) {
+                return -1L;
+            }
+            Long issued = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+            return Objects.requireNonNull(issued, "Queue sequence was not returned") - 1;
+        });
+        return Objects.requireNonNull(sequence, "Queue sequence was not returned");
+    }
+
+    /**
+     * Records that an admission was used, in the caller's transaction if there is one, so a
+     * rolled-back booking leaves the admission unused. Returns false if it was used already.
+     */
+    boolean claim(Long eventId, long sequence) {
+        try {
+            jdbcTemplate.update("INSERT INTO " + ADMISSIONS_TABLE + " (event_id, sequence) VALUES (?, ?)",
+                    eventId, sequence);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Admission schedule of an open room: sequences below {@link #admitted(long)} may book.
+     */
+    record RoomState(Long eventId, double ratePerSecond, int burst, long admittedBase, long admittedSince) {
+        long admitted(long nowMillis) {
+            return admittedBase + (long) Math.floor(ratePerSecond * Math.max(0, nowMillis - admittedSince) / 1000);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.qrush.ticketing_system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class AttendanceLogWriterTest {
+
+	private static final long FLUSH_TIMEOUT_MILLIS = 200;
+
+	private AttendanceLogWriter writer;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// The database is down for the whole test
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		doThrow(new DataAccessResourceFailureException("Connection refused")).when(jdbcTemplate)
+				.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+		writer = new AttendanceLogWriter(jdbcTemplate, mock(PlatformTransactionManager.class),
+				mock(OutboxService.class), mock(StaffDashboardStream.class), new ObjectMapper(), 100, 10, 5, 50,
+				FLUSH_TIMEOUT_MILLIS, false, false, "unused", 100);
+		writer.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		writer.shutdown();
+	}
+
+	@Test
+	void flushGivesUpWhileTheDatabaseIsDownAndScansKeepQueueing() {
+		writer.submit(entry(1L));
+
+		long started = System.nanoTime();
+		assertThatThrownBy(writer::flush)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("not written");
+		assertThat(System.nanoTime() - started).isLessThan(FLUSH_TIMEOUT_MILLIS * 10 * 1_000_000);
+
+		assertThatCode(() -> writer.submit(entry(2L))).doesNotThrowAnyException();
+	}
+
+	@Test
+	void waitingForTicketsIgnoresOtherTicketsScans() {
+		writer.submit(entry(1L));
+
+		assertThatCode(() -> writer.awaitTickets(List.of(2L, 3L))).doesNotThrowAnyException();
+		assertThatThrownBy(() -> writer.awaitTickets(List.of(1L))).isInstanceOf(IllegalStateException.class);
+	}
+
+	private static AttendanceLogWriter.Entry entry(long ticketId) {
+		return new AttendanceLogWriter.Entry(UUID.randomUUID().toString(), ticketId, 9L, 5L, LocalDateTime.now(),
+				"valid", 0, "Gate A", true, "Gig", "General", "Ana", "ana@example.com");
+	}
+}
@@ -0,0 +1,228 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qrush.ticketing_system.entity.CancellationJobStatus;
+import org.qrush.ticketing_system.entity.EventCancellationJobEntity;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.entity.NotificationEntity;
+import org.qrush.ticketing_system.entity.OutboxEventType;
+import org.qrush.ticketing_system.entity.PaymentEntity;
+import org.qrush.ticketing_system.repository.EventCancellationJobRepository;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.NotificationRepository;
+import org.qrush.ticketing_system.repository.PaymentRepository;
+import org.qrush.ticketing_system.repository.TicketRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventCancellationJobTest {
+
+	private static final long EVENT_ID = 11L;
+	private static final long TICKETS = 1_200;
+	// Does not divide the chunk size, so some holders have tickets in two chunks
+	private static final int TICKETS_PER_HOLDER = 3;
+	private static final int CHUNK_SIZE = 500;
+	private static final int MAX_ATTEMPTS = 3;
+
+	private final Set<Long> refunded = new HashSet<>();
+	// Tickets whose bookings have not committed yet
+	private final Set<Long> uncommitted = new HashSet<>();
+	private final List<PaymentEntity> payments = new ArrayList<>();
+	private final List<NotificationEntity> notifications = new ArrayList<>();
+	private final AtomicInteger statusUpdates = new AtomicInteger();
+	private final EventCancellationJobEntity job = new EventCancellationJobEntity();
+	private OutboxService outboxService;
+	private EventCancellationJob cancellationJob;
+	private int failOnUpdate = -1;
+	private int failuresLeft = 1;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		job.setEventId(EVENT_ID);
+		job.setStatus(CancellationJobStatus.RUNNING);
+		job.setReason("Venue flooded");
+
+		EventEntity event = mock(EventEntity.class);
+		when(event.getName()).thenReturn("Harbour Festival");
+		when(event.getOrganizer()).thenReturn("99");
+
+		EventCancellationJobRepository jobRepository = mock(EventCancellationJobRepository.class);
+		when(jobRepository.findEventIdsByStatus(CancellationJobStatus.RUNNING))
+				.thenAnswer(invocation -> job.getStatus() == CancellationJobStatus.RUNNING ? List.of(EVENT_ID) : List.of());
+		when(jobRepository.findForUpdate(EVENT_ID, CancellationJobStatus.RUNNING))
+				.thenAnswer(invocation -> job.getStatus() == CancellationJobStatus.RUNNING ? Optional.of(job) : Optional.empty());
+		when(jobRepository.findById(EVENT_ID)).thenReturn(Optional.of(job));
+
+		EventRepository eventRepository = mock(EventRepository.class);
+		when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event));
+
+		TicketRepository ticketRepository = mock(TicketRepository.class);
+		when(ticketRepository.findRefundableAfter(eq(EVENT_ID), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+			long afterId = invocation.getArgument(1);
+			int size = invocation.<Pageable>getArgument(2).getPageSize();
+			List<Object[]> rows = new ArrayList<>();
+			for (long ticketId = afterId + 1; ticketId <= TICKETS && rows.size() < size; ticketId++) {
+				if (!refunded.contains(ticketId) && !uncommitted.contains(ticketId)) {
+					rows.add(new Object[] { ticketId, holderOf(ticketId), 250.0 });
+				}
+			}
+			return rows;
+		});
+		when(ticketRepository.countRefundable(EVENT_ID)).thenAnswer(invocation -> TICKETS - uncommitted.size() - refunded.size());
+		when(ticketRepository.sumRefundedByHolderAfter(eq(EVENT_ID), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+			long afterUserId = invocation.getArgument(1);
+			int size = invocation.<Pageable>getArgument(2).getPageSize();
+			Map<Long, Double> byHolder = new TreeMap<>();
+			for (long ticketId : refunded) {
+				long userId = holderOf(ticketId);
+				if (userId > afterUserId) {
+					byHolder.merge(userId, 250.0, Double::sum);
+				}
+			}
+			return byHolder.entrySet().stream().limit(size)
+					.map(entry -> new Object[] { entry.getKey(), entry.getValue() })
+					.toList();
+		});
+		when(ticketRepository.updateStatusByIds(anyList(), eq("refunded"))).thenAnswer(invocation -> {
+			if (statusUpdates.getAndIncrement() == failOnUpdate && failuresLeft-- > 0) {
+				throw new IllegalStateException("Lock wait timeout exceeded");
+			}
+			List<Long> ids = invocation.getArgument(0);
+			refunded.addAll(ids);
+			return ids.size();
+		});
+
+		PaymentRepository paymentRepository = mock(PaymentRepository.class);
+		when(paymentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			payments.addAll(invocation.getArgument(0));
+			return invocation.getArgument(0);
+		});
+		NotificationRepository notificationRepository = mock(NotificationRepository.class);
+		when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			notifications.addAll(invocation.getArgument(0));
+			return invocation.getArgument(0);
+		});
+
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+		outboxService = mock(OutboxService.class);
+
+		cancellationJob = new EventCancellationJob(jobRepository, eventRepository, ticketRepository, paymentRepository,
+				notificationRepository, outboxService, transactionManager, CHUNK_SIZE, MAX_ATTEMPTS);
+	}
+
+	@Test
+	void processesOneChunkPerPoll() {
+		cancellationJob.run();
+
+		assertThat(job.getStatus()).isEqualTo(CancellationJobStatus.RUNNING);
+		assertThat(job.getTicketsRefunded()).isEqualTo(CHUNK_SIZE);
+		assertThat(statusUpdates.get()).isEqualTo(1);
+	}
+
+	@Test
+	void refundsEveryTicketInChunksAndNotifiesEachHolderOnceForAllTheirTickets() {
+		runUntilSettled();
+
+		assertThat(job.getStatus()).isEqualTo(CancellationJobStatus.COMPLETED);
+		assertThat(job.getTicketsRefunded()).isEqualTo(TICKETS);
+		assertThat(job.getTotalRefundAmount()).isEqualTo(TICKETS * 250.0);
+		assertThat(statusUpdates.get()).isEqualTo(3);
+		assertThat(refunded).hasSize((int) TICKETS);
+		assertThat(payments).hasSize((int) TICKETS);
+		assertThat(payments).extracting(PaymentEntity::getTransactionReference).doesNotHaveDuplicates();
+		assertThat(notifications).hasSize((int) TICKETS / TICKETS_PER_HOLDER);
+		assertThat(notifications).extracting(NotificationEntity::getUserId).doesNotHaveDuplicates();
+		assertThat(notifications).allSatisfy(notification -> assertThat(notification.getMessage()).contains("₱750.00"));
+		verify(outboxService, times(1)).publish(eq(OutboxEventType.EVENT_CANCELLED), eq(EVENT_ID), anyMap());
+	}
+
+	@Test
+	void failedChunkResumesFromLastCommittedCursor() {
+		failOnUpdate = 1;
+		cancellationJob.run();
+		cancellationJob.run();
+
+		assertThat(job.getStatus()).isEqualTo(CancellationJobStatus.RUNNING);
+		assertThat(job.getLastTicketId()).isEqualTo(CHUNK_SIZE);
+		assertThat(job.getTicketsRefunded()).isEqualTo(CHUNK_SIZE);
+		assertThat(job.getAttempts()).isEqualTo(1);
+		assertThat(job.getLastError()).contains("Lock wait timeout");
+
+		runUntilSettled();
+
+		assertThat(job.getStatus()).isEqualTo(CancellationJobStatus.COMPLETED);
+		assertThat(job.getTicketsRefunded()).isEqualTo(TICKETS);
+		assertThat(payments).hasSize((int) TICKETS);
+		assertThat(job.getAttempts()).isZero();
+		assertThat(job.getLastError()).isNull();
+		verify(outboxService, times(1)).publish(eq(OutboxEventType.EVENT_CANCELLED), eq(EVENT_ID), anyMap());
+	}
+
+	@Test
+	void givesUpAfterRepeatedFailures() {
+		failOnUpdate = 0;
+		failuresLeft = Integer.MAX_VALUE;
+		for (int poll = 0; poll < MAX_ATTEMPTS + 2; poll++) {
+			// Every poll fails on its first update
+			statusUpdates.set(0);
+			cancellationJob.run();
+		}
+
+		assertThat(job.getStatus()).isEqualTo(CancellationJobStatus.FAILED);
+		assertThat(job.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+		assertThat(refunded).isEmpty();
+		verify(outboxService, times(0)).publish(any(), any(), anyMap());
+	}
+
+	@Test
+	void ticketsBehindTheCursorAreSweptBeforeCompleting() {
+		// A booking from before the cancellation commits late, with an ID the cursor has already passed
+		uncommitted.add(3L);
+		cancellationJob.run();
+		assertThat(job.getLastTicketId()).isGreaterThan(3L);
+
+		uncommitted.remove(3L);
+		runUntilSettled();
+
+		assertThat(job.getStatus()).isEqualTo(CancellationJobStatus.COMPLETED);
+		assertThat(job.getTicketsRefunded()).isEqualTo(TICKETS);
+		assertThat(refunded).contains(3L);
+		assertThat(notifications).filteredOn(notification -> notification.getUserId() == holderOf(3L))
+				.singleElement()
+				.satisfies(notification -> assertThat(notification.getMessage()).contains("₱750.00"));
+	}
+
+	private static long holderOf(long ticketId) {
+		return 1000 + (ticketId - 1) / TICKETS_PER_HOLDER;
+	}
+
+	private void runUntilSettled() {
+		for (int poll = 0; poll < 100 && job.getStatus() == CancellationJobStatus.RUNNING; poll++) {
+			cancellationJob.run();
+		}
+	}
+}
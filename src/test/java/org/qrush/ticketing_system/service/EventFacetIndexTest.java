@@ -0,0 +1,107 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qrush.ticketing_system.dto.EventFacetResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.qrush.ticketing_system.service.TestEvents.event;
+
+class EventFacetIndexTest {
+
+	private static final LocalDateTime NOVEMBER = LocalDateTime.of(2026, 11, 10, 19, 0);
+	private static final LocalDateTime DECEMBER = LocalDateTime.of(2026, 12, 20, 19, 0);
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private EventFacetIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new EventFacetIndex(jdbcTemplate, new double[] { 1000, 5000 }, 0.1);
+		index.index(event(1, "Concert", 0, 100, 0, NOVEMBER));
+		index.index(event(2, "concert", 2500, 100, 95, NOVEMBER.plusDays(15)));
+		index.index(event(3, "Seminar", 800, 50, 50, DECEMBER));
+		index.index(event(4, "Festival", 7500, 1000, 10, DECEMBER.plusDays(1)));
+	}
+
+	@Test
+	void intersectsFiltersAndCountsEachFacetUnderTheOthers() {
+		EventFacetResponse response = index.query(new EventFacetIndex.Query(List.of("concert"), null, null,
+				List.of("available", "limited"), null, null, null, null));
+
+		assertThat(response.total()).isEqualTo(2);
+		assertThat(response.eventIds()).containsExactly(1L, 2L);
+		// Category counts ignore the category filter but respect availability
+		assertThat(response.counts().get(EventFacetIndex.CATEGORY))
+				.containsEntry("concert", 2).containsEntry("seminar", 0).containsEntry("festival", 1);
+		assertThat(response.counts().get(EventFacetIndex.AVAILABILITY))
+				.containsEntry("available", 1).containsEntry("limited", 1).containsEntry("sold_out", 0);
+		assertThat(response.counts().get(EventFacetIndex.PRICE))
+				.containsEntry("free", 1).containsEntry("1000-5000", 1);
+	}
+
+	@Test
+	void filtersByExactDateWindow() {
+		EventFacetResponse response = index.query(new EventFacetIndex.Query(null, null, null, null,
+				NOVEMBER.plusDays(1), DECEMBER, null, null));
+
+		assertThat(response.eventIds()).containsExactly(2L, 3L);
+	}
+
+	@Test
+	void movesEventsBetweenAvailabilityBandsAsSeatsSell() {
+		index.addSold(1L, 95);
+		index.addSold(2L, 5);
+
+		EventFacetResponse response = index.query(new EventFacetIndex.Query(null, null, null,
+				List.of("sold_out"), null, null, null, null));
+
+		assertThat(response.eventIds()).containsExactly(2L, 3L);
+		assertThat(response.counts().get(EventFacetIndex.AVAILABILITY)).containsEntry("limited", 1);
+	}
+
+	@Test
+	void seatsSoldWhileRebuildingAreCountedOnce() throws Exception {
+		ResultSet row = mock(ResultSet.class);
+		when(row.getLong("eventid")).thenReturn(1L);
+		when(row.getString("category")).thenReturn("Concert");
+		when(row.getString("status")).thenReturn("AVAILABLE");
+		when(row.getInt("capacity")).thenReturn(100);
+		// The booking commits before the rebuild reads its row
+		when(row.getInt("tickets_sold")).thenReturn(95);
+		when(row.getObject("start_date", LocalDateTime.class)).thenReturn(NOVEMBER);
+		when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenAnswer(invocation -> {
+			index.addSold(1L, 95);
+			RowMapper<?> mapper = invocation.getArgument(1);
+			return List.of(mapper.mapRow(row, 0));
+		});
+
+		index.rebuild();
+
+		EventFacetResponse response = index.query(new EventFacetIndex.Query(null, null, null, null,
+				null, null, null, null));
+		assertThat(response.counts().get(EventFacetIndex.AVAILABILITY))
+				.containsEntry("limited", 1).doesNotContainKey("sold_out");
+	}
+
+	@Test
+	void forgetsRemovedEvents() {
+		index.remove(4L);
+
+		EventFacetResponse response = index.query(new EventFacetIndex.Query(null, null, List.of("5000+"), null,
+				null, null, null, null));
+
+		assertThat(response.total()).isZero();
+		assertThat(response.counts().get(EventFacetIndex.CATEGORY)).doesNotContainKey("festival");
+	}
+}
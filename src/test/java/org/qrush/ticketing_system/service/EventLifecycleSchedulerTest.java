@@ -0,0 +1,37 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.qrush.ticketing_system.entity.EventStatus;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventLifecycleSchedulerTest {
+
+	@Test
+	void endTimeScheduledWhileAReloadReadsIsKept() {
+		EventRepository events = mock(EventRepository.class);
+		EventLifecycleScheduler scheduler = new EventLifecycleScheduler(events, mock(PlatformTransactionManager.class),
+				60, 30);
+		// The event is rescheduled after the reload's read, so the read does not see it
+		when(events.findEndDatesByStatus(eq(EventStatus.AVAILABLE), any())).thenAnswer(invocation -> {
+			scheduler.schedule(LocalDateTime.now().minusSeconds(1));
+			return List.of();
+		});
+		when(events.findEndDatesByStatus(eq(EventStatus.ENDED), any())).thenReturn(List.of());
+
+		scheduler.reload();
+		scheduler.tick();
+
+		verify(events, times(1)).transitionStatus(eq(EventStatus.AVAILABLE), eq(EventStatus.ENDED), any());
+	}
+}
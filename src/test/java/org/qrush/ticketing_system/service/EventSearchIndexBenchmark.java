@@ -0,0 +1,53 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.qrush.ticketing_system.service.TestEvents.event;
+
+/**
+ * Query latency over a large catalog. Not part of the unit suite (surefire only picks up *Test
+ * classes); run it on demand with {@code mvn test -Dtest=EventSearchIndexBenchmark}.
+ */
+class EventSearchIndexBenchmark {
+
+	private static final int EVENTS = 20_000;
+	private static final String[] CATEGORIES = { "concert", "seminar", "festival", "sports", "theatre" };
+	private static final String[] CITIES = { "Colombo", "Kandy", "Galle", "Jaffna", "Negombo" };
+
+	@Test
+	void reportsQueryLatency() {
+		EventSearchIndex index = new EventSearchIndex(mock(JdbcTemplate.class));
+		LocalDateTime start = LocalDateTime.of(2026, 11, 1, 19, 0);
+		for (long id = 1; id <= EVENTS; id++) {
+			String category = CATEGORIES[(int) (id % CATEGORIES.length)];
+			index.index(event(id, "Event " + id + " " + category, category, CITIES[(int) (id % CITIES.length)],
+					"An evening of live entertainment number " + id, start.plusDays(id % 90)));
+		}
+		index.index(event(EVENTS + 1, "Jazz Café Nights", "concert", "Colombo", "Smooth jazz under the stars", start));
+		index.index(event(EVENTS + 2, "Open Air Cinema", "festival", "Galle", "Films, food and a little jazz", start));
+
+		double selective = microsPerQuery(index, "jazz cinema");
+		double broad = microsPerQuery(index, "colombo concert");
+
+		System.out.printf("Event search over %d events: selective %.1f us/query, broad %.1f us/query%n",
+				EVENTS + 2, selective, broad);
+		assertThat(index.search("colombo concert", 20)).hasSize(20);
+	}
+
+	private static double microsPerQuery(EventSearchIndex index, String query) {
+		int queries = 2_000;
+		for (int i = 0; i < queries; i++) {
+			index.search(query, 20);
+		}
+		long begin = System.nanoTime();
+		for (int i = 0; i < queries; i++) {
+			index.search(query, 20);
+		}
+		return (System.nanoTime() - begin) / 1_000.0 / queries;
+	}
+}
@@ -0,0 +1,51 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qrush.ticketing_system.dto.EventSearchResult;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.qrush.ticketing_system.service.TestEvents.event;
+
+class EventSearchIndexTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2026, 11, 1, 19, 0);
+
+	private EventSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new EventSearchIndex(mock(JdbcTemplate.class));
+		index.index(event(1, "Colombo Rock Concert", "concert", "Colombo", "An evening of live music", START));
+		index.index(event(2, "Startup Seminar", "seminar", "Kandy", "Talks from local founders", START.plusDays(1)));
+		index.index(event(3, "Jazz Café Nights", "concert", "Colombo", "Smooth jazz under the stars", START.plusDays(2)));
+		index.index(event(4, "Open Air Cinema", "festival", "Galle", "Films, food and a little jazz", START.plusDays(3)));
+	}
+
+	@Test
+	void ranksNameMatchesAboveDescriptionMatchesAndFoldsAccents() {
+		List<EventSearchResult> results = index.search("jazz cafe", 10);
+
+		assertThat(results).extracting(EventSearchResult::eventID).startsWith(3L, 4L);
+	}
+
+	@Test
+	void matchesTheLastWordAsAPrefixWhileTyping() {
+		assertThat(index.search("cinem", 5)).extracting(EventSearchResult::eventID).containsExactly(4L);
+		assertThat(index.search("cinem ", 5)).isEmpty();
+	}
+
+	@Test
+	void reflectsUpdatesAndRemovals() {
+		index.index(event(4, "Open Air Theatre", "theatre", "Galle", "Shakespeare by the fort", START.plusDays(3)));
+		assertThat(index.search("cinema", 5)).isEmpty();
+
+		index.remove(3L);
+		assertThat(index.search("jazz", 5)).extracting(EventSearchResult::eventID).doesNotContain(3L);
+	}
+}
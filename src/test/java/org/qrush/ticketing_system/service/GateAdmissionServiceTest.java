@@ -0,0 +1,231 @@
+package org.qrush.ticketing_system.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qrush.ticketing_system.dto.TicketScanRequest;
+import org.qrush.ticketing_system.dto.TicketScanResponse;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.entity.OutboxEventType;
+import org.qrush.ticketing_system.entity.TicketEntity;
+import org.qrush.ticketing_system.entity.UserEntity;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.PaymentRepository;
+import org.qrush.ticketing_system.repository.TicketRepository;
+import org.qrush.ticketing_system.repository.UserRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GateAdmissionServiceTest {
+
+	private static final long EVENT_ID = 7L;
+	private static final int TICKETS = 2_000;
+	private static final int GATES = 16;
+
+	private final Queue<AttendanceLogWriter.Entry> written = new ConcurrentLinkedQueue<>();
+	// The ticket rows the conditional UPDATE has marked CHECKED_IN, shared by every node of a test
+	private final Set<Long> claimedRows = ConcurrentHashMap.newKeySet();
+	private EventRepository eventRepository;
+	private TicketRepository ticketRepository;
+	private AttendanceLogWriter writer;
+	private GateAdmissionService service;
+
+	@BeforeEach
+	void setUp() {
+		LocalDateTime now = LocalDateTime.now();
+		EventEntity event = mock(EventEntity.class);
+		when(event.getEventID()).thenReturn(EVENT_ID);
+		when(event.getName()).thenReturn("Stress Test");
+		when(event.getStartDate()).thenReturn(now);
+		when(event.getEndDate()).thenReturn(now.plusHours(3));
+
+		List<Object[]> rows = new ArrayList<>();
+		for (long ticketId = 1; ticketId <= TICKETS; ticketId++) {
+			rows.add(new Object[] { ticketId, "Q1.code" + ticketId, "ACTIVE", "General", 1000 + ticketId,
+					"Attendee " + ticketId, "attendee" + ticketId + "@example.com", 0, null });
+		}
+
+		eventRepository = mock(EventRepository.class);
+		ticketRepository = mock(TicketRepository.class);
+		writer = mock(AttendanceLogWriter.class);
+		when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event));
+		when(ticketRepository.findAdmissionRows(EVENT_ID)).thenReturn(rows);
+		when(ticketRepository.markCheckedIn(any(), any(), any()))
+				.thenAnswer(invocation -> claimedRows.add(invocation.getArgument(0)) ? 1 : 0);
+		doAnswer(invocation -> written.add(invocation.getArgument(0))).when(writer).submit(any());
+
+		service = node();
+	}
+
+	private GateAdmissionService node() {
+		return new GateAdmissionService(eventRepository, ticketRepository, writer,
+				mock(PlatformTransactionManager.class), 3, 6);
+	}
+
+	@Test
+	void simultaneousScansAtEveryGateAdmitEachTicketExactlyOnce() throws Exception {
+		Queue<GateAdmissionService.Scan> scans = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(GATES);
+		LocalDateTime scannedAt = LocalDateTime.now();
+
+		for (int g = 0; g < GATES; g++) {
+			String gate = "Gate " + g;
+			pool.submit(() -> {
+				start.await();
+				for (long ticketId = 1; ticketId <= TICKETS; ticketId++) {
+					scans.add(service.scanTicket(EVENT_ID, ticketId, gate, scannedAt).orElseThrow());
+				}
+				return null;
+			});
+		}
+
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(scans).hasSize(TICKETS * GATES);
+		assertThat(scans.stream().filter(GateAdmissionService.Scan::firstEntry).map(GateAdmissionService.Scan::ticketId))
+				.hasSize(TICKETS)
+				.doesNotHaveDuplicates();
+		// Every ticket's re-entries are numbered 1..GATES-1 with no number handed out twice
+		for (long ticketId = 1; ticketId <= TICKETS; ticketId++) {
+			long id = ticketId;
+			assertThat(scans.stream().filter(scan -> scan.ticketId() == id && !scan.firstEntry())
+					.map(GateAdmissionService.Scan::reEntryCount))
+					.containsExactlyInAnyOrderElementsOf(IntStream.range(1, GATES).boxed().toList());
+		}
+		// Exactly one valid log, one CHECKED_IN transition and one notification per ticket
+		assertThat(written).hasSize(TICKETS * GATES);
+		assertThat(written.stream().filter(AttendanceLogWriter.Entry::checkIn).map(AttendanceLogWriter.Entry::ticketId))
+				.hasSize(TICKETS)
+				.doesNotHaveDuplicates();
+		assertThat(written.stream().filter(entry -> entry.status().equals("valid"))).hasSize(TICKETS);
+	}
+
+	@Test
+	void gatesOnTwoNodesAdmitEachTicketExactlyOnce() throws Exception {
+		List<GateAdmissionService> nodes = List.of(service, node());
+		Queue<GateAdmissionService.Scan> scans = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(GATES);
+		LocalDateTime scannedAt = LocalDateTime.now();
+
+		for (int g = 0; g < GATES; g++) {
+			GateAdmissionService node = nodes.get(g % nodes.size());
+			String gate = "Gate " + g;
+			pool.submit(() -> {
+				start.await();
+				for (long ticketId = 1; ticketId <= TICKETS; ticketId++) {
+					scans.add(node.scanTicket(EVENT_ID, ticketId, gate, scannedAt).orElseThrow());
+				}
+				return null;
+			});
+		}
+
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+		// Each node's index admits every ticket once; the row claim leaves one valid entry overall
+		assertThat(scans.stream().filter(GateAdmissionService.Scan::firstEntry).map(GateAdmissionService.Scan::ticketId))
+				.hasSize(TICKETS)
+				.doesNotHaveDuplicates();
+		assertThat(written.stream().filter(AttendanceLogWriter.Entry::checkIn).map(AttendanceLogWriter.Entry::ticketId))
+				.hasSize(TICKETS)
+				.doesNotHaveDuplicates();
+		assertThat(written.stream().filter(entry -> entry.status().equals("valid"))).hasSize(TICKETS);
+		assertThat(written.stream().filter(entry -> !entry.checkIn()).mapToInt(AttendanceLogWriter.Entry::reEntryCount))
+				.allMatch(count -> count > 0);
+	}
+
+	@Test
+	void ticketsOutsideTheIndexAreAdmittedOnceThroughTheConditionalUpdate() throws Exception {
+		LocalDateTime now = LocalDateTime.now();
+		EventEntity event = mock(EventEntity.class);
+		when(event.getEventID()).thenReturn(EVENT_ID);
+		when(event.getName()).thenReturn("Stress Test");
+		when(event.getStartDate()).thenReturn(now);
+		UserEntity holder = new UserEntity();
+		holder.setUserID(1001L);
+		String code = UUID.randomUUID().toString();
+
+		// Behaves like the native UPDATE: only the scan that still sees the ticket unchecked changes the row
+		AtomicBoolean checkedIn = new AtomicBoolean();
+		AtomicInteger reEntries = new AtomicInteger();
+		TicketRepository ticketRepository = mock(TicketRepository.class);
+		when(ticketRepository.findByQrCode(code)).thenAnswer(invocation -> {
+			TicketEntity ticket = new TicketEntity();
+			ticket.setTicketID(1L);
+			ticket.setEvent(event);
+			ticket.setUser(holder);
+			ticket.setQrCode(code);
+			ticket.setTicketType("General");
+			ticket.setStatus("ACTIVE");
+			return Optional.of(ticket);
+		});
+		when(ticketRepository.markCheckedIn(eq(1L), any(), any()))
+				.thenAnswer(invocation -> checkedIn.compareAndSet(false, true) ? 1 : 0);
+		when(ticketRepository.recordReEntry(eq(1L), any(), any()))
+				.thenAnswer(invocation -> {
+					reEntries.incrementAndGet();
+					return 1;
+				});
+		OutboxService outboxService = mock(OutboxService.class);
+		GateAdmissionService gates = mock(GateAdmissionService.class);
+		when(gates.scanLegacyCode(any(), any(), any())).thenReturn(Optional.empty());
+		TicketService ticketService = new TicketService(ticketRepository, mock(UserRepository.class),
+				mock(EventRepository.class), mock(PaymentRepository.class), outboxService,
+				mock(TicketInventoryService.class), mock(IdAllocator.class), mock(TicketHoldService.class),
+				mock(WaitingRoomService.class), mock(TicketTypeService.class), mock(QrTokenService.class), gates,
+				mock(AttendanceLogWriter.class), new ScanMetrics(new SimpleMeterRegistry()),
+				mock(PlatformTransactionManager.class), 500);
+
+		Queue<TicketScanResponse> responses = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(GATES);
+		for (int g = 0; g < GATES; g++) {
+			String gate = "Gate " + g;
+			pool.submit(() -> {
+				start.await();
+				responses.add(ticketService.scanTicket(new TicketScanRequest(code, null, gate)));
+				return null;
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(responses).hasSize(GATES);
+		assertThat(responses.stream().filter(response -> response.status().equals("valid"))).hasSize(1);
+		assertThat(responses.stream().filter(response -> response.status().equals("duplicate")))
+				.hasSize(GATES - 1);
+		assertThat(reEntries).hasValue(GATES - 1);
+		verify(outboxService, times(1)).publish(eq(OutboxEventType.TICKET_CHECKED_IN), eq(EVENT_ID), any());
+	}
+}
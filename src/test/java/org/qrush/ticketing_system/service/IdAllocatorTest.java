@@ -0,0 +1,82 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdAllocatorTest {
+
+	private static final int BLOCK_SIZE = 10;
+
+	private final AtomicLong nextVal = new AtomicLong(1);
+	private final Set<String> reservingThreads = ConcurrentHashMap.newKeySet();
+	private final ThreadLocal<Long> lastInsertId = new ThreadLocal<>();
+	private IdAllocator allocator;
+
+	@BeforeEach
+	void setUp() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.update(anyString(), anyInt(), eq(IdAllocator.TICKET_SEQUENCE))).thenAnswer(invocation -> {
+			reservingThreads.add(Thread.currentThread().getName());
+			lastInsertId.set(nextVal.addAndGet(invocation.<Integer>getArgument(1)));
+			return 1;
+		});
+		when(jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class))
+				.thenAnswer(invocation -> lastInsertId.get());
+		allocator = new IdAllocator(jdbcTemplate, mock(PlatformTransactionManager.class), BLOCK_SIZE, 5000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		allocator.shutdown();
+	}
+
+	@Test
+	void concurrentCallersGetUniqueIdsReservedOffTheirOwnThreads() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<long[]>> results = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			int count = i % 7 + 1;
+			results.add(pool.submit(() -> allocator.allocate(IdAllocator.TICKET_SEQUENCE, count)));
+		}
+		Set<Long> ids = new HashSet<>();
+		int expected = 0;
+		for (Future<long[]> result : results) {
+			long[] allocated = result.get();
+			expected += allocated.length;
+			for (long id : allocated) {
+				ids.add(id);
+			}
+		}
+		pool.shutdown();
+
+		assertThat(ids).hasSize(expected);
+		assertThat(reservingThreads).containsOnly("id-allocator-refill");
+	}
+
+	@Test
+	void requestLargerThanABlockIsServedInOneCall() {
+		long[] ids = allocator.allocate(IdAllocator.TICKET_SEQUENCE, BLOCK_SIZE * 3 + 1);
+
+		assertThat(ids).doesNotHaveDuplicates().hasSize(BLOCK_SIZE * 3 + 1);
+	}
+}
@@ -0,0 +1,77 @@
+package org.qrush.ticketing_system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.qrush.ticketing_system.entity.NotificationEntity;
+import org.qrush.ticketing_system.entity.OutboxEventEntity;
+import org.qrush.ticketing_system.entity.OutboxEventType;
+import org.qrush.ticketing_system.repository.NotificationRepository;
+import org.qrush.ticketing_system.repository.OutboxEventRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxDispatcherTest {
+
+	private static final long POISON_USER = 666L;
+
+	@Test
+	void eventRejectedByTheDatabaseIsRetriedAloneWhileTheRestOfItsBatchIsDelivered() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		List<OutboxEventEntity> events = new ArrayList<>();
+		for (long id = 1; id <= 3; id++) {
+			events.add(checkedIn(objectMapper, id, id == 2 ? POISON_USER : id));
+		}
+		OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+		when(outbox.findPendingForUpdate(any(), any())).thenReturn(events).thenReturn(List.of());
+		when(outbox.findPendingIds(any(), any())).thenReturn(List.of(1L, 2L, 3L));
+		for (OutboxEventEntity event : events) {
+			when(outbox.findPendingByIdForUpdate(event.getId())).thenReturn(Optional.of(event));
+		}
+		List<Long> processed = new ArrayList<>();
+		when(outbox.markProcessed(anyList(), any())).thenAnswer(invocation -> {
+			processed.addAll(invocation.getArgument(0));
+			return processed.size();
+		});
+		List<NotificationEntity> saved = new ArrayList<>();
+		NotificationRepository notifications = mock(NotificationRepository.class);
+		when(notifications.saveAll(anyList())).thenAnswer(invocation -> {
+			List<NotificationEntity> batch = invocation.getArgument(0);
+			if (batch.stream().anyMatch(n -> n.getUserId() == POISON_USER)) {
+				throw new DataIntegrityViolationException("notifications.user_id foreign key");
+			}
+			saved.addAll(batch);
+			return batch;
+		});
+		OutboxDispatcher dispatcher = new OutboxDispatcher(outbox, notifications, objectMapper,
+				mock(PlatformTransactionManager.class), 3, 5, 1000, 300000, 7);
+
+		dispatcher.dispatch();
+
+		assertThat(processed).containsExactly(1L, 3L);
+		assertThat(saved).extracting(NotificationEntity::getUserId).containsExactly(1L, 3L);
+		OutboxEventEntity poison = events.get(1);
+		assertThat(poison.getAttempts()).isEqualTo(1);
+		assertThat(poison.getNextAttemptAt()).isNotNull();
+		assertThat(poison.getLastError()).contains("foreign key");
+	}
+
+	private static OutboxEventEntity checkedIn(ObjectMapper objectMapper, long id, long userId) throws Exception {
+		OutboxEventEntity event = new OutboxEventEntity();
+		event.setId(id);
+		event.setEventType(OutboxEventType.TICKET_CHECKED_IN);
+		event.setAggregateId(9L);
+		event.setPayload(objectMapper.writeValueAsString(Map.of("userId", userId, "eventName", "Gig", "gate", "A")));
+		return event;
+	}
+}
@@ -0,0 +1,62 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Booking throughput and latency on one hot event. Not part of the unit suite (surefire only picks
+ * up *Test classes); run it on demand with {@code mvn test -Dtest=StripedInventoryCounterBenchmark}.
+ */
+class StripedInventoryCounterBenchmark {
+
+	private static final int THREADS = 32;
+	private static final int ATTEMPTS_PER_THREAD = 20_000;
+	private static final int CAPACITY = 250_000;
+
+	@Test
+	void reportsThroughputAndLatency() throws Exception {
+		StripedInventoryCounter counter = new StripedInventoryCounter(CAPACITY, 16);
+		AtomicInteger sold = new AtomicInteger();
+		long[][] latencies = new long[THREADS][ATTEMPTS_PER_THREAD];
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					int quantity = 1 + (i % 4);
+					long begin = System.nanoTime();
+					boolean acquired = counter.tryAcquire(quantity);
+					latencies[thread][i] = System.nanoTime() - begin;
+					if (acquired) {
+						sold.addAndGet(quantity);
+					}
+				}
+				return null;
+			});
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+		long elapsed = System.nanoTime() - begin;
+
+		assertThat(sold.get()).isEqualTo(CAPACITY);
+		long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+		double throughput = all.length / (elapsed / 1_000_000_000.0);
+		long p99 = all[(int) Math.ceil(all.length * 0.99) - 1];
+		System.out.printf("Hot event booking: %d attempts, %.0f ops/s, p50=%dns, p99=%dns%n",
+				all.length, throughput, all[all.length / 2], p99);
+	}
+}
@@ -0,0 +1,83 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedInventoryCounterTest {
+
+	private static final int THREADS = 32;
+	private static final int ATTEMPTS_PER_THREAD = 20_000;
+	private static final int CAPACITY = 250_000;
+
+	@Test
+	void hotEventNeverOversells() throws Exception {
+		StripedInventoryCounter counter = new StripedInventoryCounter(CAPACITY, 16);
+		AtomicInteger sold = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+		for (int t = 0; t < THREADS; t++) {
+			pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					int quantity = 1 + (i % 4);
+					if (counter.tryAcquire(quantity)) {
+						sold.addAndGet(quantity);
+					}
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(sold.get()).isEqualTo(CAPACITY);
+		assertThat(counter.available()).isZero();
+	}
+
+	@Test
+	void contendedGathersNeverRefuseWhileEnoughSeatsRemain() throws Exception {
+		// Stripes hold a few seats each, so most requests must gather from several of them
+		StripedInventoryCounter counter = new StripedInventoryCounter(1_000, 64);
+		AtomicInteger sold = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+		for (int t = 0; t < THREADS; t++) {
+			pool.submit(() -> {
+				start.await();
+				while (counter.tryAcquire(7)) {
+					sold.addAndGet(7);
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(counter.available()).isLessThan(7);
+		assertThat(sold.get() + counter.available()).isEqualTo(1_000);
+	}
+
+	@Test
+	void releasedSeatsCanBeBookedAgain() {
+		StripedInventoryCounter counter = new StripedInventoryCounter(5, 4);
+
+		assertThat(counter.tryAcquire(5)).isTrue();
+		assertThat(counter.tryAcquire(1)).isFalse();
+
+		counter.release(2);
+
+		assertThat(counter.tryAcquire(2)).isTrue();
+		assertThat(counter.available()).isZero();
+	}
+}
@@ -0,0 +1,42 @@
+package org.qrush.ticketing_system.service;
+
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.entity.EventStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+/**
+ * Real {@link EventEntity} instances for the in-memory index tests. The ID is normally assigned
+ * by the database, so it is set directly.
+ */
+final class TestEvents {
+
+	private TestEvents() {
+	}
+
+	static EventEntity event(long id, String name, String category, String location, String description,
+			LocalDateTime start) {
+		EventEntity event = new EventEntity();
+		ReflectionTestUtils.setField(event, "eventID", id);
+		event.setName(name);
+		event.setCategory(category);
+		event.setLocation(location);
+		event.setDescription(description);
+		event.setStartDate(start);
+		event.setEndDate(start.plusHours(3));
+		event.setStatus(EventStatus.AVAILABLE);
+		event.setTicketPrice(0.0);
+		event.setCapacity(100);
+		event.setTicketsSold(0);
+		return event;
+	}
+
+	static EventEntity event(long id, String category, double price, int capacity, int sold, LocalDateTime start) {
+		EventEntity event = event(id, "Event " + id, category, "Colombo", null, start);
+		event.setTicketPrice(price);
+		event.setCapacity(capacity);
+		event.setTicketsSold(sold);
+		return event;
+	}
+}
@@ -0,0 +1,74 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qrush.ticketing_system.dto.TicketHoldRequest;
+import org.qrush.ticketing_system.dto.TicketHoldResponse;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.TicketTypeRepository;
+import org.qrush.ticketing_system.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TicketHoldServiceTest {
+
+	private static final long EVENT_ID = 9L;
+	private static final TicketTypeService.TicketType GENERAL = new TicketTypeService.TicketType(
+			null, EVENT_ID, "General", 100, null, 0, null, List.of());
+
+	private final EventEntity event = mock(EventEntity.class);
+	private TicketInventoryService inventory;
+	private TicketHoldService holds;
+
+	@BeforeEach
+	void setUp() {
+		when(event.getEventID()).thenReturn(EVENT_ID);
+		when(event.getCapacity()).thenReturn(10);
+		when(event.getTicketsSold()).thenReturn(0);
+		EventRepository eventRepository = mock(EventRepository.class);
+		when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event));
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.existsById(anyLong())).thenReturn(true);
+		TicketTypeService ticketTypeService = mock(TicketTypeService.class);
+		when(ticketTypeService.resolve(any(), any())).thenReturn(GENERAL);
+
+		inventory = new TicketInventoryService(eventRepository, mock(TicketTypeRepository.class),
+				mock(EventFacetIndex.class), 4);
+		// Zero-minute holds are due on the next tick
+		holds = new TicketHoldService(inventory, eventRepository, userRepository, ticketTypeService, 0, 10, 1);
+	}
+
+	@Test
+	void expiredHoldAfterAnEvictionReturnsOnlyItsOwnSeats() throws Exception {
+		holds.createHold(new TicketHoldRequest(1L, EVENT_ID, 4, null, null));
+		// An organizer edit reloads the counter while the hold is still open
+		inventory.evict(EVENT_ID);
+		holds.createHold(new TicketHoldRequest(2L, EVENT_ID, 1, null, null));
+		assertThat(inventory.available(EVENT_ID)).isEqualTo(5);
+
+		Thread.sleep(5);
+		holds.expireHolds();
+
+		assertThat(holds.activeHolds()).isZero();
+		assertThat(inventory.available(EVENT_ID)).isEqualTo(10);
+	}
+
+	@Test
+	void releasedHoldIsNotReturnedAgainOnExpiry() throws Exception {
+		TicketHoldResponse hold = holds.createHold(new TicketHoldRequest(1L, EVENT_ID, 3, null, null));
+		holds.release(hold.holdId());
+
+		Thread.sleep(5);
+		holds.expireHolds();
+
+		assertThat(inventory.available(EVENT_ID)).isEqualTo(10);
+	}
+}
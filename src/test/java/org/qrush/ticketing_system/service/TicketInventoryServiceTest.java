@@ -0,0 +1,86 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qrush.ticketing_system.entity.EventEntity;
+import org.qrush.ticketing_system.repository.EventRepository;
+import org.qrush.ticketing_system.repository.TicketTypeRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TicketInventoryServiceTest {
+
+	private static final long EVENT_ID = 5L;
+	private static final TicketTypeService.TicketType GENERAL = new TicketTypeService.TicketType(
+			null, EVENT_ID, "General", 100, null, 0, null, List.of());
+
+	private final EventEntity event = mock(EventEntity.class);
+	private TicketInventoryService inventory;
+
+	@BeforeEach
+	void setUp() {
+		when(event.getEventID()).thenReturn(EVENT_ID);
+		when(event.getCapacity()).thenReturn(10);
+		when(event.getTicketsSold()).thenReturn(0);
+		inventory = new TicketInventoryService(mock(EventRepository.class), mock(TicketTypeRepository.class),
+				mock(EventFacetIndex.class), 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void seatsReleasedAfterAReloadAreNotCountedTwice() {
+		// Held outside a transaction, then the counter is reloaded while the hold is open
+		inventory.reserve(event, GENERAL, 4);
+		inventory.evict(EVENT_ID);
+		inventory.reserve(event, GENERAL, 1);
+		assertThat(inventory.available(EVENT_ID)).isEqualTo(5);
+
+		inventory.release(EVENT_ID, null, 4);
+
+		assertThat(inventory.available(EVENT_ID)).isEqualTo(9);
+	}
+
+	@Test
+	void rolledBackBookingReturnsItsSeatsOnce() {
+		TransactionSynchronizationManager.initSynchronization();
+		inventory.reserve(event, GENERAL, 3);
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		inventory.evict(EVENT_ID);
+		inventory.reserve(event, GENERAL, 1);
+		TransactionSynchronizationManager.clearSynchronization();
+
+		synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		assertThat(inventory.available(EVENT_ID)).isEqualTo(9);
+	}
+
+	@Test
+	void committedSeatsAreTakenFromTheDatabaseOnReload() {
+		TransactionSynchronizationManager.initSynchronization();
+		inventory.reserve(event, GENERAL, 2);
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+		when(event.getTicketsSold()).thenReturn(2);
+		inventory.evict(EVENT_ID);
+		inventory.reserve(event, GENERAL, 8);
+
+		assertThat(inventory.available(EVENT_ID)).isZero();
+		assertThatThrownBy(() -> inventory.reserve(event, GENERAL, 1)).isInstanceOf(IllegalStateException.class);
+	}
+}
@@ -0,0 +1,71 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class UniqueViewerSetTest {
+
+	@Test
+	void countsEachViewerOnceAcrossSparseAndDenseChunks() {
+		UniqueViewerSet viewers = new UniqueViewerSet();
+		long added = 0;
+		// Chunk 0 turns into a bitmap, the far chunk stays a sorted array
+		for (int round = 0; round < 2; round++) {
+			for (long userId = 1; userId <= 10_000; userId++) {
+				added += viewers.add(userId);
+			}
+			added += viewers.add(5_000_000_000L);
+		}
+
+		assertThat(added).isEqualTo(10_001);
+		assertThat(viewers.cardinality()).isEqualTo(10_001);
+		assertThat(viewers.isSketch()).isFalse();
+	}
+
+	@Test
+	void snapshotRoundTripsAndMergesAsUnion() {
+		UniqueViewerSet first = new UniqueViewerSet();
+		UniqueViewerSet second = new UniqueViewerSet();
+		for (long userId = 0; userId < 6_000; userId++) {
+			first.add(userId * 3);
+			second.add(userId * 2);
+		}
+
+		UniqueViewerSet restored = UniqueViewerSet.fromBytes(first.toBytes());
+		assertThat(restored.cardinality()).isEqualTo(6_000);
+		assertThat(restored.add(3)).isZero();
+
+		restored.merge(second);
+		// Multiples of 6 below 12000 are in both sets
+		assertThat(restored.cardinality()).isEqualTo(6_000 + 6_000 - 2_000);
+		assertThat(restored.add(6)).isZero();
+		assertThat(restored.add(7)).isEqualTo(1);
+	}
+
+	@Test
+	void sketchEstimatesLargeEventsWithinAFewPercent() {
+		UniqueViewerSet viewers = new UniqueViewerSet();
+		for (long userId = 1; userId <= 1_000; userId++) {
+			viewers.add(userId);
+		}
+		viewers.toSketch();
+		long added = 0;
+		for (int round = 0; round < 2; round++) {
+			for (long userId = 1; userId <= 500_000; userId++) {
+				added += viewers.add(userId);
+			}
+		}
+
+		assertThat(viewers.isSketch()).isTrue();
+		assertThat((double) viewers.cardinality()).isCloseTo(500_000, within(15_000.0));
+		assertThat(1_000 + added).isEqualTo(viewers.cardinality());
+
+		UniqueViewerSet restored = UniqueViewerSet.fromBytes(viewers.toBytes());
+		assertThat(restored.isSketch()).isTrue();
+		assertThat(restored.cardinality()).isEqualTo(viewers.cardinality());
+		// A sketch is stored at a fixed size however many viewers it has seen
+		assertThat(viewers.toBytes().length).isLessThan(20_000);
+	}
+}
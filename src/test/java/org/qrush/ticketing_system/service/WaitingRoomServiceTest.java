@@ -0,0 +1,145 @@
+package org.qrush.ticketing_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qrush.ticketing_system.service.WaitingRoomStore.RoomState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WaitingRoomServiceTest {
+
+	private static final Long EVENT_ID = 7L;
+	private static final int BURST = 3;
+
+	private final InMemoryStore store = new InMemoryStore();
+	private WaitingRoomService nodeA;
+	private WaitingRoomService nodeB;
+
+	@BeforeEach
+	void setUp() {
+		nodeA = node();
+		nodeB = node();
+		nodeA.open(EVENT_ID, 0.001, BURST);
+		nodeB.refresh();
+	}
+
+	@Test
+	void admissionIsSpentOnlyWhenConsumedAndOnlyOnce() {
+		String token = nodeA.join(EVENT_ID).token();
+
+		assertThatCode(() -> nodeA.checkAdmission(EVENT_ID, token)).doesNotThrowAnyException();
+		assertThatCode(() -> nodeA.checkAdmission(EVENT_ID, token)).doesNotThrowAnyException();
+		assertThatCode(() -> nodeA.consumeAdmission(EVENT_ID, token)).doesNotThrowAnyException();
+		assertThatThrownBy(() -> nodeA.consumeAdmission(EVENT_ID, token))
+				.isInstanceOf(WaitingRoomService.NotAdmittedException.class)
+				.hasMessageContaining("already been used");
+	}
+
+	@Test
+	void tokensAreHonouredAndSpentAcrossNodes() {
+		String token = nodeA.join(EVENT_ID).token();
+
+		assertThat(nodeB.status(token).admitted()).isTrue();
+		nodeB.consumeAdmission(EVENT_ID, token);
+		assertThatThrownBy(() -> nodeA.consumeAdmission(EVENT_ID, token))
+				.isInstanceOf(WaitingRoomService.NotAdmittedException.class);
+	}
+
+	@Test
+	void nodesShareOneQueue() {
+		List<String> tokens = new ArrayList<>();
+		for (int i = 0; i < BURST * 2; i++) {
+			tokens.add((i % 2 == 0 ? nodeA : nodeB).join(EVENT_ID).token());
+		}
+
+		for (String token : tokens.subList(0, BURST)) {
+			assertThat(nodeB.status(token).admitted()).isTrue();
+		}
+		for (String token : tokens.subList(BURST, tokens.size())) {
+			assertThat(nodeA.status(token).admitted()).isFalse();
+			assertThatThrownBy(() -> nodeB.checkAdmission(EVENT_ID, token))
+					.isInstanceOf(WaitingRoomService.NotAdmittedException.class)
+					.hasMessageContaining("not your turn");
+		}
+		assertThat(nodeA.status(tokens.get(tokens.size() - 1)).position()).isEqualTo(BURST);
+	}
+
+	@Test
+	void roomOpenedOnAnotherNodeIsEnforcedFromTheNextRefresh() {
+		Long otherEvent = 8L;
+		nodeA.open(otherEvent, 1.0, 1);
+
+		assertThatCode(() -> nodeB.checkAdmission(otherEvent, null)).doesNotThrowAnyException();
+		nodeB.refresh();
+		assertThatThrownBy(() -> nodeB.checkAdmission(otherEvent, null))
+				.isInstanceOf(WaitingRoomService.NotAdmittedException.class)
+				.hasMessageContaining("Join the queue");
+	}
+
+	private WaitingRoomService node() {
+		WaitingRoomService node = new WaitingRoomService(store, "secret", 1, 100, 1_000, 7200);
+		node.afterPropertiesSet();
+		return node;
+	}
+
+	/**
+	 * Stands in for the shared tables; both nodes of a test use the same instance.
+	 */
+	private static final class InMemoryStore extends WaitingRoomStore {
+		private final Map<Long, RoomState> rooms = new HashMap<>();
+		private final Map<Long, Long> issued = new HashMap<>();
+		private final Set<List<Long>> claimed = new HashSet<>();
+
+		InMemoryStore() {
+			super(null, null);
+		}
+
+		@Override
+		void createTables() {
+		}
+
+		@Override
+		synchronized List<RoomState> loadOpen() {
+			return List.copyOf(rooms.values());
+		}
+
+		@Override
+		synchronized void open(Long eventId, double ratePerSecond, int burst, long nowMillis) {
+			RoomState existing = rooms.get(eventId);
+			long base = existing == null ? burst : existing.admitted(nowMillis);
+			rooms.put(eventId, new RoomState(eventId, ratePerSecond, burst, base, nowMillis));
+			issued.putIfAbsent(eventId, 0L);
+		}
+
+		@Override
+		synchronized void close(Long eventId) {
+			rooms.remove(eventId);
+			issued.remove(eventId);
+		}
+
+		@Override
+		synchronized long issue(Long eventId, long floor, long limit) {
+			Long current = issued.get(eventId);
+			if (current == null || Math.max(current, floor) >= limit) {
+				return -1;
+			}
+			long sequence = Math.max(current, floor);
+			issued.put(eventId, sequence + 1);
+			return sequence;
+		}
+
+		@Override
+		synchronized boolean claim(Long eventId, long sequence) {
+			return claimed.add(List.of(eventId, sequence));
+		}
+	}
+}